@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Builds the startup-optimized distribution: AOT-processed bean definitions plus an AppCDS archive.
+# Usage: scripts/build-fast-startup.sh [output-dir]
+# Uses the Gradle or Maven wrapper when present, else gradle or mvn from the PATH.
+set -euo pipefail
+
+OUT_DIR="${1:-dist/fast-startup}"
+
+# Both builds run Spring AOT (processAot / spring-boot:process-aot), which generates the bean definitions used
+# when spring.aot.enabled=true, then package the executable jar.
+if [[ -x ./gradlew ]] || { [[ -f build.gradle || -f build.gradle.kts ]] && command -v gradle > /dev/null; }; then
+  GRADLE=./gradlew
+  [[ -x "$GRADLE" ]] || GRADLE=gradle
+  "$GRADLE" bootJar
+  JAR="$(ls build/libs/*.jar | grep -v -- '-plain.jar' | head -n 1)"
+elif [[ -x ./mvnw ]] || { [[ -f pom.xml ]] && command -v mvn > /dev/null; }; then
+  MAVEN=./mvnw
+  [[ -x "$MAVEN" ]] || MAVEN=mvn
+  "$MAVEN" -B -DskipTests compile spring-boot:process-aot package
+  JAR="$(ls target/*.jar | grep -v -- '-plain.jar' | head -n 1)"
+else
+  echo "No Gradle or Maven build found in $(pwd)" >&2
+  exit 1
+fi
+
+rm -rf "$OUT_DIR"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT_DIR"
+APP_JAR="$OUT_DIR/$(basename "$JAR")"
+
+# Training run: start the context, exit once it is refreshed and dump the loaded classes into the archive.
+java -XX:ArchiveClassesAtExit="$OUT_DIR/application.jsa" \
+     -Dspring.aot.enabled=true \
+     -Dspring.context.exit=onRefresh \
+     -Dspring.profiles.active=fast-startup \
+     -jar "$APP_JAR"
+
+echo "Run with:"
+echo "  java -XX:SharedArchiveFile=$OUT_DIR/application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup -jar $APP_JAR"
+echo "Measure the startup time with:"
+echo "  scripts/measure-startup.sh $OUT_DIR"
@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Measures the startup time of the distribution built by build-fast-startup.sh against the 1 s target.
+# Each run starts a fresh JVM that exits once the context is refreshed, the point where the web server accepts
+# requests; the wall-clock time therefore covers JVM start, class loading, the database connection and Flyway.
+# Usage: scripts/measure-startup.sh [distribution-dir] [runs]
+set -euo pipefail
+
+OUT_DIR="${1:-dist/fast-startup}"
+RUNS="${2:-5}"
+TARGET_MS=1000
+
+APP_JAR="$(ls "$OUT_DIR"/*.jar | head -n 1)"
+if [[ ! -f "$OUT_DIR/application.jsa" ]]; then
+  echo "No AppCDS archive in $OUT_DIR, run scripts/build-fast-startup.sh first" >&2
+  exit 1
+fi
+
+TIMES=()
+for ((run = 1; run <= RUNS; run++)); do
+  START_NS=$(date +%s%N)
+  java -XX:SharedArchiveFile="$OUT_DIR/application.jsa" \
+       -Dspring.aot.enabled=true \
+       -Dspring.context.exit=onRefresh \
+       -Dspring.profiles.active=fast-startup \
+       -jar "$APP_JAR" > /dev/null
+  ELAPSED_MS=$(( ($(date +%s%N) - START_NS) / 1000000 ))
+  TIMES+=("$ELAPSED_MS")
+  echo "run $run: ${ELAPSED_MS} ms"
+done
+
+MEDIAN_MS=$(printf '%s\n' "${TIMES[@]}" | sort -n | awk '{ times[NR] = $1 } END { print times[int((NR + 1) / 2)] }')
+echo "median: ${MEDIAN_MS} ms (target ${TARGET_MS} ms)"
+if (( MEDIAN_MS > TARGET_MS )); then
+  exit 2
+fi
@@ -2,12 +2,34 @@ package com.exalt.training.springsecurity;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
 @SpringBootApplication
 public class SpringsecurityApplication {
 
+	private static final int STARTUP_STEPS_CAPACITY = 4096; // startup steps kept for the timeline report
+
 	public static void main(String[] args) {
-		SpringApplication.run(SpringsecurityApplication.class, args);
+		SpringApplication application = new SpringApplication(SpringsecurityApplication.class);
+		if (startupReportEnabled(args)) {
+			application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+		}
+		application.run(args);
+	}
+
+	/**
+	 * Reads {@code app.startup.report.enabled} before the context exists, from the command line, the system
+	 * properties or the environment; recording the startup steps costs time, so it is off unless asked for.
+	 *
+	 * @param args the command line arguments
+	 * @return true if the startup steps must be recorded for the timeline report
+	 */
+	static boolean startupReportEnabled(String[] args) {
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		return environment.getProperty("app.startup.report.enabled", Boolean.class, false);
 	}
 
 }
@@ -0,0 +1,22 @@
+package com.exalt.training.springsecurity.audit;
+
+/**
+ * Enumeration of the audited security and admin actions.
+ *
+ * <ul>
+ *     <li>SIGNIN_SUCCEEDED: A user signed in; the actor is the user.</li>
+ *     <li>SIGNIN_FAILED: A sign-in was rejected; the actor is the email that was tried.</li>
+ *     <li>ROLE_CHANGED: The system-wide role of a user changed.</li>
+ *     <li>USER_DELETED: A user was deleted.</li>
+ *     <li>USERS_IMPORTED: Users were created by a bulk import; the details hold the counts per status.</li>
+ *     <li>PROJECT_DELETED: A project was deleted.</li>
+ * </ul>
+ */
+public enum AuditAction {
+    SIGNIN_SUCCEEDED, //AuthenticationServiceImpl
+    SIGNIN_FAILED, //AuthenticationServiceImpl
+    ROLE_CHANGED, //UserDetailsServiceImpl
+    USER_DELETED, //UserDetailsServiceImpl
+    USERS_IMPORTED, //UserImportServiceImpl
+    PROJECT_DELETED //ProjectServiceImpl
+}
@@ -0,0 +1,15 @@
+package com.exalt.training.springsecurity.audit;
+
+import java.time.Instant;
+
+/**
+ * Audited action waiting in the buffer for the writer thread.
+ *
+ * @param occurredAt the time of the action
+ * @param action     the action
+ * @param actor      the user who acted, or the email tried for a sign-in
+ * @param target     the email or title the action applied to, or null
+ * @param details    free-form details, or null
+ */
+public record AuditEvent(Instant occurredAt, AuditAction action, String actor, String target, String details) {
+}
@@ -0,0 +1,100 @@
+package com.exalt.training.springsecurity.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * A producer claims a slot by advancing the tail with a compare-and-set, then publishes its element in the slot;
+ * the consumer takes elements in claim order and frees the slots. Producers never block: {@link #offer(Object)}
+ * returns false when the buffer is full.
+ *
+ * @param <E> the element type
+ */
+public final class MpscRingBuffer<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // next position to claim, advanced by producers
+    private final AtomicLong head = new AtomicLong(); // next position to consume, advanced by the consumer only
+
+    /**
+     * Creates a buffer.
+     *
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an element without waiting. Safe to call from any thread.
+     *
+     * @param element the element, not null
+     * @return true if the element was added, false if the buffer is full
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            if (position - head.get() >= slots.length()) {
+                return false;
+            }
+            if (tail.compareAndSet(position, position + 1)) {
+                slots.lazySet((int) position & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} elements into a list, in claim order. Must only be called by the consumer thread.
+     * Stops early at a slot claimed by a producer that has not published its element yet.
+     *
+     * @param target the list receiving the elements
+     * @param max    the maximum number of elements to move
+     * @return the number of elements moved
+     */
+    public int drainTo(List<E> target, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) position & mask;
+            E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            target.add(element);
+            position++;
+            drained++;
+        }
+        head.lazySet(position); // frees the slots for the producers
+        return drained;
+    }
+
+    /**
+     * Returns the number of claimed slots, including elements being published.
+     *
+     * @return the approximate number of buffered elements
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,14 @@
+package com.exalt.training.springsecurity.audit;
+
+/**
+ * Enumeration of what happens to an audit event when the buffer is full. Neither policy makes the request wait.
+ *
+ * <ul>
+ *     <li>DROP: The event is discarded and counted.</li>
+ *     <li>LOG: The event is discarded, counted and written to the application log instead.</li>
+ * </ul>
+ */
+public enum OverflowPolicy {
+    DROP, //cheapest, for load tests
+    LOG //default: the log keeps a trace of every dropped event
+}
@@ -0,0 +1,47 @@
+package com.exalt.training.springsecurity.authorization;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.function.Supplier;
+
+/**
+ * AuthorizationManager evaluating each request against a {@link RouteAuthorizationTable}.
+ * One table lookup and one rule evaluation per request; the authentication is only resolved when the rule
+ * needs it, and the two possible decisions are shared instances.
+ * Routes are matched on the decoded path within the application, with {@code ;} path parameters removed, so
+ * that {@code /users/%61ll} or {@code /users/all;x=y} resolve to the same rule as {@code /users/all}.
+ */
+public class RouteAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    private static final UrlPathHelper PATH_HELPER = UrlPathHelper.defaultInstance; // decodes and strips ';' content
+
+    private final RouteAuthorizationTable table;
+
+    public RouteAuthorizationManager(RouteAuthorizationTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Decides whether the request may proceed.
+     *
+     * @param authentication supplies the current authentication
+     * @param context        the request being authorized
+     * @return the shared granted or denied decision
+     */
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        HttpServletRequest request = context.getRequest();
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        RouteRule rule = table.lookup(request.getMethod(), path);
+        if (!rule.requiresAuthentication()) {
+            return GRANTED;
+        }
+        return rule.isGranted(authentication.get()) ? GRANTED : DENIED;
+    }
+}
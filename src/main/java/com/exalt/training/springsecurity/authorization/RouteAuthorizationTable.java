@@ -0,0 +1,188 @@
+package com.exalt.training.springsecurity.authorization;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Route-to-rule lookup structure compiled once at startup.
+ * Path templates are stored in a trie of path segments: literal segments are hash lookups, {@code {variable}}
+ * segments match any single segment and a trailing {@code /**} matches the rest of the path. Each node holds
+ * one rule slot per HTTP method plus one for any method, so a lookup costs one hash probe per path segment
+ * instead of trying every pattern in declaration order.
+ * <p>
+ * Literal segments take precedence over variables, which take precedence over {@code /**}.
+ * Requests matching no route get the default rule.
+ * </p>
+ */
+public final class RouteAuthorizationTable {
+    private static final String[] METHODS = {"GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE"};
+    private static final int GET = 0;
+    private static final int HEAD = 1; // Spring MVC serves HEAD with the GET handlers, so it inherits their rules
+    private static final int ANY_METHOD = METHODS.length; // slot of the rules declared without a method
+
+    private final Node root;
+    private final RouteRule defaultRule;
+
+    private RouteAuthorizationTable(Node root, RouteRule defaultRule) {
+        this.root = root;
+        this.defaultRule = defaultRule;
+    }
+
+    /**
+     * Creates a builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Finds the rule of a request.
+     *
+     * @param method the HTTP method
+     * @param path   the decoded request path within the application, without context path
+     * @return the matching rule, or the default rule
+     */
+    public RouteRule lookup(String method, String path) {
+        RouteRule rule = match(root, path, 0, methodIndex(method));
+        return rule != null ? rule : defaultRule;
+    }
+
+    private static RouteRule match(Node node, String path, int from, int method) {
+        int start = from;
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        if (start >= path.length()) {
+            RouteRule rule = node.exact.get(method);
+            return rule != null ? rule : node.rest.get(method);
+        }
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        Node literal = node.literals.get(path.substring(start, end));
+        if (literal != null) {
+            RouteRule rule = match(literal, path, end, method);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        if (node.variable != null) {
+            RouteRule rule = match(node.variable, path, end, method);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return node.rest.get(method);
+    }
+
+    private static int methodIndex(String method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i].equals(method)) {
+                return i;
+            }
+        }
+        return ANY_METHOD;
+    }
+
+    /**
+     * Rules of one node, one slot per method; a lookup falls back to the any-method slot.
+     */
+    private static final class Rules {
+        private final RouteRule[] byMethod = new RouteRule[ANY_METHOD + 1];
+
+        private RouteRule get(int method) {
+            RouteRule rule = byMethod[method];
+            if (rule == null && method == HEAD) {
+                rule = byMethod[GET];
+            }
+            return rule != null ? rule : byMethod[ANY_METHOD];
+        }
+
+        private void put(int method, RouteRule rule, String route) {
+            if (byMethod[method] != null) {
+                throw new IllegalStateException("Duplicate authorization rule for " + route);
+            }
+            byMethod[method] = rule;
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>(); // literal segment -> child
+        private Node variable; // child for a {variable} segment
+        private final Rules exact = new Rules(); // rules of paths ending at this node
+        private final Rules rest = new Rules(); // rules of "/**" below this node
+    }
+
+    /**
+     * Builder collecting the routes; duplicate method and path pairs are rejected.
+     */
+    public static final class Builder {
+        private final Node root = new Node();
+        private RouteRule defaultRule = RouteRule.DENY_ALL;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a route.
+         *
+         * @param method       the HTTP method, or null for any method
+         * @param pathTemplate the path template, e.g. {@code /projects/retrieve/{title}} or {@code /actuator/**}
+         * @param rule         the access rule
+         * @return this builder
+         */
+        public Builder route(HttpMethod method, String pathTemplate, RouteRule rule) {
+            Node node = root;
+            String[] segments = pathTemplate.split("/");
+            boolean rest = false;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if ("**".equals(segment)) {
+                    if (i != segments.length - 1) {
+                        throw new IllegalArgumentException("'**' must be the last segment: " + pathTemplate);
+                    }
+                    rest = true;
+                } else if (segment.startsWith("{") && segment.endsWith("}")) {
+                    if (node.variable == null) {
+                        node.variable = new Node();
+                    }
+                    node = node.variable;
+                } else {
+                    node = node.literals.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+            int index = method == null ? ANY_METHOD : methodIndex(method.name());
+            String route = (method == null ? "*" : method.name()) + " " + pathTemplate;
+            (rest ? node.rest : node.exact).put(index, rule, route);
+            return this;
+        }
+
+        /**
+         * Sets the rule of requests matching no route.
+         *
+         * @param rule the default rule, {@link RouteRule#DENY_ALL} unless set
+         * @return this builder
+         */
+        public Builder defaultRule(RouteRule rule) {
+            this.defaultRule = rule;
+            return this;
+        }
+
+        /**
+         * Compiles the table.
+         *
+         * @return the table
+         */
+        public RouteAuthorizationTable build() {
+            return new RouteAuthorizationTable(root, defaultRule);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.exalt.training.springsecurity.authorization;
+
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Access rule of a route: open to everyone, open to any authenticated user, restricted to a set of roles,
+ * or closed to everyone.
+ * Role rules check the {@link User} principal's role with an enum set lookup and only fall back to
+ * comparing authority names for other principal types.
+ */
+public final class RouteRule {
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    /**
+     * Rule granting every request, authenticated or not.
+     */
+    public static final RouteRule PERMIT_ALL = new RouteRule(null, false);
+
+    /**
+     * Rule granting any authenticated, non-anonymous request.
+     */
+    public static final RouteRule AUTHENTICATED = new RouteRule(EnumSet.noneOf(Role.class), false);
+
+    /**
+     * Rule denying every request, used for routes that match no declared template.
+     */
+    public static final RouteRule DENY_ALL = new RouteRule(EnumSet.noneOf(Role.class), true);
+
+    private final EnumSet<Role> roles; // null for PERMIT_ALL, empty for AUTHENTICATED and DENY_ALL
+    private final boolean denyAll; // true for DENY_ALL only
+    private final Set<String> authorityNames; // role names, for principals that are not User entities
+
+    private RouteRule(EnumSet<Role> roles, boolean denyAll) {
+        this.roles = roles;
+        this.denyAll = denyAll;
+        this.authorityNames = roles == null ? Set.of()
+                : roles.stream().map(Role::name).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Creates a rule restricted to the given roles.
+     *
+     * @param first the first allowed role
+     * @param rest  further allowed roles
+     * @return the rule
+     */
+    public static RouteRule hasAnyRole(Role first, Role... rest) {
+        return new RouteRule(EnumSet.of(first, rest), false);
+    }
+
+    /**
+     * Returns whether the rule needs the authentication to decide.
+     *
+     * @return false for {@link #PERMIT_ALL}
+     */
+    public boolean requiresAuthentication() {
+        return roles != null;
+    }
+
+    /**
+     * Evaluates the rule.
+     *
+     * @param authentication the current authentication, may be null or anonymous
+     * @return true if access is granted
+     */
+    public boolean isGranted(Authentication authentication) {
+        if (roles == null) {
+            return true;
+        }
+        if (denyAll) {
+            return false;
+        }
+        if (authentication == null || !authentication.isAuthenticated() || TRUST_RESOLVER.isAnonymous(authentication)) {
+            return false;
+        }
+        if (roles.isEmpty()) {
+            return true;
+        }
+        if (authentication.getPrincipal() instanceof User user) {
+            return roles.contains(user.getRole());
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (authorityNames.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        if (roles == null) {
+            return "permitAll";
+        }
+        if (denyAll) {
+            return "denyAll";
+        }
+        return roles.isEmpty() ? "authenticated" : "hasAnyRole" + roles;
+    }
+}
@@ -0,0 +1,142 @@
+package com.exalt.training.springsecurity.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent lookups of the same key into one call.
+ * The first caller of a key (the leader) runs the lookup on its own thread; callers arriving while it is in flight
+ * (the followers) wait for its result instead of running the same query. A failure of the leader is rethrown to
+ * every follower. A follower waits at most {@code maxWait}, then runs the lookup itself, so a stuck leader cannot
+ * block requests indefinitely.
+ * <p>
+ * Results are shared between threads, so callers must treat them as read-only. Nothing is cached: once the leader
+ * completes, the next caller starts a new lookup.
+ * </p>
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public final class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final String name;
+    private final long maxWaitNanos;
+    private final boolean enabled;
+    private final Counter leaderCalls;
+    private final Counter coalescedCalls;
+    private final Counter timedOutCalls;
+
+    /**
+     * Creates a single-flight group publishing {@code app.single-flight.calls{name,outcome}}.
+     *
+     * @param name     the name of the group, used as metric tag
+     * @param maxWait  the longest a follower waits for the leader
+     * @param enabled  whether calls are coalesced; when false every call runs its own lookup
+     * @param registry the meter registry
+     */
+    public SingleFlight(String name, Duration maxWait, boolean enabled, MeterRegistry registry) {
+        this.name = name;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.enabled = enabled;
+        this.leaderCalls = counter(registry, name, "leader");
+        this.coalescedCalls = counter(registry, name, "coalesced");
+        this.timedOutCalls = counter(registry, name, "timeout");
+    }
+
+    /**
+     * Runs the lookup of a key, or joins the one already in flight.
+     *
+     * @param key    the key
+     * @param lookup the lookup, run by the leader or by a follower whose wait timed out
+     * @return the result of the lookup
+     */
+    public V execute(K key, Supplier<V> lookup) {
+        if (!enabled) {
+            return lookup.get();
+        }
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> current = inFlight.putIfAbsent(key, call);
+        if (current != null) {
+            return await(current, lookup);
+        }
+        leaderCalls.increment();
+        V value;
+        try {
+            value = lookup.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, call);
+        call.complete(value);
+        return value;
+    }
+
+    /**
+     * Detaches the lookup in flight for a key, if any; later callers start a new lookup instead of joining it.
+     * Used after a write so that no caller gets a result read before the write committed.
+     *
+     * @param key the key
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * Detaches every lookup in flight.
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * Returns the number of keys with a lookup in flight.
+     *
+     * @return the number of in-flight keys
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> call, Supplier<V> lookup) {
+        try {
+            V value = call.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            coalescedCalls.increment();
+            return value;
+        } catch (TimeoutException e) {
+            timedOutCalls.increment();
+            return lookup.get();
+        } catch (ExecutionException e) {
+            coalescedCalls.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the " + name + " lookup", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String outcome) {
+        return Counter.builder("app.single-flight.calls")
+                .description("Lookups run by a leader, served from a concurrent call, or run after a timed-out wait")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -6,7 +6,9 @@ import com.exalt.training.springsecurity.repository.UserRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
  * Configuration class responsible for setting up the CEO account during application startup.
@@ -16,22 +18,28 @@ public class CEOConfiguration {
 
     /**
      * Creates a CommandLineRunner bean to check for the existence of a CEO account
-     * and create one if it doesn't exist.
+     * and create one if it doesn't exist. Once a CEO exists the runner costs a single
+     * indexed existence query and no password hashing. It runs before the other runners,
+     * such as {@link JitWarmupRunner}, so they see the seeded account.
      *
      * @param userRepository The repository for performing CRUD operations on User entities.
+     * @param passwordEncoder The application's password encoder.
      * @return A CommandLineRunner that initializes the CEO account if not already present.
      */
     @Bean
-    CommandLineRunner commandLineRunner(UserRepository userRepository) {
+    @Order(Ordered.HIGHEST_PRECEDENCE) // seed data before the warm-up runner
+    CommandLineRunner commandLineRunner(UserRepository userRepository, PasswordEncoder passwordEncoder) {
 
         return args -> {
-            User  mariaCEOAccount = userRepository.findByRole(Role.CEO);
+            if (userRepository.existsByRole(Role.CEO)) {
+                return;
+            }
             User maria = new User();
             maria.setEmail("maria@gmail.com");
             maria.setFirstName("maria");
             maria.setSecondName("Abu Sammour");
             maria.setRole(Role.CEO);
-            maria.setPassword(new BCryptPasswordEncoder().encode("maria1234"));
+            maria.setPassword(passwordEncoder.encode("maria1234"));
             userRepository.save(maria);
         };
     }
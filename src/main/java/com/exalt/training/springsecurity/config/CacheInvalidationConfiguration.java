@@ -0,0 +1,53 @@
+package com.exalt.training.springsecurity.config;
+
+import com.exalt.training.springsecurity.invalidation.InMemoryInvalidationBus;
+import com.exalt.training.springsecurity.invalidation.InvalidationBus;
+import com.exalt.training.springsecurity.invalidation.PostgresInvalidationBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class selecting the cache invalidation bus with {@code app.cache.invalidation.mode}:
+ * {@code memory} (default) for a single node and tests, {@code postgres} for several nodes sharing the database.
+ */
+@Configuration
+public class CacheInvalidationConfiguration {
+
+    /**
+     * Creates the in-JVM bus.
+     *
+     * @param registry the meter registry
+     * @return the bus
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation.mode", havingValue = "memory", matchIfMissing = true)
+    public InvalidationBus inMemoryInvalidationBus(MeterRegistry registry) {
+        return new InMemoryInvalidationBus(registry);
+    }
+
+    /**
+     * Creates the LISTEN/NOTIFY bus on the primary database.
+     *
+     * @param connectionProperties the settings of the primary database
+     * @param objectMapper         the mapper encoding the payloads
+     * @param channel              the notification channel
+     * @param heartbeat            the idle time after which the latest sequence is sent again
+     * @param registry             the meter registry
+     * @return the bus
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation.mode", havingValue = "postgres")
+    public PostgresInvalidationBus postgresInvalidationBus(DataSourceProperties connectionProperties, ObjectMapper objectMapper,
+                                                           @Value("${app.cache.invalidation.channel:cache_invalidation}") String channel,
+                                                           @Value("${app.cache.invalidation.heartbeat:30s}") Duration heartbeat,
+                                                           MeterRegistry registry) {
+        return new PostgresInvalidationBus(connectionProperties, objectMapper, channel, heartbeat, registry);
+    }
+}
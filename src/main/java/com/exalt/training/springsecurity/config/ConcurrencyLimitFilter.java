@@ -0,0 +1,98 @@
+package com.exalt.training.springsecurity.config;
+
+import com.exalt.training.springsecurity.limiter.AimdLimiter;
+import com.exalt.training.springsecurity.limiter.ConcurrencyLimitProperties;
+import com.exalt.training.springsecurity.limiter.LimitGroup;
+import com.exalt.training.springsecurity.model.Role;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Filter that sheds load per endpoint group with an adaptive (AIMD) concurrency limit.
+ * It runs after {@link JwtAuthenticationFilter}, so writes from CEO principals can be given priority headroom.
+ * Requests over the limit get an immediate 503 instead of queueing behind a slow database.
+ * The limit, in-flight count and rejections of each group are published as metrics.
+ */
+@Component
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final boolean enabled;
+    private final Map<LimitGroup, AimdLimiter> limiters = new EnumMap<>(LimitGroup.class);
+    private final Map<LimitGroup, Counter> rejections = new EnumMap<>(LimitGroup.class);
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        for (LimitGroup group : LimitGroup.values()) {
+            ConcurrencyLimitProperties.Group settings = properties.forGroup(group);
+            AimdLimiter limiter = new AimdLimiter(settings.getInitialLimit(), settings.getMinLimit(),
+                    settings.getMaxLimit(), settings.getBackoffRatio(), settings.getTimeout().toNanos(),
+                    settings.getPriorityHeadroom());
+            limiters.put(group, limiter);
+            String tag = group.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("app.concurrency.limit", limiter, AimdLimiter::getLimit)
+                    .tag("group", tag).description("Current adaptive concurrency limit").register(meterRegistry);
+            Gauge.builder("app.concurrency.in_flight", limiter, AimdLimiter::getInFlight)
+                    .tag("group", tag).description("Requests currently admitted").register(meterRegistry);
+            rejections.put(group, Counter.builder("app.concurrency.rejected")
+                    .tag("group", tag).description("Requests rejected with 503").register(meterRegistry));
+        }
+    }
+
+    /**
+     * Admits the request if its group is under the limit, otherwise responds with 503.
+     *
+     * @param request     The HTTP request.
+     * @param response    The HTTP response.
+     * @param filterChain The filter chain to pass the request and response further down the chain.
+     * @throws ServletException In case of servlet-related errors.
+     * @throws IOException      In case of IO-related errors.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LimitGroup group = enabled ? LimitGroup.of(request.getMethod(), request.getServletPath()) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        AimdLimiter limiter = limiters.get(group);
+        if (!limiter.tryAcquire(LimitGroup.isWrite(request.getMethod()) && isCeo())) {
+            rejections.get(group).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.getWriter().write("Server is overloaded, retry later");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private static boolean isCeo() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> Role.CEO.name().equals(authority.getAuthority()));
+    }
+}
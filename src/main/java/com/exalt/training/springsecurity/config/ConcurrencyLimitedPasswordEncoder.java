@@ -0,0 +1,52 @@
+package com.exalt.training.springsecurity.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * PasswordEncoder decorator that bounds how many hashes are computed at the same time.
+ * BCrypt is pure CPU work that never yields, so with virtual threads an unbounded number of concurrent
+ * signins could occupy every carrier thread and stall cheap requests; excess callers wait on a fair
+ * {@link Semaphore} instead, which parks virtual threads without pinning their carrier.
+ */
+public class ConcurrencyLimitedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+
+    /**
+     * Creates the decorator.
+     *
+     * @param delegate the encoder doing the actual hashing
+     * @param maxConcurrency the maximum number of concurrent encode or match operations
+     */
+    public ConcurrencyLimitedPasswordEncoder(PasswordEncoder delegate, int maxConcurrency) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        permits.acquireUninterruptibly();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        permits.acquireUninterruptibly();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
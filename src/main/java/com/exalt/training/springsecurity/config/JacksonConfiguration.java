@@ -0,0 +1,55 @@
+package com.exalt.training.springsecurity.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuration class for the Jackson ObjectMapper and the message converters used by the controllers.
+ * Besides JSON, responses can be negotiated as CBOR ({@code Accept: application/cbor}) or
+ * Smile ({@code Accept: application/x-jackson-smile}), using the same field names as the JSON output.
+ */
+@Configuration
+public class JacksonConfiguration {
+
+    /**
+     * Registers the Blackbird module, which replaces reflective accessor calls with generated
+     * lambdas, reducing the CPU cost of serializing response DTOs.
+     *
+     * @return the Blackbird module, picked up by Spring Boot's ObjectMapper auto-configuration
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Creates the CBOR message converter from Spring Boot's ObjectMapper builder, so it shares the
+     * modules and settings of the JSON converter.
+     *
+     * @param builder the auto-configured ObjectMapper builder (prototype scoped)
+     * @return the CBOR message converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Creates the Smile message converter from Spring Boot's ObjectMapper builder, so it shares the
+     * modules and settings of the JSON converter.
+     *
+     * @param builder the auto-configured ObjectMapper builder (prototype scoped)
+     * @return the Smile message converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
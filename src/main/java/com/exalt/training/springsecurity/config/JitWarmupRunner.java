@@ -0,0 +1,112 @@
+package com.exalt.training.springsecurity.config;
+
+import com.exalt.training.springsecurity.dto.ProjectMemberResponse;
+import com.exalt.training.springsecurity.dto.ProjectResponse;
+import com.exalt.training.springsecurity.dto.UserResponse;
+import com.exalt.training.springsecurity.model.ProjectRole;
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
+import com.exalt.training.springsecurity.repository.ProjectRepository;
+import com.exalt.training.springsecurity.repository.UserRepository;
+import com.exalt.training.springsecurity.service.JWTService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exercises the request hot paths before the application reports ready, so a new node joins with compiled code.
+ * Spring Boot only switches the readiness state to {@code ACCEPTING_TRAFFIC} after all application runners have
+ * completed, so the readiness probe stays down until the warm-up finishes.
+ * Each iteration issues and verifies synthetic tokens and serializes response DTOs; the first
+ * {@code app.warmup.query-iterations} iterations also run the user and project lookup queries against
+ * keys that do not exist. The time taken is logged and published as the {@code app.warmup.duration} gauge.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE) // after the CEO seeding runner of CEOConfiguration
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class JitWarmupRunner implements ApplicationRunner {
+    private static final String WARMUP_EMAIL = "warmup@warmup.invalid"; // never a real user
+    private static final String WARMUP_TITLE = "__warmup__"; // never a real project
+
+    private final JWTService jwtService;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicLong durationNanos = new AtomicLong(); // last warm-up duration
+
+    @Value("${app.warmup.iterations:2000}")
+    private int iterations; // iteration budget for token and serialization work
+
+    @Value("${app.warmup.query-iterations:200}")
+    private int queryIterations; // iteration budget for database statements
+
+    public JitWarmupRunner(JWTService jwtService, ObjectMapper objectMapper, UserRepository userRepository,
+                           ProjectRepository projectRepository, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.userRepository = userRepository;
+        this.projectRepository = projectRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        TimeGauge.builder("app.warmup.duration", durationNanos, TimeUnit.NANOSECONDS, AtomicLong::doubleValue)
+                .description("Time spent warming up the JIT before reporting ready")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the warm-up iterations.
+     *
+     * @param args the application arguments
+     * @throws JsonProcessingException if a synthetic response cannot be serialized
+     */
+    @Override
+    public void run(ApplicationArguments args) throws JsonProcessingException {
+        User user = new User(0, "warm", "up", WARMUP_EMAIL, "", Role.TeamMember);
+        UserResponse userResponse = new UserResponse(0, "warm", "up", WARMUP_EMAIL, Role.TeamMember);
+        List<ProjectResponse> projects = List.of(
+                new ProjectResponse(1, WARMUP_TITLE, "exalt", "synthetic project", "pending",
+                        List.of(new ProjectMemberResponse(WARMUP_EMAIL, ProjectRole.Member))));
+        long start = System.nanoTime();
+        long sink = 0; // consumed results, so the work cannot be optimized away
+        for (int i = 0; i < iterations; i++) {
+            String token = jwtService.generateToken(user);
+            if (jwtService.isTokenValid(token, user) && WARMUP_EMAIL.equals(jwtService.extractUserName(token))) {
+                sink += token.length();
+            }
+            sink += jwtService.generateRefreshToken(new HashMap<>(), user).length();
+            sink += objectMapper.writeValueAsBytes(userResponse).length;
+            sink += objectMapper.writeValueAsBytes(projects).length;
+            if (i < queryIterations) {
+                sink += primeQueries();
+            }
+        }
+        durationNanos.set(System.nanoTime() - start);
+        log.info("JIT warm-up finished: {} iterations ({} with queries) in {} ms [{}]", iterations,
+                Math.min(iterations, queryIterations), TimeUnit.NANOSECONDS.toMillis(durationNanos.get()), sink);
+    }
+
+    private int primeQueries() {
+        return readOnlyTransaction.execute(status ->
+                userRepository.findByEmail(WARMUP_EMAIL).map(u -> 1).orElse(0)
+                        + projectRepository.findWithMembersByTitle(WARMUP_TITLE).map(p -> 1).orElse(0));
+    }
+}
@@ -1,14 +1,20 @@
 package com.exalt.training.springsecurity.config;
 import com.exalt.training.springsecurity.service.JWTService;
+import com.exalt.training.springsecurity.timing.RequestTimings;
+import com.exalt.training.springsecurity.timing.TimingPhase;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -19,13 +25,26 @@ import com.exalt.training.springsecurity.service.UserService;
 /**
  * Custom filter for processing JWT authentication and setting the security context.
  * This filter runs once per request and checks the validity of the JWT token in the request.
+ * Each request is counted in {@code app.jwt.filter.requests} by outcome: valid, expired, invalid or missing.
+ * Requests with an expired or invalid token continue unauthenticated and are rejected by the authorization rules.
  */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JWTService jwtService; // JWTService interface used to create tokens
     private final UserService userService; // UserService interface used to create tokens
+    private final Counter validTokens;
+    private final Counter expiredTokens;
+    private final Counter invalidTokens;
+    private final Counter missingTokens;
 
+    public JwtAuthenticationFilter(JWTService jwtService, UserService userService, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.userService = userService;
+        this.validTokens = outcomeCounter(meterRegistry, "valid");
+        this.expiredTokens = outcomeCounter(meterRegistry, "expired");
+        this.invalidTokens = outcomeCounter(meterRegistry, "invalid");
+        this.missingTokens = outcomeCounter(meterRegistry, "missing");
+    }
 
     /**
      * Handles the filtering logic for incoming requests by validating the JWT token and setting
@@ -45,24 +64,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String userEmail;
 
         if(!StringUtils.hasLength(authHeader) || !org.apache.commons.lang3.StringUtils.startsWith(authHeader, "Bearer ")){
+            missingTokens.increment();
             filterChain.doFilter(request,response);
             return;
         }
         jwt=authHeader.substring(7);
-        userEmail = jwtService.extractUserName(jwt);
-        if(StringUtils.hasLength(userEmail) && SecurityContextHolder.getContext().getAuthentication() == null){
-            UserDetails userDetails =userService.userDetailsService().loadUserByUsername(userEmail);
+        try {
+            userEmail = jwtService.extractUserName(jwt);
+            if(StringUtils.hasLength(userEmail) && SecurityContextHolder.getContext().getAuthentication() == null){
+                UserDetails userDetails;
+                long lookupStart = RequestTimings.begin(TimingPhase.USER);
+                try {
+                    userDetails =userService.userDetailsService().loadUserByUsername(userEmail);
+                } finally {
+                    RequestTimings.end(TimingPhase.USER, lookupStart);
+                }
 
-            if(jwtService.isTokenValid(jwt, userDetails)){
-                SecurityContext securityContext= SecurityContextHolder.createEmptyContext();
-                UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                );
-                token.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                securityContext.setAuthentication(token);
-                SecurityContextHolder.setContext(securityContext);
+                if(jwtService.isTokenValid(jwt, userDetails)){
+                    SecurityContext securityContext= SecurityContextHolder.createEmptyContext();
+                    UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities()
+                    );
+                    token.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    securityContext.setAuthentication(token);
+                    SecurityContextHolder.setContext(securityContext);
+                    validTokens.increment();
+                } else {
+                    invalidTokens.increment();
+                }
             }
+        } catch (ExpiredJwtException e) {
+            expiredTokens.increment();
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            invalidTokens.increment();
         }
         filterChain.doFilter(request,response);
     }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("app.jwt.filter.requests")
+                .tag("outcome", outcome)
+                .description("Requests seen by the JWT filter, by token outcome")
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,42 @@
+package com.exalt.training.springsecurity.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class guarding the cardinality of the published metrics.
+ * Request and repository metrics are tagged with URI templates and method names, never raw titles or emails;
+ * these filters cap the remaining tags in case an unexpected value slips through.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Value("${app.metrics.max-uri-tags:100}")
+    private int maxUriTags; // distinct URI templates kept before further values are dropped
+
+    @Value("${app.metrics.max-repository-method-tags:200}")
+    private int maxRepositoryMethodTags; // distinct repository method names kept before further values are dropped
+
+    /**
+     * Caps the number of distinct {@code uri} tag values of the HTTP server request metrics.
+     *
+     * @return the meter filter
+     */
+    @Bean
+    public MeterFilter httpServerUriTagLimit() {
+        return MeterFilter.maximumAllowableTags("http.server.requests", "uri", maxUriTags, MeterFilter.deny());
+    }
+
+    /**
+     * Caps the number of distinct {@code method} tag values of the repository invocation metrics.
+     *
+     * @return the meter filter
+     */
+    @Bean
+    public MeterFilter repositoryMethodTagLimit() {
+        return MeterFilter.maximumAllowableTags("spring.data.repository.invocations", "method", maxRepositoryMethodTags,
+                MeterFilter.deny());
+    }
+}
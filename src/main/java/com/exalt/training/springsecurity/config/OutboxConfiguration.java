@@ -0,0 +1,76 @@
+package com.exalt.training.springsecurity.config;
+
+import com.exalt.training.springsecurity.outbox.FileOutboxSink;
+import com.exalt.training.springsecurity.outbox.LoggingOutboxSink;
+import com.exalt.training.springsecurity.outbox.OutboxDispatcher;
+import com.exalt.training.springsecurity.outbox.OutboxSink;
+import com.exalt.training.springsecurity.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration class for the delivery of the outbox events.
+ * The sink is selected with {@code app.outbox.sink}: {@code log} (default) or {@code file}. The dispatcher runs on
+ * every node unless {@code app.outbox.dispatcher.enabled=false}; nodes share the work through row locks.
+ */
+@Configuration
+@EnableScheduling
+public class OutboxConfiguration {
+
+    /**
+     * Creates the sink writing events to the application log.
+     *
+     * @return the sink
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.sink", havingValue = "log", matchIfMissing = true)
+    public OutboxSink loggingOutboxSink() {
+        return new LoggingOutboxSink();
+    }
+
+    /**
+     * Creates the sink appending events to a local file, one JSON document per line.
+     *
+     * @param file         the file path
+     * @param objectMapper the mapper writing the lines
+     * @return the sink
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file")
+    public OutboxSink fileOutboxSink(@Value("${app.outbox.file:outbox-events.ndjson}") Path file, ObjectMapper objectMapper) {
+        return new FileOutboxSink(file, objectMapper);
+    }
+
+    /**
+     * Creates the dispatcher draining the outbox.
+     *
+     * @param outboxEventRepository the outbox repository
+     * @param sink                  the destination of the events
+     * @param transactionManager    the transaction manager
+     * @param batchSize             the maximum number of events per transaction
+     * @param initialBackoff        the delay before the first retry
+     * @param maxBackoff            the longest delay between retries
+     * @param registry              the meter registry
+     * @return the dispatcher
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxDispatcher outboxDispatcher(OutboxEventRepository outboxEventRepository, OutboxSink sink,
+                                             PlatformTransactionManager transactionManager,
+                                             @Value("${app.outbox.batch-size:100}") int batchSize,
+                                             @Value("${app.outbox.initial-backoff:1s}") Duration initialBackoff,
+                                             @Value("${app.outbox.max-backoff:5m}") Duration maxBackoff,
+                                             MeterRegistry registry) {
+        return new OutboxDispatcher(outboxEventRepository, sink, transactionManager, batchSize, initialBackoff,
+                maxBackoff, registry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.exalt.training.springsecurity.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource that sends connections of read-only transactions to the replica pool and everything else to the primary.
+ * It must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so the
+ * connection is fetched after the transaction manager has published the read-only flag.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * The target pools this DataSource routes between.
+     */
+    public enum Target {
+        PRIMARY, //read-write pool
+        REPLICA //read-only pool
+    }
+
+    /**
+     * Selects the replica when the current transaction is read-only.
+     *
+     * @return the lookup key of the target pool
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
@@ -1,10 +1,16 @@
 package com.exalt.training.springsecurity.config;
+import com.exalt.training.springsecurity.authorization.RouteAuthorizationManager;
+import com.exalt.training.springsecurity.authorization.RouteAuthorizationTable;
+import com.exalt.training.springsecurity.authorization.RouteRule;
 import com.exalt.training.springsecurity.model.Role;
 import com.exalt.training.springsecurity.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -26,11 +32,16 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfiguration {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final MeterRegistry meterRegistry;
     private final UserService userService;
 
+    @Value("${app.security.password-hashing.max-concurrency:0}")
+    private int maxHashingConcurrency; // 0 leaves password hashing unbounded
+
     /**
-     * Configures the security filter chain, defining the endpoints' access rules,
-     * session management, and adding the JWT filter before the username/password filter.
+     * Configures the security filter chain, evaluating the endpoints' access rules with a
+     * {@link RouteAuthorizationManager}, and adding the JWT filter before the username/password filter.
      *
      * @param http The HttpSecurity object to configure.
      * @return The configured SecurityFilterChain.
@@ -39,30 +50,58 @@ public class SecurityConfiguration {
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception{
         http.csrf(AbstractHttpConfigurer ::disable)
-                .authorizeHttpRequests(request -> request.requestMatchers("/exalt/training/security/auth/**")
-                        .permitAll()
-                        .requestMatchers("/exalt/training/projects/create").hasAuthority(Role.CEO.name())
-                        .requestMatchers("/exalt/training/projects/update/{title}").hasAuthority(Role.CEO.name())
-                        .requestMatchers("/exalt/training/projects/update-status/{title}").hasAnyAuthority(Role.CEO.name(), Role.TeamLeader.name())
-                        .requestMatchers("/exalt/training/projects/delete/{title}").hasAuthority(Role.CEO.name())
-                        .requestMatchers("/exalt/training/projects/all").hasAnyAuthority(Role.CEO.name(), Role.TeamLeader.name(), Role.TeamMember.name())
-                        .requestMatchers("/exalt/training/projects/retrieve/{title}").hasAnyAuthority(Role.CEO.name(), Role.TeamLeader.name(), Role.TeamMember.name())
-                        .requestMatchers("/exalt/training/users/all").hasAuthority(Role.CEO.name())
-                        .requestMatchers("/exalt/training/users/retrieve/{email}").hasAnyAuthority(Role.CEO.name(), Role.TeamLeader.name())
-                        .requestMatchers("/exalt/training/users/create").hasAuthority(Role.CEO.name())
-                        .requestMatchers("/exalt/training/users/update/{email}").hasAuthority(Role.CEO.name())
-                        .requestMatchers("/exalt/training/users/delete/{email}").hasAuthority(Role.CEO.name())
-                        .requestMatchers("/exalt/training/users/update-role/{email}").hasAuthority(Role.CEO.name())
-                        .anyRequest().authenticated())
+                .authorizeHttpRequests(request -> request
+                        .anyRequest().access(new RouteAuthorizationManager(routeAuthorizationTable())))
 
                 .sessionManagement(manager -> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider()).addFilterBefore(
                         jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class
-                );
+                ).addFilterAfter(concurrencyLimitFilter, JwtAuthenticationFilter.class);
 
                 return http.build();
     }
 
+    /**
+     * Declares the access rules of every endpoint, compiled once into a lookup table keyed by method and path.
+     * Requests matching no route are denied.
+     *
+     * @return the compiled route authorization table
+     */
+    public static RouteAuthorizationTable routeAuthorizationTable() {
+        RouteRule all = RouteRule.hasAnyRole(Role.CEO, Role.TeamLeader, Role.TeamMember);
+        RouteRule leaders = RouteRule.hasAnyRole(Role.CEO, Role.TeamLeader);
+        RouteRule ceo = RouteRule.hasAnyRole(Role.CEO);
+        return RouteAuthorizationTable.builder()
+                .route(null, "/exalt/training/security/auth/**", RouteRule.PERMIT_ALL)
+                .route(null, "/error", RouteRule.PERMIT_ALL)
+                .route(null, "/actuator/health/**", RouteRule.PERMIT_ALL)
+                .route(null, "/actuator/**", ceo)
+                .route(null, "/exalt/training/admin/**", ceo)
+                .route(HttpMethod.POST, "/exalt/training/projects/create", ceo)
+                .route(HttpMethod.PUT, "/exalt/training/projects/update/{title}", ceo)
+                .route(HttpMethod.PATCH, "/exalt/training/projects/update/{title}", ceo)
+                .route(HttpMethod.PATCH, "/exalt/training/projects/update-status/{title}", leaders)
+                .route(HttpMethod.DELETE, "/exalt/training/projects/delete/{title}", ceo)
+                .route(HttpMethod.GET, "/exalt/training/projects/all", all)
+                .route(HttpMethod.GET, "/exalt/training/projects/retrieve/{title}", all)
+                .route(HttpMethod.GET, "/exalt/training/projects/mine", all)
+                .route(HttpMethod.GET, "/exalt/training/projects/search", all)
+                .route(HttpMethod.GET, "/exalt/training/projects/suggest", all)
+                .route(HttpMethod.POST, "/exalt/training/projects/add-member/{title}", leaders)
+                .route(HttpMethod.DELETE, "/exalt/training/projects/remove-member/{title}", leaders)
+                .route(HttpMethod.GET, "/exalt/training/users/all", ceo)
+                .route(HttpMethod.GET, "/exalt/training/users/retrieve/{email}", leaders)
+                .route(HttpMethod.GET, "/exalt/training/users/suggest", leaders)
+                .route(HttpMethod.POST, "/exalt/training/users/create", ceo)
+                .route(HttpMethod.POST, "/exalt/training/users/import", ceo)
+                .route(HttpMethod.PUT, "/exalt/training/users/update/{email}", ceo)
+                .route(HttpMethod.PATCH, "/exalt/training/users/update/{email}", ceo)
+                .route(HttpMethod.DELETE, "/exalt/training/users/delete/{email}", ceo)
+                .route(HttpMethod.PUT, "/exalt/training/users/update-role/{email}", ceo)
+                .defaultRule(RouteRule.DENY_ALL)
+                .build();
+    }
+
     /**
      * Configures the DaoAuthenticationProvider, setting the UserDetailsService and PasswordEncoder.
      *
@@ -78,12 +117,18 @@ public class SecurityConfiguration {
 
     /**
      * Creates a PasswordEncoder bean using BCryptPasswordEncoder.
+     * When {@code app.security.password-hashing.max-concurrency} is positive, hashing is bounded to that many
+     * concurrent operations (used with virtual threads). Encode and match calls are timed.
      *
      * @return The PasswordEncoder bean.
      */
     @Bean
     public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+        PasswordEncoder encoder = new BCryptPasswordEncoder();
+        if (maxHashingConcurrency > 0) {
+            encoder = new ConcurrencyLimitedPasswordEncoder(encoder, maxHashingConcurrency);
+        }
+        return new TimedPasswordEncoder(encoder, meterRegistry);
     }
 
     /**
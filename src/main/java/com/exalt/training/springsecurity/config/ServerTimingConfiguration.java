@@ -0,0 +1,63 @@
+package com.exalt.training.springsecurity.config;
+
+import com.exalt.training.springsecurity.timing.RepositoryTimingAspect;
+import com.exalt.training.springsecurity.timing.ServerTimingFilter;
+import com.exalt.training.springsecurity.timing.TimedJackson2HttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the opt-in per-request {@code Server-Timing} breakdown.
+ * Enabled with {@code app.server-timing.enabled=true}; when disabled none of these beans exist and the
+ * remaining call sites in {@link JwtAuthenticationFilter} reduce to a thread-local lookup.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfiguration {
+
+    @Value("${app.server-timing.slow-threshold:500ms}")
+    private Duration slowThreshold; // requests at or above this total are logged with their breakdown
+
+    /**
+     * Registers the timing filter just outside the Spring Security filter chain, so the JWT phases are
+     * covered and the total includes authentication.
+     *
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(slowThreshold.toNanos()));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    /**
+     * Times repository invocations.
+     *
+     * @return the aspect
+     */
+    @Bean
+    public RepositoryTimingAspect repositoryTimingAspect() {
+        return new RepositoryTimingAspect();
+    }
+
+    /**
+     * Replaces Spring Boot's JSON converter with one that times serialization.
+     *
+     * @param objectMapper the auto-configured ObjectMapper
+     * @return the JSON message converter
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJackson2HttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,69 @@
+package com.exalt.training.springsecurity.config;
+
+import com.exalt.training.springsecurity.coalescing.SingleFlight;
+import com.exalt.training.springsecurity.invalidation.CacheRegion;
+import com.exalt.training.springsecurity.invalidation.InvalidationBus;
+import com.exalt.training.springsecurity.model.Project;
+import com.exalt.training.springsecurity.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Configuration class for the single-flight groups of the hot lookups: projects by title and users by email.
+ * Concurrent lookups of the same key share one database call; see {@link SingleFlight}. A committed change of a key
+ * detaches the lookup in flight, so that later callers read the new state.
+ */
+@Configuration
+public class SingleFlightConfiguration {
+
+    @Value("${app.single-flight.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.single-flight.max-wait:2s}")
+    private Duration maxWait; // longest a follower waits before running its own lookup
+
+    /**
+     * Coalesces concurrent project lookups by title. The lookups return the members, so they also forget
+     * projects when a member user changes.
+     *
+     * @param registry the meter registry
+     * @param invalidationBus the bus publishing project and member changes
+     * @return the single-flight group
+     */
+    @Bean
+    public SingleFlight<String, Optional<Project>> projectLookups(MeterRegistry registry, InvalidationBus invalidationBus) {
+        return subscribed(new SingleFlight<>("project", maxWait, enabled, registry), invalidationBus,
+                CacheRegion.PROJECT, CacheRegion.PROJECT_MEMBERS);
+    }
+
+    /**
+     * Coalesces concurrent user lookups by lower-case email, as done by the JWT filter and the sign-in.
+     *
+     * @param registry the meter registry
+     * @param invalidationBus the bus publishing user changes
+     * @return the single-flight group
+     */
+    @Bean
+    public SingleFlight<String, Optional<User>> userLookups(MeterRegistry registry, InvalidationBus invalidationBus) {
+        return subscribed(new SingleFlight<>("user", maxWait, enabled, registry), invalidationBus, CacheRegion.USER);
+    }
+
+    private static <V> SingleFlight<String, V> subscribed(SingleFlight<String, V> singleFlight,
+                                                          InvalidationBus invalidationBus, CacheRegion... regions) {
+        for (CacheRegion region : regions) {
+            invalidationBus.subscribe(region, key -> {
+                if (key == null) {
+                    singleFlight.forgetAll();
+                } else {
+                    singleFlight.forget(key);
+                }
+            });
+        }
+        return singleFlight;
+    }
+}
@@ -0,0 +1,78 @@
+package com.exalt.training.springsecurity.config;
+
+import com.exalt.training.springsecurity.service.SqlStatisticsService;
+import com.exalt.training.springsecurity.sql.QueryCountingFilter;
+import com.exalt.training.springsecurity.sql.SqlStatisticsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuration class wrapping the application DataSource in a datasource-proxy that records every statement.
+ * It replaces {@code spring.jpa.show-sql}: statements are aggregated at {@code /exalt/training/admin/sql-stats},
+ * only slow ones are logged, and per-request counts are used to flag N+1 patterns.
+ * Disabled with {@code app.sql.monitoring.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql.monitoring.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMonitoringConfiguration {
+    private static final String DATA_SOURCE_BEAN = "dataSource"; // the primary DataSource, routing proxy included
+
+    /**
+     * Wraps the {@code dataSource} bean once it is initialized. Only that bean is wrapped, so the routing
+     * targets of {@link DataSourceRoutingConfiguration} are not proxied a second time.
+     * Declared static so the post-processor is registered before the DataSource is created.
+     *
+     * @param sqlStatisticsService the statistics store, resolved lazily
+     * @param environment          the environment holding the thresholds
+     * @return the bean post-processor
+     */
+    @Bean
+    public static BeanPostProcessor sqlMonitoringDataSourcePostProcessor(
+            ObjectProvider<SqlStatisticsService> sqlStatisticsService, Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                Duration slowThreshold = environment.getProperty("app.sql.slow-threshold", Duration.class,
+                        Duration.ofMillis(200));
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(DATA_SOURCE_BEAN)
+                        .listener(new SqlStatisticsListener(sqlStatisticsService.getObject(), slowThreshold.toMillis()))
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * Registers the per-request statement counter just outside the Spring Security filter chain, so queries
+     * run during authentication are attributed to the request.
+     *
+     * @param environment   the environment holding the N+1 threshold
+     * @param meterRegistry the registry the per-request metrics are published to
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<QueryCountingFilter> queryCountingFilter(Environment environment,
+                                                                           MeterRegistry meterRegistry) {
+        int threshold = environment.getProperty("app.sql.n-plus-one-threshold", Integer.class, 10);
+        FilterRegistrationBean<QueryCountingFilter> registration =
+                new FilterRegistrationBean<>(new QueryCountingFilter(threshold, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+}
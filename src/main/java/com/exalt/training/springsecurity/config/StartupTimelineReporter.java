@@ -0,0 +1,54 @@
+package com.exalt.training.springsecurity.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+/**
+ * Logs the slowest application startup steps once the application is ready.
+ * Steps are recorded by the {@link BufferingApplicationStartup} installed in the main class; the timeline is
+ * read without draining it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.startup.report.enabled", havingValue = "true")
+public class StartupTimelineReporter {
+    private final ApplicationStartup applicationStartup;
+
+    @Value("${app.startup.report.top-steps:15}")
+    private int topSteps; // number of slowest steps to log
+
+    /**
+     * Logs the total startup time and the slowest recorded steps with their tags (bean names, configuration classes).
+     *
+     * @param event the application ready event
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        if (!(applicationStartup instanceof BufferingApplicationStartup bufferingStartup)) {
+            log.info("Startup timeline unavailable: application was not started with BufferingApplicationStartup");
+            return;
+        }
+        StartupTimeline timeline = bufferingStartup.getBufferedTimeline();
+        String slowest = timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(topSteps)
+                .map(e -> String.format("%6d ms  %s %s", e.getDuration().toMillis(), e.getStartupStep().getName(),
+                        e.getStartupStep().getTags()))
+                .collect(Collectors.joining("\n  "));
+        log.info("Application ready in {} ms; slowest startup steps:\n  {}",
+                event.getTimeTaken() == null ? Duration.ZERO.toMillis() : event.getTimeTaken().toMillis(), slowest);
+    }
+}
@@ -0,0 +1,44 @@
+package com.exalt.training.springsecurity.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder decorator that times hashing and matching, published as
+ * {@code app.password.encode} and {@code app.password.match}.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+
+    /**
+     * Creates the decorator.
+     *
+     * @param delegate the encoder doing the actual hashing
+     * @param meterRegistry the registry the timers are published to
+     */
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = Timer.builder("app.password.encode")
+                .description("Time spent hashing passwords").publishPercentileHistogram().register(meterRegistry);
+        this.matchTimer = Timer.builder("app.password.match")
+                .description("Time spent checking passwords").publishPercentileHistogram().register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
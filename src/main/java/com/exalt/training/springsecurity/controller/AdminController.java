@@ -0,0 +1,159 @@
+package com.exalt.training.springsecurity.controller;
+
+import com.exalt.training.springsecurity.audit.AuditAction;
+import com.exalt.training.springsecurity.dto.AuditEntry;
+import com.exalt.training.springsecurity.dto.ProfilingStatus;
+import com.exalt.training.springsecurity.dto.SqlStatementStats;
+import com.exalt.training.springsecurity.exception.ProfilingOverloadedException;
+import com.exalt.training.springsecurity.exception.ProfilingUnavailableException;
+import com.exalt.training.springsecurity.service.AuditService;
+import com.exalt.training.springsecurity.service.ProfilingService;
+import com.exalt.training.springsecurity.service.SqlStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Controller for operational endpoints reserved to the CEO.
+ */
+@RestController
+@RequestMapping("/exalt/training/admin")
+@RequiredArgsConstructor
+public class AdminController {
+    private static final int MAX_STATEMENTS = 500; // upper bound on the statements returned at once
+    private static final int MAX_AUDIT_ENTRIES = 1000; // upper bound on the audit events returned at once
+    private static final Duration DEFAULT_AUDIT_RANGE = Duration.ofDays(1);
+    private static final String PROFILING_RETRY_AFTER_SECONDS = "30"; // suggested wait when the CPU load is too high to profile
+
+    private final SqlStatisticsService sqlStatisticsService; //aggregated statistics of the executed SQL statements
+    private final ProfilingService profilingService; //on-demand Java Flight Recorder recordings
+    private final AuditService auditService; //audit log of security and admin actions
+
+    /**
+     * Retrieves the SQL statements with the highest cumulative execution time.
+     *
+     * @param limit the maximum number of statements to return
+     * @return a response entity with the statement statistics, slowest in total first
+     */
+    @GetMapping("/sql-stats")
+    public ResponseEntity<List<SqlStatementStats>> getSqlStatistics(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(sqlStatisticsService.getTopStatements(Math.max(0, Math.min(limit, MAX_STATEMENTS))));
+    }
+
+    /**
+     * Clears the SQL statement statistics, e.g. before measuring a specific workload.
+     *
+     * @return a response entity with a success message
+     */
+    @DeleteMapping("/sql-stats")
+    public ResponseEntity<String> resetSqlStatistics() {
+        sqlStatisticsService.reset();
+        return ResponseEntity.ok("SQL statistics cleared");
+    }
+
+    /**
+     * Starts recording the application with Java Flight Recorder, in the background.
+     * Poll {@link #getProfilingStatus(String)} for the summary of hot methods and allocation sites.
+     *
+     * @param profile the JFR settings, {@code default} (about 1% overhead) or {@code profile} (more detail, about 2%)
+     * @param seconds the recording duration in seconds
+     * @return a 202 response entity with the status of the recording and its location, 409 if a recording is running
+     * or the cool-down has not elapsed, or 503 if the CPU load is too high
+     */
+    @PostMapping("/profiling")
+    public ResponseEntity<?> startProfiling(@RequestParam(defaultValue = "default") String profile,
+                                            @RequestParam(defaultValue = "30") long seconds) {
+        try {
+            ProfilingStatus status = profilingService.start(profile, Duration.ofSeconds(seconds));
+            URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/{recordingId}/status")
+                    .buildAndExpand(status.recordingId())
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ProfilingOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, PROFILING_RETRY_AFTER_SECONDS)
+                    .body(e.getMessage());
+        } catch (ProfilingUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the state of a recording, with its summary once it is finished.
+     *
+     * @param recordingId the id returned by {@link #startProfiling(String, long)}
+     * @return a response entity with the status of the recording
+     */
+    @GetMapping("/profiling/{recordingId}/status")
+    public ResponseEntity<?> getProfilingStatus(@PathVariable String recordingId) {
+        try {
+            return ResponseEntity.ok(profilingService.getStatus(recordingId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Downloads the {@code .jfr} file of the latest recording once it is finished, for analysis in JDK Mission Control.
+     *
+     * @param recordingId the id returned by {@link #startProfiling(String, long)}
+     * @return a response entity streaming the recording
+     */
+    @GetMapping("/profiling/{recordingId}")
+    public ResponseEntity<?> downloadRecording(@PathVariable String recordingId) {
+        try {
+            Path file = profilingService.getRecording(recordingId);
+            Resource resource = new FileSystemResource(file);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(recordingId + ".jfr").build().toString())
+                    .body(resource);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the audit events of a time range, newest first. Events are written asynchronously, so the
+     * latest ones may appear with a short delay.
+     *
+     * @param from the start of the range (ISO-8601), one day before {@code to} by default
+     * @param to the end of the range (ISO-8601), now by default
+     * @param action the action to keep, all by default
+     * @param actor the actor to keep, all by default
+     * @param limit the maximum number of events to return
+     * @return a response entity with the events
+     */
+    @GetMapping("/audit")
+    public ResponseEntity<?> getAuditEvents(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                            @RequestParam(required = false) AuditAction action,
+                                            @RequestParam(required = false) String actor,
+                                            @RequestParam(defaultValue = "100") int limit) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_AUDIT_RANGE);
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().body("'from' must be before 'to'");
+        }
+        List<AuditEntry> entries = auditService.find(start, end, action, actor, Math.max(1, Math.min(limit, MAX_AUDIT_ENTRIES)));
+        return ResponseEntity.ok(entries);
+    }
+}
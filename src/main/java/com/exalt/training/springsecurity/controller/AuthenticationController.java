@@ -5,7 +5,10 @@ import com.exalt.training.springsecurity.dto.RefreshTokenRequest;
 import com.exalt.training.springsecurity.dto.SignUpRequest;
 import com.exalt.training.springsecurity.dto.SigninRequest;
 import com.exalt.training.springsecurity.exception.EmailAlreadyUsedException;
-import com.exalt.training.springsecurity.model.User;
+import com.exalt.training.springsecurity.exception.IdempotencyKeyInUseException;
+import com.exalt.training.springsecurity.exception.IdempotencyKeyReusedException;
+import com.exalt.training.springsecurity.idempotency.IdempotencyStore;
+import com.exalt.training.springsecurity.mapper.UserMapper;
 import com.exalt.training.springsecurity.service.AuthenticationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -14,14 +17,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
 /**
  * The AuthenticationController class handles user authentication requests such as
  * sign-up, sign-in, and token refresh.
@@ -31,32 +30,38 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AuthenticationController {
     private final AuthenticationService authenticationService; //AuthenticationService interface used to provide authentication service implementation methods
+    private final UserMapper userMapper; //maps User entities to response DTOs
+    private final IdempotencyStore idempotencyStore; //replays the response of a retried sign-up
 
     /**
      * Handles user sign-up requests.
+     * With an {@code Idempotency-Key} header, a retry of the same sign-up gets the first response back instead of
+     * hashing the password again and failing with a conflict.
      *
      * @param signUpRequest the details of the user signing up
-     * @return the signed-up user entity
+     * @param idempotencyKey the optional key identifying retries of the same request
+     * @return the signed-up user
      */
     @PostMapping("/signup")
-    public ResponseEntity<?> signup(@Valid @RequestBody SignUpRequest signUpRequest, BindingResult bindingResult) {
+    public ResponseEntity<?> signup(@Valid @RequestBody SignUpRequest signUpRequest, BindingResult bindingResult,
+                                    @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         if (bindingResult.hasErrors()) {
             return ResponseEntity.badRequest().body(bindingResult.getFieldError().getDefaultMessage());
         }
         try {
-            User createdUser = authenticationService.signup(signUpRequest);
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", createdUser.getId());
-            response.put("firstName", createdUser.getFirstName());
-            response.put("secondName", createdUser.getSecondName());
-            response.put("email", createdUser.getEmail());
-            response.put("password", createdUser.getPassword());
-            response.put("role", createdUser.getRole().name());
-            response.put("username", createdUser.getFirstName() + " " + createdUser.getSecondName());
-
-            return ResponseEntity.ok(response);
-        } catch (EmailAlreadyUsedException e) {
+            return idempotencyStore.execute("signup", idempotencyKey, signUpRequest, () -> {
+                try {
+                    return ResponseEntity.ok(userMapper.toResponse(authenticationService.signup(signUpRequest)));
+                } catch (EmailAlreadyUsedException e) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+                }
+            });
+        } catch (IdempotencyKeyInUseException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IdempotencyKeyReusedException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
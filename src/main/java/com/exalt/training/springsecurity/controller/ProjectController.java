@@ -1,13 +1,21 @@
 package com.exalt.training.springsecurity.controller;
 
 import com.exalt.training.springsecurity.dto.ProjectDTO;
+import com.exalt.training.springsecurity.dto.ProjectResponse;
+import com.exalt.training.springsecurity.exception.InvalidPatchException;
+import com.exalt.training.springsecurity.exception.ProjectAccessDeniedException;
 import com.exalt.training.springsecurity.exception.ProjectTitleAlreadyExistsException;
-import com.exalt.training.springsecurity.model.Project;
+import com.exalt.training.springsecurity.mapper.ProjectMapper;
+import com.exalt.training.springsecurity.model.ProjectRole;
+import com.exalt.training.springsecurity.patch.JsonMergePatcher;
 import com.exalt.training.springsecurity.service.ProjectService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,11 +34,14 @@ public class ProjectController {
     @Autowired
     private ProjectService projectService; //projectService interface to provide project services implementation
 
+    @Autowired
+    private ProjectMapper projectMapper; //maps Project entities to response DTOs
+
     /**
      * Creates a new project.
      *
      * @param projectDTO the data transfer object containing the project details
-     * @return ResponseEntity containing the created {@link Project} entity
+     * @return ResponseEntity containing the created {@link ProjectResponse}
      */
     @PostMapping("/create")
     public ResponseEntity<?> createProject(@Valid @RequestBody ProjectDTO projectDTO, BindingResult bindingResult) {
@@ -38,7 +49,7 @@ public class ProjectController {
             return ResponseEntity.badRequest().body(bindingResult.getFieldError().getDefaultMessage());
         }
         try{
-            return ResponseEntity.ok(projectService.createProject(projectDTO));
+            return ResponseEntity.ok(projectMapper.toResponse(projectService.createProject(projectDTO)));
         } catch (ProjectTitleAlreadyExistsException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         }
@@ -49,7 +60,7 @@ public class ProjectController {
      *
      * @param title the title of the project to be updated
      * @param projectDTO the data transfer object containing the updated project details
-     * @return ResponseEntity containing the updated {@link Project} entity
+     * @return ResponseEntity containing the updated {@link ProjectResponse}
      * @throws IllegalArgumentException if no project with the given title is found
      */
     @PutMapping("/update/{title}")
@@ -60,7 +71,7 @@ public class ProjectController {
             return ResponseEntity.badRequest().body(bindingResult.getFieldError().getDefaultMessage());
         }
         try{
-            return ResponseEntity.ok(projectService.updateProject(title, projectDTO));
+            return ResponseEntity.ok(projectMapper.toResponse(projectService.updateProject(title, projectDTO)));
         }
         catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -69,12 +80,33 @@ public class ProjectController {
         }
     }
 
+    /**
+     * Partially updates an existing project with a JSON merge patch ({@code application/merge-patch+json}).
+     * Only the fields present in the patch change; a patch that changes nothing writes nothing.
+     *
+     * @param title the title of the project to patch
+     * @param patch the merge patch over title, company, description and status
+     * @return ResponseEntity containing the patched {@link ProjectResponse}
+     */
+    @PatchMapping(value = "/update/{title}", consumes = JsonMergePatcher.MEDIA_TYPE)
+    public ResponseEntity<?> patchProject(@PathVariable("title") String title, @RequestBody JsonNode patch) {
+        try {
+            return ResponseEntity.ok(projectMapper.toResponse(projectService.patchProject(title, patch)));
+        } catch (InvalidPatchException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (ProjectTitleAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
     /**
      * Updates the status of an existing project based on its title.
      *
      * @param title the title of the project whose status is to be updated
      * @param status the new status
-     * @return ResponseEntity containing the updated {@link Project} entity
+     * @return ResponseEntity containing the updated {@link ProjectResponse}
      * @throws IllegalArgumentException if no project with the given title is found
      */
     @PatchMapping("/update-status/{title}")
@@ -82,7 +114,7 @@ public class ProjectController {
             @PathVariable("title") String title,
             @RequestParam("status") String status) {
         try {
-            return ResponseEntity.ok(projectService.updateProjectStatus(title, status));
+            return ResponseEntity.ok(projectMapper.toResponse(projectService.updateProjectStatus(title, status)));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
@@ -91,29 +123,118 @@ public class ProjectController {
     /**
      * Retrieves all projects.
      *
-     * @return ResponseEntity containing a list of all {@link Project} entities
+     * @return ResponseEntity containing a list of all {@link ProjectResponse} DTOs
      */
     @GetMapping("/all")
-    public ResponseEntity<List<Project>> getAllProjects() {
-         return ResponseEntity.ok(projectService.getAllProjects());
+    public ResponseEntity<List<ProjectResponse>> getAllProjects() {
+         return ResponseEntity.ok(projectMapper.toResponses(projectService.getAllProjects()));
+    }
+
+    /**
+     * Retrieves the projects the authenticated user is a member of.
+     *
+     * @param principal the user authenticated by the JWT filter
+     * @return ResponseEntity containing the user's {@link ProjectResponse} DTOs
+     */
+    @GetMapping("/mine")
+    public ResponseEntity<List<ProjectResponse>> getMyProjects(@AuthenticationPrincipal UserDetails principal) {
+        return ResponseEntity.ok(projectMapper.toResponses(projectService.getProjectsForMember(principal.getUsername())));
+    }
+
+    /**
+     * Adds a user to a project, or changes the user's role in it.
+     *
+     * @param title the title of the project
+     * @param email the email of the user to add
+     * @param role the role of the user within the project
+     * @param principal the user authenticated by the JWT filter
+     * @return ResponseEntity containing the updated {@link ProjectResponse}, or 403 if the principal is neither
+     * the CEO nor an owner or leader of the project
+     */
+    @PostMapping("/add-member/{title}")
+    public ResponseEntity<?> addMember(
+            @PathVariable("title") String title,
+            @RequestParam("email") String email,
+            @RequestParam(value = "role", defaultValue = "Member") ProjectRole role,
+            @AuthenticationPrincipal UserDetails principal) {
+        try {
+            return ResponseEntity.ok(projectMapper.toResponse(projectService.addMember(title, email, role, principal)));
+        } catch (ProjectAccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Removes a user from a project.
+     *
+     * @param title the title of the project
+     * @param email the email of the user to remove
+     * @param principal the user authenticated by the JWT filter
+     * @return ResponseEntity containing the updated {@link ProjectResponse}, or 403 if the principal is neither
+     * the CEO nor an owner or leader of the project
+     */
+    @DeleteMapping("/remove-member/{title}")
+    public ResponseEntity<?> removeMember(@PathVariable("title") String title, @RequestParam("email") String email,
+                                          @AuthenticationPrincipal UserDetails principal) {
+        try {
+            return ResponseEntity.ok(projectMapper.toResponse(projectService.removeMember(title, email, principal)));
+        } catch (ProjectAccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
     }
 
     /**
      * Retrieves a project by its title.
      *
      * @param title the title of the project to retrieve
-     * @return ResponseEntity containing the {@link Project} entity with the given title
+     * @return ResponseEntity containing the {@link ProjectResponse} with the given title
      * @throws IllegalArgumentException if no project with the given title is found
      */
     @GetMapping("/retrieve/{title}")
     public ResponseEntity<?> getProjectByTitle(@PathVariable("title") String title) {
         try {
-            return ResponseEntity.ok(projectService.getProjectByTitle(title));
+            return ResponseEntity.ok(projectMapper.toResponse(projectService.getProjectByTitle(title)));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
 
+    /**
+     * Searches projects by title, company and description, best match first.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of projects to return
+     * @return ResponseEntity containing the matching {@link ProjectResponse} DTOs
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProjects(
+            @RequestParam("query") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(projectMapper.toResponses(projectService.searchProjects(query, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Suggests project titles starting with the given prefix, for autocomplete pickers.
+     *
+     * @param prefix the case-insensitive title prefix
+     * @param limit the maximum number of titles to return
+     * @return ResponseEntity containing the matching titles
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggestTitles(
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(projectService.suggestTitles(prefix, limit));
+    }
+
     /**
      * Deletes a project by its title.
      *
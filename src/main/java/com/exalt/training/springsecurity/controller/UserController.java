@@ -1,17 +1,37 @@
 package com.exalt.training.springsecurity.controller;
 
 import com.exalt.training.springsecurity.dto.UserDTO;
+import com.exalt.training.springsecurity.dto.UserImportResult;
+import com.exalt.training.springsecurity.dto.UserResponse;
+import com.exalt.training.springsecurity.exception.EmailAlreadyUsedException;
+import com.exalt.training.springsecurity.exception.IdempotencyKeyInUseException;
+import com.exalt.training.springsecurity.exception.IdempotencyKeyReusedException;
+import com.exalt.training.springsecurity.exception.InvalidPatchException;
+import com.exalt.training.springsecurity.idempotency.IdempotencyStore;
+import com.exalt.training.springsecurity.importing.UserImportFormat;
+import com.exalt.training.springsecurity.mapper.UserMapper;
 import com.exalt.training.springsecurity.model.Role;
-import com.exalt.training.springsecurity.model.User;
+import com.exalt.training.springsecurity.patch.JsonMergePatcher;
 import com.exalt.training.springsecurity.service.UserDetailsService;
+import com.exalt.training.springsecurity.service.UserImportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.util.List;
 
 /**
@@ -23,23 +43,82 @@ import java.util.List;
 public class UserController {
 
     private final UserDetailsService userDetailsService;//UserDetailsService interface used to provide user details service implementation methods
+    private final UserMapper userMapper; //maps User entities to response DTOs
+    private final IdempotencyStore idempotencyStore; //replays the response of a retried creation
+    private final UserImportService userImportService; //bulk creation of users
+    private final ObjectMapper objectMapper; //writes the streamed import results
     /**
      * Creates a new user in the system.
+     * With an {@code Idempotency-Key} header, a retry of the same creation by the same caller gets the first
+     * response back.
      *
      * @param userDTO the data transfer object containing the user's details
      * @param bindingResult the result of validation
-     * @return a response entity with the created user or validation error
+     * @param idempotencyKey the optional key identifying retries of the same request
+     * @param principal the authenticated caller, scoping the key
+     * @return a response entity with the created user, a conflict if the email is used, or validation error
      */
     @PostMapping("/create")
-    @PreAuthorize("hasAuthority('CEO')")
-    public ResponseEntity<?> createUser(@Valid @RequestBody UserDTO userDTO, BindingResult bindingResult) {
+    public ResponseEntity<?> createUser(@Valid @RequestBody UserDTO userDTO, BindingResult bindingResult,
+                                        @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+                                        Principal principal) {
         if (bindingResult.hasErrors()) {
             return ResponseEntity.badRequest().body(bindingResult.getFieldError().getDefaultMessage());
         }
         try {
-            return ResponseEntity.ok(userDetailsService.createUser(userDTO));
-        } catch (Exception e) {
+            return idempotencyStore.execute("users/create " + principal.getName(), idempotencyKey, userDTO, () -> {
+                try {
+                    return ResponseEntity.ok(userMapper.toResponse(userDetailsService.createUser(userDTO)));
+                } catch (EmailAlreadyUsedException e) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(e.getMessage());
+                }
+            });
+        } catch (IdempotencyKeyInUseException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IdempotencyKeyReusedException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Imports users in bulk from CSV (a header row naming firstName, lastName, email, password and role) or from
+     * NDJSON (one user object per line). The outcome of each row is streamed back as one NDJSON line as soon as its
+     * chunk is committed, so the response starts before the import ends.
+     *
+     * @param contentType the format of the body: {@code text/csv} or {@code application/x-ndjson}
+     * @param request the request carrying the rows
+     * @param response the response receiving one result per row, or a 400 if the input is malformed as a whole
+     * @throws IOException if the body cannot be read or the results cannot be written
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    public void importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        ServletOutputStream out = response.getOutputStream();
+        try {
+            userImportService.importUsers(request.getInputStream(), UserImportFormat.of(MediaType.parseMediaType(contentType)), results -> {
+                try {
+                    for (UserImportResult result : results) {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // the client went away; committed chunks stay imported
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.resetBuffer();
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            out.write(e.getMessage().getBytes(StandardCharsets.UTF_8));
         }
     }
 
@@ -52,13 +131,31 @@ public class UserController {
      * @return a response entity with the updated user or validation error
      */
     @PutMapping("/update/{email}")
-    @PreAuthorize("hasAuthority('CEO')")
     public ResponseEntity<?> updateUser(@PathVariable String email, @Valid @RequestBody UserDTO userDTO, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
             return ResponseEntity.badRequest().body(bindingResult.getFieldError().getDefaultMessage());
         }
         try {
-            return ResponseEntity.ok(userDetailsService.updateUser(email, userDTO));
+            return ResponseEntity.ok(userMapper.toResponse(userDetailsService.updateUser(email, userDTO)));
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Partially updates an existing user with a JSON merge patch ({@code application/merge-patch+json}).
+     * Only the fields present in the patch change; a patch that changes nothing writes nothing.
+     *
+     * @param email the email of the user to patch
+     * @param patch the merge patch over firstName, lastName, password and role
+     * @return a response entity with the patched user or error
+     */
+    @PatchMapping(value = "/update/{email}", consumes = JsonMergePatcher.MEDIA_TYPE)
+    public ResponseEntity<?> patchUser(@PathVariable String email, @RequestBody JsonNode patch) {
+        try {
+            return ResponseEntity.ok(userMapper.toResponse(userDetailsService.patchUser(email, patch)));
+        } catch (InvalidPatchException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (UsernameNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -71,7 +168,6 @@ public class UserController {
      * @return a response entity with a success message or error
      */
     @DeleteMapping("/delete/{email}")
-    @PreAuthorize("hasAuthority('CEO')")
     public ResponseEntity<?> deleteUserByEmail(@PathVariable String email) {
         try {
             userDetailsService.deleteUserByEmail(email);
@@ -87,9 +183,8 @@ public class UserController {
      * @return a response entity with the list of all users
      */
     @GetMapping("/all")
-    @PreAuthorize("hasAuthority('CEO')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userDetailsService.getAllUsers());
+    public ResponseEntity<List<UserResponse>> getAllUsers() {
+        return ResponseEntity.ok(userMapper.toResponses(userDetailsService.getAllUsers()));
     }
 
     /**
@@ -99,15 +194,28 @@ public class UserController {
      * @return a response entity with the user details or error
      */
     @GetMapping("/retrieve/{email}")
-    @PreAuthorize("hasAuthority('CEO') or hasAuthority('TeamLeader')")
     public ResponseEntity<?> getUserByEmail(@PathVariable String email) {
         try {
-            return ResponseEntity.ok(userDetailsService.getUserByEmail(email));
+            return ResponseEntity.ok(userMapper.toResponse(userDetailsService.getUserByEmail(email)));
         } catch (UsernameNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
 
+    /**
+     * Suggests user emails starting with the given prefix, for autocomplete pickers.
+     *
+     * @param prefix the case-insensitive email prefix
+     * @param limit the maximum number of emails to return
+     * @return a response entity with the matching emails
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggestEmails(
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(userDetailsService.suggestEmails(prefix, limit));
+    }
+
     /**
      * Updates the role of an existing user based on the provided email.
      *
@@ -116,11 +224,10 @@ public class UserController {
      * @return a response entity with the updated user or error
      */
     @PutMapping("/update-role/{email}")
-    @PreAuthorize("hasAuthority('CEO')")
     public ResponseEntity<?> updateUserRole(@PathVariable String email, @RequestParam("role") String newRole) {
         try {
             Role role = Role.valueOf(newRole);
-            return ResponseEntity.ok(userDetailsService.updateUserRole(email, role));
+            return ResponseEntity.ok(userMapper.toResponse(userDetailsService.updateUserRole(email, role)));
         } catch (UsernameNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -0,0 +1,16 @@
+package com.exalt.training.springsecurity.dto;
+
+import java.time.Instant;
+
+/**
+ * Stored audit event returned by {@code GET /exalt/training/admin/audit}.
+ *
+ * @param id         the identifier of the event
+ * @param occurredAt the time of the action
+ * @param action     the action
+ * @param actor      the user who acted, or the email tried for a sign-in
+ * @param target     the email or title the action applied to, or null
+ * @param details    free-form details, or null
+ */
+public record AuditEntry(long id, Instant occurredAt, String action, String actor, String target, String details) {
+}
@@ -0,0 +1,11 @@
+package com.exalt.training.springsecurity.dto;
+
+/**
+ * An immutable DTO representing one entry of a profiling summary: a hot method or an allocation site.
+ *
+ * @param frame   the top stack frame, as {@code class.method}, followed by the allocated class for allocation sites
+ * @param weight  the number of execution samples, or the estimated allocated bytes
+ * @param percent the share of the total samples or bytes
+ */
+public record ProfilingHotSpot(String frame, long weight, double percent) {
+}
@@ -0,0 +1,21 @@
+package com.exalt.training.springsecurity.dto;
+
+/**
+ * An immutable DTO describing a Java Flight Recorder recording started on demand.
+ *
+ * @param recordingId the identifier used to poll the recording and download its {@code .jfr} file
+ * @param state       the state of the recording
+ * @param summary     the summary once the recording is finished, otherwise null
+ * @param error       the reason of the failure, otherwise null
+ */
+public record ProfilingStatus(String recordingId, State state, ProfilingSummary summary, String error) {
+
+    /**
+     * Enumeration of the states of a recording.
+     */
+    public enum State {
+        RUNNING, //recording or summarizing
+        FINISHED, //summary and file available
+        FAILED //stopped early; no file is kept
+    }
+}
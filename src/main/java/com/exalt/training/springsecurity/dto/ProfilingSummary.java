@@ -0,0 +1,17 @@
+package com.exalt.training.springsecurity.dto;
+
+import java.util.List;
+
+/**
+ * An immutable DTO summarizing a Java Flight Recorder recording.
+ *
+ * @param recordingId     the identifier used to download the {@code .jfr} file
+ * @param profile         the JFR settings the recording used ({@code default} or {@code profile})
+ * @param durationMillis  the recording duration in milliseconds
+ * @param sizeBytes       the size of the {@code .jfr} file
+ * @param hotMethods      the methods on top of the most execution samples
+ * @param allocationSites the frames allocating the most bytes
+ */
+public record ProfilingSummary(String recordingId, String profile, long durationMillis, long sizeBytes,
+                               List<ProfilingHotSpot> hotMethods, List<ProfilingHotSpot> allocationSites) {
+}
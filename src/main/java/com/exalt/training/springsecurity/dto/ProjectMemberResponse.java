@@ -0,0 +1,12 @@
+package com.exalt.training.springsecurity.dto;
+
+import com.exalt.training.springsecurity.model.ProjectRole;
+
+/**
+ * An immutable DTO representing the membership of a user in a project in API responses.
+ *
+ * @param email the email of the member
+ * @param role  the role of the member within the project
+ */
+public record ProjectMemberResponse(String email, ProjectRole role) {
+}
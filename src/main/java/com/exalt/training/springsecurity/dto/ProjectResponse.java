@@ -0,0 +1,17 @@
+package com.exalt.training.springsecurity.dto;
+
+import java.util.List;
+
+/**
+ * An immutable DTO representing a project in API responses.
+ *
+ * @param id          the project identifier
+ * @param title       the project title
+ * @param company     the company the project belongs to
+ * @param description the project details
+ * @param status      the project status
+ * @param members     the users associated with the project
+ */
+public record ProjectResponse(Integer id, String title, String company, String description, String status,
+                              List<ProjectMemberResponse> members) {
+}
@@ -0,0 +1,13 @@
+package com.exalt.training.springsecurity.dto;
+
+/**
+ * An immutable DTO representing the aggregated execution statistics of one SQL statement.
+ *
+ * @param sql           the statement text, with bind parameters as placeholders
+ * @param executions    the number of executions since start-up or the last reset
+ * @param totalMillis   the cumulative execution time in milliseconds
+ * @param maxMillis     the slowest single execution in milliseconds
+ * @param averageMillis the mean execution time in milliseconds
+ */
+public record SqlStatementStats(String sql, long executions, long totalMillis, long maxMillis, double averageMillis) {
+}
@@ -0,0 +1,30 @@
+package com.exalt.training.springsecurity.dto;
+
+/**
+ * Outcome of one row of a bulk user import, streamed back as one NDJSON line.
+ *
+ * @param line   the line number of the row in the input
+ * @param email  the email of the row, or null if the line could not be parsed
+ * @param status the outcome
+ * @param id     the id of the created user, or null
+ * @param error  why the row was not imported, or null
+ */
+public record UserImportResult(int line, String email, Status status, Integer id, String error) {
+
+    /**
+     * Enumeration of the outcomes of an imported row.
+     *
+     * <ul>
+     *     <li>CREATED: The user was inserted.</li>
+     *     <li>DUPLICATE: A user with this email already exists, or appeared earlier in the input.</li>
+     *     <li>INVALID: The row could not be parsed or failed validation.</li>
+     *     <li>FAILED: The insert of the row's chunk failed; the row can be imported again.</li>
+     * </ul>
+     */
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+}
@@ -0,0 +1,12 @@
+package com.exalt.training.springsecurity.dto;
+
+/**
+ * Counts of the rows of a bulk user import by outcome.
+ *
+ * @param created    the number of users inserted
+ * @param duplicates the number of rows whose email already existed
+ * @param invalid    the number of rows rejected by parsing or validation
+ * @param failed     the number of rows whose chunk could not be written
+ */
+public record UserImportSummary(int created, int duplicates, int invalid, int failed) {
+}
@@ -0,0 +1,16 @@
+package com.exalt.training.springsecurity.dto;
+
+import com.exalt.training.springsecurity.model.Role;
+
+/**
+ * An immutable DTO representing a user in API responses.
+ * Unlike the {@link com.exalt.training.springsecurity.model.User} entity it carries no password hash or security flags.
+ *
+ * @param id         the user identification number
+ * @param firstName  the user first name
+ * @param secondName the user second name
+ * @param email      the user email address
+ * @param role       the role assigned to the user
+ */
+public record UserResponse(Integer id, String firstName, String secondName, String email, Role role) {
+}
@@ -14,4 +14,14 @@ public class EmailAlreadyUsedException extends RuntimeException {
     public EmailAlreadyUsedException(String message) {
         super(message);
     }
+
+    /**
+     * Constructs a new EmailAlreadyUsedException with the specified detail message and cause.
+     *
+     * @param message the detail message explaining the cause of the exception.
+     * @param cause   the constraint violation reported by the database.
+     */
+    public EmailAlreadyUsedException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,17 @@
+package com.exalt.training.springsecurity.exception;
+
+/**
+ * Exception thrown when a request arrives with an Idempotency-Key whose first request is still being processed.
+ * The client should retry later to receive the stored response.
+ */
+public class IdempotencyKeyInUseException extends RuntimeException {
+
+    /**
+     * Constructs a new IdempotencyKeyInUseException with the specified detail message.
+     *
+     * @param message the detail message explaining the cause of the exception.
+     */
+    public IdempotencyKeyInUseException(String message) {
+        super(message);
+    }
+}
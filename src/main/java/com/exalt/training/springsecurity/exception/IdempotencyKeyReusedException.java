@@ -0,0 +1,17 @@
+package com.exalt.training.springsecurity.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is sent again with a different request body.
+ * This custom exception is used to indicate a client error: a key identifies exactly one request.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    /**
+     * Constructs a new IdempotencyKeyReusedException with the specified detail message.
+     *
+     * @param message the detail message explaining the cause of the exception.
+     */
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
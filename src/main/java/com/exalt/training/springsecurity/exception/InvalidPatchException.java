@@ -0,0 +1,18 @@
+package com.exalt.training.springsecurity.exception;
+
+/**
+ * Exception thrown when a JSON merge patch cannot be applied.
+ * This custom exception is used to indicate that the patch is malformed, names a field that cannot be patched,
+ * or would leave the resource invalid.
+ */
+public class InvalidPatchException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidPatchException with the specified detail message.
+     *
+     * @param message the detail message explaining the cause of the exception.
+     */
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.exalt.training.springsecurity.exception;
+
+/**
+ * Exception thrown when a profiling recording is refused because the system CPU load is above the limit.
+ * Unlike the other {@link ProfilingUnavailableException} causes, it reflects the state of the machine, not of
+ * the profiling service.
+ */
+public class ProfilingOverloadedException extends ProfilingUnavailableException {
+
+    /**
+     * Constructs a new ProfilingOverloadedException with the specified detail message.
+     *
+     * @param message the detail message giving the measured load and the limit.
+     */
+    public ProfilingOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.exalt.training.springsecurity.exception;
+
+/**
+ * Exception thrown when a profiling recording cannot be started right now: another recording is running,
+ * the cool-down since the previous one has not elapsed, or the machine is too busy.
+ */
+public class ProfilingUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs a new ProfilingUnavailableException with the specified detail message.
+     *
+     * @param message the detail message explaining why profiling is unavailable.
+     */
+    public ProfilingUnavailableException(String message) {
+        super(message);
+    }
+}
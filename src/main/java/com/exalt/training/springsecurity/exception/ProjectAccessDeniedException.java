@@ -0,0 +1,17 @@
+package com.exalt.training.springsecurity.exception;
+
+/**
+ * Exception thrown when a user may call an endpoint but not act on the project it targets,
+ * such as a team leader changing the members of a project they do not lead.
+ */
+public class ProjectAccessDeniedException extends RuntimeException {
+
+    /**
+     * Constructs a new ProjectAccessDeniedException with the specified detail message.
+     *
+     * @param message the detail message explaining the cause of the exception.
+     */
+    public ProjectAccessDeniedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,186 @@
+package com.exalt.training.springsecurity.idempotency;
+
+import com.exalt.training.springsecurity.exception.IdempotencyKeyInUseException;
+import com.exalt.training.springsecurity.exception.IdempotencyKeyReusedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived store of the responses of requests sent with an {@value #HEADER} header.
+ * The first request with a key runs and its response is kept for {@code app.idempotency.ttl}; a retry with the same
+ * key and body gets the stored response back without running again, marked with {@value #REPLAYED_HEADER}.
+ * A retry arriving while the first request still runs is rejected with {@link IdempotencyKeyInUseException}, and
+ * the same key with another body with {@link IdempotencyKeyReusedException}. Server errors are not stored, so that
+ * the client can retry them.
+ * <p>
+ * The store is local to the node: a retry routed to another node runs again, and is then caught by the unique
+ * constraints of the endpoint.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter stored;
+    private final Counter replayed;
+    private final Counter inUse;
+    private final Counter reused;
+    private final Counter bypassed;
+
+    /**
+     * Creates the store.
+     *
+     * @param objectMapper the mapper serialising request bodies for their fingerprint
+     * @param ttl          how long a response is kept
+     * @param maxEntries   the maximum number of keys; requests beyond it run without idempotency
+     * @param registry     the meter registry
+     */
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${app.idempotency.ttl:10m}") Duration ttl,
+                            @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                            MeterRegistry registry) {
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.stored = counter(registry, "stored");
+        this.replayed = counter(registry, "replayed");
+        this.inUse = counter(registry, "in_use");
+        this.reused = counter(registry, "reused");
+        this.bypassed = counter(registry, "bypassed");
+        Gauge.builder("app.idempotency.keys", entries, Map::size)
+                .description("Idempotency keys held in memory").register(registry);
+    }
+
+    /**
+     * Runs a request at most once per key.
+     *
+     * @param scope   the endpoint, and the caller for authenticated endpoints; keys of different scopes never collide
+     * @param key     the value of the {@value #HEADER} header, or {@code null} to simply run the request
+     * @param request the request body, serialised to recognise a reused key
+     * @param action  the request processing
+     * @return the response of the action, or the stored response of an earlier request with the same key
+     * @throws IllegalArgumentException      if the key is blank or longer than 255 characters
+     * @throws IdempotencyKeyInUseException  if the first request with this key is still running
+     * @throws IdempotencyKeyReusedException if the key was used with another request body
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must contain 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        if (entries.size() >= maxEntries) {
+            purgeExpired();
+            if (entries.size() >= maxEntries) {
+                bypassed.increment();
+                log.warn("Idempotency store is full ({} keys), running the request without a key", maxEntries);
+                return action.get();
+            }
+        }
+        String id = scope + ' ' + key;
+        long now = System.nanoTime();
+        Entry claim = new Entry(fingerprint(request), now + ttlNanos);
+        Entry entry = entries.compute(id, (k, current) -> current == null || current.isExpired(now) ? claim : current);
+        if (entry != claim) {
+            return replay(entry, claim.fingerprint);
+        }
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            entries.remove(id, claim);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            entries.remove(id, claim);
+        } else {
+            claim.complete(response, System.nanoTime() + ttlNanos);
+            stored.increment();
+        }
+        return response;
+    }
+
+    /**
+     * Drops the expired responses.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    private ResponseEntity<?> replay(Entry entry, byte[] fingerprint) {
+        if (!Arrays.equals(entry.fingerprint, fingerprint)) {
+            reused.increment();
+            throw new IdempotencyKeyReusedException(HEADER + " was already used for another request");
+        }
+        ResponseEntity<?> response = entry.response;
+        if (response == null) {
+            inUse.increment();
+            throw new IdempotencyKeyInUseException("A request with this " + HEADER + " is still being processed");
+        }
+        replayed.increment();
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint the request", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("app.idempotency.requests").tag("outcome", outcome).register(registry);
+    }
+
+    /**
+     * A key: in progress while {@code response} is null.
+     */
+    private static final class Entry {
+        private final byte[] fingerprint; // SHA-256 of the request body
+        private volatile ResponseEntity<?> response;
+        private volatile long expiresAt; // System.nanoTime() deadline; bounds a lost in-progress entry too
+
+        private Entry(byte[] fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        private void complete(ResponseEntity<?> response, long expiresAt) {
+            this.expiresAt = expiresAt;
+            this.response = response;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.exalt.training.springsecurity.importing;
+
+import com.exalt.training.springsecurity.dto.UserDTO;
+import com.exalt.training.springsecurity.model.Role;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads users from CSV. The first line is a header naming the columns {@code firstName}, {@code lastName},
+ * {@code email}, {@code password} and {@code role}, in any order and case; other columns are ignored.
+ * Fields may be quoted with double quotes, a quote inside a quoted field being doubled. Fields do not span lines.
+ */
+public class CsvUserRowReader implements UserRowReader {
+    private static final List<String> COLUMNS = List.of("firstname", "lastname", "email", "password", "role");
+    private static final char BOM = '\uFEFF'; // byte order mark written by some spreadsheet exports
+
+    private final BufferedReader reader;
+    private int[] positions; // field index of each of COLUMNS, read from the header
+    private int width; // number of fields of the header
+    private int line; // number of the last line read
+
+    /**
+     * Creates the reader.
+     *
+     * @param reader the input, starting with the header
+     */
+    public CsvUserRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public UserImportRow next() throws IOException {
+        String text = nextLine();
+        if (text == null) {
+            return null;
+        }
+        if (positions == null) {
+            readHeader(text);
+            text = nextLine();
+            if (text == null) {
+                return null;
+            }
+        }
+        List<String> fields;
+        try {
+            fields = split(text);
+        } catch (IllegalArgumentException e) {
+            return UserImportRow.invalid(line, e.getMessage());
+        }
+        if (fields.size() != width) {
+            return UserImportRow.invalid(line, "Expected " + width + " fields, found " + fields.size());
+        }
+        UserDTO user = new UserDTO();
+        user.setFirstName(emptyToNull(fields.get(positions[0]).strip()));
+        user.setLastName(emptyToNull(fields.get(positions[1]).strip()));
+        user.setEmail(emptyToNull(fields.get(positions[2]).strip()));
+        user.setPassword(emptyToNull(fields.get(positions[3])));
+        String role = fields.get(positions[4]).strip();
+        if (!role.isEmpty()) {
+            try {
+                user.setRole(Role.valueOf(role));
+            } catch (IllegalArgumentException e) {
+                return UserImportRow.invalid(line, "Unknown role: " + role);
+            }
+        }
+        return new UserImportRow(line, user, null);
+    }
+
+    /**
+     * Splits a CSV line into its fields.
+     *
+     * @param text the line, without line terminator
+     * @return the unquoted fields
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void readHeader(String text) {
+        List<String> names = split(text.charAt(0) == BOM ? text.substring(1) : text);
+        positions = new int[COLUMNS.size()];
+        for (int column = 0; column < COLUMNS.size(); column++) {
+            positions[column] = -1;
+            for (int i = 0; i < names.size(); i++) {
+                if (COLUMNS.get(column).equals(names.get(i).strip().toLowerCase(Locale.ROOT))) {
+                    positions[column] = i;
+                }
+            }
+            if (positions[column] < 0) {
+                throw new IllegalArgumentException("CSV header must name the columns firstName, lastName, email, password and role");
+            }
+        }
+        width = names.size();
+    }
+
+    private String nextLine() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+        return text;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
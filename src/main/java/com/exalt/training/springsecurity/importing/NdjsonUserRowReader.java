@@ -0,0 +1,50 @@
+package com.exalt.training.springsecurity.importing;
+
+import com.exalt.training.springsecurity.dto.UserDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads users from NDJSON: each line is a JSON object with the fields of {@link UserDTO}.
+ * A line holding anything else, including {@code null}, is an invalid row.
+ */
+public class NdjsonUserRowReader implements UserRowReader {
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private int line; // number of the last line read
+
+    /**
+     * Creates the reader.
+     *
+     * @param reader       the input
+     * @param objectMapper the mapper reading each line
+     */
+    public NdjsonUserRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public UserImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+        try {
+            UserDTO user = objectMapper.readValue(text, UserDTO.class);
+            if (user == null) {
+                return UserImportRow.invalid(line, "A row must be a JSON object");
+            }
+            return new UserImportRow(line, user, null);
+        } catch (JsonProcessingException e) {
+            return UserImportRow.invalid(line, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+}
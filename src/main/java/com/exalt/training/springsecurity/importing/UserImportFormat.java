@@ -0,0 +1,38 @@
+package com.exalt.training.springsecurity.importing;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Enumeration of the accepted formats of a bulk user import.
+ *
+ * <ul>
+ *     <li>CSV: {@code text/csv}, a header row naming the columns, then one user per line.</li>
+ *     <li>NDJSON: {@code application/x-ndjson}, one JSON user object per line.</li>
+ * </ul>
+ */
+public enum UserImportFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    UserImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    /**
+     * Returns the format of a request body.
+     *
+     * @param contentType the content type of the request
+     * @return the matching format
+     * @throws IllegalArgumentException if the content type is not supported
+     */
+    public static UserImportFormat of(MediaType contentType) {
+        for (UserImportFormat format : values()) {
+            if (format.mediaType.includes(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+}
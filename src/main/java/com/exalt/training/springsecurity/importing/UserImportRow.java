@@ -0,0 +1,24 @@
+package com.exalt.training.springsecurity.importing;
+
+import com.exalt.training.springsecurity.dto.UserDTO;
+
+/**
+ * One parsed line of a bulk user import.
+ *
+ * @param line  the line number in the input, starting at 1
+ * @param user  the user read from the line, or null if the line could not be parsed
+ * @param error why the line could not be parsed, or null
+ */
+public record UserImportRow(int line, UserDTO user, String error) {
+
+    /**
+     * Creates a row that could not be parsed.
+     *
+     * @param line  the line number
+     * @param error the reason
+     * @return the row
+     */
+    public static UserImportRow invalid(int line, String error) {
+        return new UserImportRow(line, null, error);
+    }
+}
@@ -0,0 +1,37 @@
+package com.exalt.training.springsecurity.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads the users of a bulk import one line at a time, so that imports of any size run in constant memory.
+ * Blank lines are skipped; a line that cannot be parsed is returned as an invalid row rather than ending the import.
+ */
+public interface UserRowReader {
+
+    /**
+     * Reads the next user.
+     *
+     * @return the next row, or null at the end of the input
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if the input as a whole is malformed, e.g. a CSV header is missing a column
+     */
+    UserImportRow next() throws IOException;
+
+    /**
+     * Creates the reader of a format.
+     *
+     * @param format       the format of the input
+     * @param reader       the input
+     * @param objectMapper the mapper reading NDJSON lines
+     * @return the reader
+     */
+    static UserRowReader of(UserImportFormat format, BufferedReader reader, ObjectMapper objectMapper) {
+        return switch (format) {
+            case CSV -> new CsvUserRowReader(reader);
+            case NDJSON -> new NdjsonUserRowReader(reader, objectMapper);
+        };
+    }
+}
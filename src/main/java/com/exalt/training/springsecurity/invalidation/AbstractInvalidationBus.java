@@ -0,0 +1,183 @@
+package com.exalt.training.springsecurity.invalidation;
+
+import com.exalt.training.springsecurity.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Base of the invalidation bus implementations: after-commit publication, local delivery, sequence numbering and
+ * gap detection. Subclasses only transport the messages to the other nodes.
+ * <p>
+ * Listeners are called on the committing thread for this node's changes, so the writing node never serves stale
+ * data; remote listeners are only called for the messages of other nodes, on the transport's thread. Messages
+ * are numbered and handed to {@link #send(InvalidationMessage)} under one lock, in sequence order. A received
+ * message whose sequence is not the next one of its origin means messages were lost: every region is then
+ * invalidated.
+ * </p>
+ */
+@Slf4j
+public abstract class AbstractInvalidationBus implements InvalidationBus {
+    private final String nodeId = UUID.randomUUID().toString(); // identifies this node until it restarts
+    private final Map<CacheRegion, List<InvalidationListener>> listeners = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, List<InvalidationListener>> remoteListeners = new EnumMap<>(CacheRegion.class);
+    private final ReentrantLock sendLock = new ReentrantLock(); // keeps sequence and send order identical
+    private long lastSent; // guarded by sendLock
+    private final ReentrantLock receiveLock = new ReentrantLock();
+    private final Map<String, Long> lastReceived = new HashMap<>(); // origin -> latest sequence, guarded by receiveLock
+    private final Counter published;
+    private final Counter received;
+    private final Counter gapFlushes;
+    private final Counter reconnectFlushes;
+
+    /**
+     * Creates the bus and its {@code app.cache.invalidation.*} meters.
+     *
+     * @param registry the meter registry
+     */
+    protected AbstractInvalidationBus(MeterRegistry registry) {
+        for (CacheRegion region : CacheRegion.values()) {
+            listeners.put(region, new CopyOnWriteArrayList<>());
+            remoteListeners.put(region, new CopyOnWriteArrayList<>());
+        }
+        this.published = Counter.builder("app.cache.invalidation.messages").tag("direction", "published").register(registry);
+        this.received = Counter.builder("app.cache.invalidation.messages").tag("direction", "received").register(registry);
+        this.gapFlushes = Counter.builder("app.cache.invalidation.flushes").tag("reason", "gap").register(registry);
+        this.reconnectFlushes = Counter.builder("app.cache.invalidation.flushes").tag("reason", "reconnect").register(registry);
+    }
+
+    @Override
+    public void publish(CacheRegion region, String key) {
+        AfterCommit.run(() -> dispatch(region, key));
+    }
+
+    @Override
+    public void publishAll(CacheRegion region) {
+        AfterCommit.run(() -> dispatch(region, null));
+    }
+
+    @Override
+    public void subscribe(CacheRegion region, InvalidationListener listener) {
+        listeners.get(region).add(listener);
+    }
+
+    @Override
+    public void subscribeRemote(CacheRegion region, InvalidationListener listener) {
+        remoteListeners.get(region).add(listener);
+    }
+
+    /**
+     * Returns the identifier of this node, the origin of the messages it publishes.
+     *
+     * @return the node identifier
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Transports a message to the other nodes. Called in sequence order; must not block for long.
+     *
+     * @param message the message
+     */
+    protected abstract void send(InvalidationMessage message);
+
+    /**
+     * Delivers a message received from another node, detecting lost messages by their sequence numbers.
+     * Messages of this node and messages already seen are ignored.
+     *
+     * @param message the message
+     */
+    protected void receive(InvalidationMessage message) {
+        if (nodeId.equals(message.origin())) {
+            return;
+        }
+        boolean gap;
+        receiveLock.lock();
+        try {
+            Long last = lastReceived.get(message.origin());
+            if (last != null && message.sequence() <= last) {
+                return;
+            }
+            // the first message of an origin sets the baseline: earlier ones predate this node's caches;
+            // a heartbeat carries the latest sequence sent, so any heartbeat beyond the last one received reveals a loss
+            gap = last != null && message.sequence() > (message.isHeartbeat() ? last : last + 1);
+            lastReceived.put(message.origin(), message.sequence());
+        } finally {
+            receiveLock.unlock();
+        }
+        if (gap) {
+            log.warn("Missed invalidation messages from node {}, invalidating every cache", message.origin());
+            gapFlushes.increment();
+            invalidateEverything();
+        }
+        if (!message.isHeartbeat()) {
+            received.increment();
+            deliver(message.region(), message.key(), true);
+        }
+    }
+
+    /**
+     * Publishes the latest sequence number of this node, so that receivers notice lost trailing messages.
+     */
+    protected void heartbeat() {
+        sendLock.lock();
+        try {
+            if (lastSent > 0) {
+                send(new InvalidationMessage(nodeId, lastSent, null, null));
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates every region after the transport lost its connection, since messages may have been missed.
+     */
+    protected void connectionRestored() {
+        reconnectFlushes.increment();
+        invalidateEverything();
+    }
+
+    private void dispatch(CacheRegion region, String key) {
+        deliver(region, key, false);
+        published.increment();
+        sendLock.lock();
+        try {
+            send(new InvalidationMessage(nodeId, ++lastSent, region, key));
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private void deliver(CacheRegion region, String key, boolean fromOtherNode) {
+        invoke(listeners.get(region), region, key);
+        if (fromOtherNode) {
+            invoke(remoteListeners.get(region), region, key);
+        }
+    }
+
+    private static void invoke(List<InvalidationListener> regionListeners, CacheRegion region, String key) {
+        for (InvalidationListener listener : regionListeners) {
+            try {
+                listener.invalidate(key);
+            } catch (RuntimeException e) {
+                log.error("Invalidation listener of {} failed", region, e);
+            }
+        }
+    }
+
+    private void invalidateEverything() {
+        for (CacheRegion region : CacheRegion.values()) {
+            deliver(region, null, true);
+        }
+    }
+}
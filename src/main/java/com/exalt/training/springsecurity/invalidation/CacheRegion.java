@@ -0,0 +1,17 @@
+package com.exalt.training.springsecurity.invalidation;
+
+/**
+ * Enumeration of the cached entity types whose changes are published on the {@link InvalidationBus}.
+ *
+ * <ul>
+ *     <li>PROJECT: Projects, keyed by title.</li>
+ *     <li>PROJECT_MEMBERS: The member lists of projects, flushed as a whole when a member user changes; caches that
+ *     hold only project fields, such as the search indexes, do not subscribe to it.</li>
+ *     <li>USER: Users, keyed by lower-case email.</li>
+ * </ul>
+ */
+public enum CacheRegion {
+    PROJECT, //ProjectServiceImpl writes
+    PROJECT_MEMBERS, //user writes seen through project memberships
+    USER //UserDetailsServiceImpl and sign-up writes
+}
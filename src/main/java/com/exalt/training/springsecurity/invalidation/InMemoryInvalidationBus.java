@@ -0,0 +1,52 @@
+package com.exalt.training.springsecurity.invalidation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-JVM invalidation bus, for a single node and for tests.
+ * Buses created on the same {@link Network} act as the nodes of a cluster: each message is delivered
+ * synchronously to the other buses of the network.
+ */
+public class InMemoryInvalidationBus extends AbstractInvalidationBus {
+    private final Network network;
+
+    /**
+     * Creates a bus alone on its network.
+     *
+     * @param registry the meter registry
+     */
+    public InMemoryInvalidationBus(MeterRegistry registry) {
+        this(new Network(), registry);
+    }
+
+    /**
+     * Creates a bus joining a network shared with other buses.
+     *
+     * @param network  the network
+     * @param registry the meter registry
+     */
+    public InMemoryInvalidationBus(Network network, MeterRegistry registry) {
+        super(registry);
+        this.network = network;
+        network.buses.add(this);
+    }
+
+    @Override
+    protected void send(InvalidationMessage message) {
+        for (InMemoryInvalidationBus bus : network.buses) {
+            if (bus != this) {
+                bus.receive(message);
+            }
+        }
+    }
+
+    /**
+     * Group of buses exchanging messages.
+     */
+    public static final class Network {
+        private final List<InMemoryInvalidationBus> buses = new CopyOnWriteArrayList<>();
+    }
+}
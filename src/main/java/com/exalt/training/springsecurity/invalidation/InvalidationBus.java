@@ -0,0 +1,43 @@
+package com.exalt.training.springsecurity.invalidation;
+
+/**
+ * Publishes entity changes to the local caches of every node.
+ * Changes published inside a transaction are delivered after it commits and dropped if it rolls back. The
+ * implementation is selected with the {@code app.cache.invalidation.mode} property.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Publishes the change of one key.
+     *
+     * @param region the cache region
+     * @param key    the changed key
+     */
+    void publish(CacheRegion region, String key);
+
+    /**
+     * Publishes a change affecting any key of a region.
+     *
+     * @param region the cache region
+     */
+    void publishAll(CacheRegion region);
+
+    /**
+     * Registers a listener for the invalidations of a region, published by this node or another one.
+     * A node that missed messages invalidates every key of every region.
+     *
+     * @param region   the cache region
+     * @param listener the listener
+     */
+    void subscribe(CacheRegion region, InvalidationListener listener);
+
+    /**
+     * Registers a listener for the invalidations of a region published by other nodes only, for node-local state
+     * that this node's write paths already update, such as the in-memory search and suggestion indexes. A node that
+     * missed messages also invalidates every key of every region of these listeners.
+     *
+     * @param region   the cache region
+     * @param listener the listener, called on the transport's thread
+     */
+    void subscribeRemote(CacheRegion region, InvalidationListener listener);
+}
@@ -0,0 +1,15 @@
+package com.exalt.training.springsecurity.invalidation;
+
+/**
+ * Receives the invalidations of one cache region, from this node or from another one.
+ */
+@FunctionalInterface
+public interface InvalidationListener {
+
+    /**
+     * Evicts a key.
+     *
+     * @param key the changed key, or null when every key of the region must be evicted
+     */
+    void invalidate(String key);
+}
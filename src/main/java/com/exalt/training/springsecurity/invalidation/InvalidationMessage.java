@@ -0,0 +1,23 @@
+package com.exalt.training.springsecurity.invalidation;
+
+/**
+ * Invalidation exchanged between nodes.
+ * Each node numbers its messages from 1 without gaps, so a receiver that sees a jump in the sequence of an origin
+ * knows it missed messages. A heartbeat carries no region and repeats the latest sequence of its origin.
+ *
+ * @param origin   the identifier of the publishing node, new at every start
+ * @param sequence the sequence number of the message within its origin
+ * @param region   the cache region, or null for a heartbeat
+ * @param key      the changed key, or null for the whole region
+ */
+public record InvalidationMessage(String origin, long sequence, CacheRegion region, String key) {
+
+    /**
+     * Tells whether the message only reports the latest sequence of its origin.
+     *
+     * @return true for a heartbeat
+     */
+    public boolean isHeartbeat() {
+        return region == null;
+    }
+}
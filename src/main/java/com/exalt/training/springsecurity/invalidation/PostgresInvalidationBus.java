@@ -0,0 +1,224 @@
+package com.exalt.training.springsecurity.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Invalidation bus using PostgreSQL {@code LISTEN/NOTIFY}, so nodes sharing the database need no other
+ * infrastructure. Two dedicated connections are opened outside the pool: one listens on the channel, the other
+ * sends the messages queued by committed transactions, a batch per transaction. Messages are JSON payloads.
+ * <p>
+ * NOTIFY is not durable: messages sent while a node is disconnected are lost. A node therefore invalidates
+ * every region when its listener reconnects, and receivers detect other losses from sequence gaps. An idle node
+ * sends a heartbeat with its latest sequence, so lost trailing messages are noticed too.
+ * </p>
+ */
+@Slf4j
+public class PostgresInvalidationBus extends AbstractInvalidationBus implements SmartLifecycle {
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final int MAX_PAYLOAD_BYTES = 7900; // PostgreSQL rejects payloads of 8000 bytes or more
+    private static final int MAX_BATCH = 100; // messages sent in one transaction
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int POLL_MILLIS = 500; // wake-up interval of both threads, bounds the shutdown time
+    private static final long RECONNECT_DELAY_MILLIS = 1_000;
+
+    private final DataSourceProperties connectionProperties;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final long heartbeatNanos;
+    private final BlockingQueue<InvalidationMessage> outbound = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private volatile boolean running;
+    private Thread listener;
+    private Thread sender;
+    private Connection senderConnection; // used by the sender thread only
+
+    /**
+     * Creates the bus; the connections are opened when the application context starts.
+     *
+     * @param connectionProperties the settings of the primary database
+     * @param objectMapper         the mapper encoding the payloads
+     * @param channel              the notification channel, a lower-case SQL identifier
+     * @param heartbeat            the idle time after which the latest sequence is sent again
+     * @param registry             the meter registry
+     */
+    public PostgresInvalidationBus(DataSourceProperties connectionProperties, ObjectMapper objectMapper, String channel,
+                                   Duration heartbeat, MeterRegistry registry) {
+        super(registry);
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        this.connectionProperties = connectionProperties;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.heartbeatNanos = heartbeat.toNanos();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform().daemon().name("invalidation-listener").start(this::listen);
+        sender = Thread.ofPlatform().daemon().name("invalidation-sender").start(this::sendQueued);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            listener.join(POLL_MILLIS * 4L);
+            sender.join(POLL_MILLIS * 4L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    protected void send(InvalidationMessage message) {
+        if (!outbound.offer(message)) {
+            log.warn("Invalidation queue full, dropping message {}; other nodes will detect the gap", message.sequence());
+        }
+    }
+
+    private void listen() {
+        boolean firstAttempt = true;
+        while (running) {
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                if (!firstAttempt) {
+                    log.info("Invalidation listener reconnected, invalidating every cache");
+                    connectionRestored();
+                }
+                firstAttempt = false;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                firstAttempt = false;
+                if (running) {
+                    log.warn("Invalidation listener disconnected, retrying in {}ms", RECONNECT_DELAY_MILLIS, e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            receive(objectMapper.readValue(payload, InvalidationMessage.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed invalidation payload on channel {}", channel, e);
+        }
+    }
+
+    private void sendQueued() {
+        List<InvalidationMessage> batch = new ArrayList<>();
+        long lastActivity = System.nanoTime();
+        while (running || !outbound.isEmpty()) {
+            try {
+                InvalidationMessage first = outbound.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (running && System.nanoTime() - lastActivity >= heartbeatNanos) {
+                        heartbeat();
+                        lastActivity = System.nanoTime();
+                    }
+                    continue;
+                }
+                batch.add(first);
+                outbound.drainTo(batch, MAX_BATCH - 1);
+                notifyBatch(batch);
+                lastActivity = System.nanoTime();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (SQLException | JsonProcessingException e) {
+                log.warn("Could not send {} invalidation messages; other nodes will detect the gap", batch.size(), e);
+                closeSenderConnection();
+            } finally {
+                batch.clear();
+            }
+        }
+        closeSenderConnection();
+    }
+
+    private void notifyBatch(List<InvalidationMessage> batch) throws SQLException, JsonProcessingException {
+        if (senderConnection == null) {
+            senderConnection = connect();
+            senderConnection.setAutoCommit(false);
+        }
+        try (PreparedStatement statement = senderConnection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (InvalidationMessage message : batch) {
+                statement.setString(1, channel);
+                statement.setString(2, encode(message));
+                statement.executeQuery().close();
+            }
+            senderConnection.commit(); // notifications are delivered on commit, in the order they were sent
+        } catch (SQLException e) {
+            senderConnection.rollback();
+            throw e;
+        }
+    }
+
+    private String encode(InvalidationMessage message) throws JsonProcessingException {
+        String payload = objectMapper.writeValueAsString(message);
+        if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+            return payload;
+        }
+        // a key too long for a payload invalidates its whole region
+        return objectMapper.writeValueAsString(new InvalidationMessage(message.origin(), message.sequence(), message.region(), null));
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(connectionProperties.determineUrl(),
+                connectionProperties.determineUsername(), connectionProperties.determinePassword());
+    }
+
+    private void closeSenderConnection() {
+        if (senderConnection != null) {
+            try {
+                senderConnection.close();
+            } catch (SQLException e) {
+                log.debug("Could not close the invalidation sender connection", e);
+            }
+            senderConnection = null;
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
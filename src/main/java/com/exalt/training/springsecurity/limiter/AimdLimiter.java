@@ -0,0 +1,92 @@
+package com.exalt.training.springsecurity.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limiter using additive increase / multiplicative decrease (AIMD).
+ * The limit grows by one for each successful request completed while at least half of the limit is in use,
+ * and is multiplied by the backoff ratio whenever a request fails or takes longer than the timeout. Requests
+ * beyond the limit are rejected immediately instead of queueing; priority requests may use a small headroom
+ * above the limit.
+ */
+public class AimdLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+    private final int priorityHeadroom;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Creates a limiter.
+     *
+     * @param initialLimit the starting limit
+     * @param minLimit the lowest the limit may shrink to
+     * @param maxLimit the highest the limit may grow to
+     * @param backoffRatio the factor applied to the limit on a failed or slow request, between 0 and 1
+     * @param timeoutNanos the latency above which a request counts as a sign of overload
+     * @param priorityHeadroom the number of extra concurrent requests allowed for priority callers
+     */
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long timeoutNanos,
+                       int priorityHeadroom) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = timeoutNanos;
+        this.priorityHeadroom = priorityHeadroom;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(initialLimit, maxLimit)));
+    }
+
+    /**
+     * Tries to start a request.
+     *
+     * @param priority whether the request may use the priority headroom
+     * @return true if the request was admitted and {@link #release(long, boolean)} must be called; otherwise, false
+     */
+    public boolean tryAcquire(boolean priority) {
+        int allowed = limit.get() + (priority ? priorityHeadroom : 0);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Completes an admitted request and adapts the limit.
+     *
+     * @param latencyNanos the time the request took
+     * @param failed whether the request failed in a way that signals overload
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        if (failed || latencyNanos > timeoutNanos) {
+            limit.updateAndGet(l -> Math.max(minLimit, (int) (l * backoffRatio)));
+        } else if (current * 2 >= limit.get()) {
+            limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the current limit
+     */
+    public int getLimit() {
+        return limit.get();
+    }
+
+    /**
+     * Returns the number of admitted requests still running.
+     *
+     * @return the in-flight count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
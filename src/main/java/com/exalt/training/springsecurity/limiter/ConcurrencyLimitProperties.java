@@ -0,0 +1,42 @@
+package com.exalt.training.springsecurity.limiter;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration properties of the per-group adaptive concurrency limits, bound from {@code app.concurrency.*}.
+ * Groups without an entry under {@code app.concurrency.groups} use the default settings.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.concurrency")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true; // whether requests are limited at all
+    private Map<LimitGroup, Group> groups = new EnumMap<>(LimitGroup.class); // per-group overrides
+
+    /**
+     * Limit settings of one endpoint group.
+     */
+    @Data
+    public static class Group {
+        private int initialLimit = 20; // starting concurrency limit
+        private int minLimit = 2; // lower bound of the limit
+        private int maxLimit = 200; // upper bound of the limit
+        private double backoffRatio = 0.9; // multiplier applied on overload
+        private Duration timeout = Duration.ofSeconds(1); // latency that counts as overload
+        private int priorityHeadroom = 5; // extra slots for CEO writes
+    }
+
+    /**
+     * Returns the settings of a group, falling back to the defaults.
+     *
+     * @param group the endpoint group
+     * @return the group settings
+     */
+    public Group forGroup(LimitGroup group) {
+        return groups.getOrDefault(group, new Group());
+    }
+}
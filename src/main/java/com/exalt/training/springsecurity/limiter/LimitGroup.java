@@ -0,0 +1,58 @@
+package com.exalt.training.springsecurity.limiter;
+
+/**
+ * Enumeration of the endpoint groups that get separate concurrency limits, so a slow database
+ * query in one group cannot exhaust the capacity of the others.
+ *
+ * <ul>
+ *     <li>AUTH: Sign-up, sign-in and token refresh.</li>
+ *     <li>PROJECT_READ: Project lookups, lists, search and suggestions (read-only methods).</li>
+ *     <li>PROJECT_WRITE: Project creation, updates, deletion and membership changes.</li>
+ *     <li>USER_ADMIN: User management, except bulk imports.</li>
+ * </ul>
+ */
+public enum LimitGroup {
+    AUTH, //authentication endpoints
+    PROJECT_READ, //project queries
+    PROJECT_WRITE, //project mutations
+    USER_ADMIN; //user management
+
+    private static final String AUTH_PREFIX = "/exalt/training/security/auth/";
+    private static final String PROJECTS_PREFIX = "/exalt/training/projects/";
+    private static final String USERS_PREFIX = "/exalt/training/users/";
+    private static final String USERS_IMPORT = "/exalt/training/users/import";
+
+    /**
+     * Classifies a request into its limit group.
+     *
+     * @param method the HTTP method
+     * @param path the request path, without context path
+     * @return the limit group, or null if the request is not limited
+     */
+    public static LimitGroup of(String method, String path) {
+        if (path.startsWith(AUTH_PREFIX)) {
+            return AUTH;
+        }
+        if (path.startsWith(PROJECTS_PREFIX)) {
+            return isWrite(method) ? PROJECT_WRITE : PROJECT_READ;
+        }
+        if (path.equals(USERS_IMPORT)) {
+            return null; // bounded by its own hashing pool; its long runs would read as overload of USER_ADMIN
+        }
+        if (path.startsWith(USERS_PREFIX)) {
+            return USER_ADMIN;
+        }
+        return null;
+    }
+
+    /**
+     * Indicates whether a request changes data, judged by its HTTP method: a user lookup is a read even though
+     * it belongs to the {@link #USER_ADMIN} group.
+     *
+     * @param method the HTTP method
+     * @return false for GET, HEAD, OPTIONS and TRACE requests
+     */
+    public static boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method) || "TRACE".equals(method));
+    }
+}
@@ -0,0 +1,42 @@
+package com.exalt.training.springsecurity.mapper;
+
+import com.exalt.training.springsecurity.dto.ProjectMemberResponse;
+import com.exalt.training.springsecurity.dto.ProjectResponse;
+import com.exalt.training.springsecurity.model.Project;
+import com.exalt.training.springsecurity.model.ProjectMember;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Maps {@link Project} entities to {@link ProjectResponse} DTOs returned by the controllers.
+ */
+@Component
+public class ProjectMapper {
+
+    /**
+     * Maps a project entity, including its members, to its response DTO.
+     *
+     * @param project the project entity
+     * @return the response DTO
+     */
+    public ProjectResponse toResponse(Project project) {
+        List<ProjectMemberResponse> members = project.getMembers().stream().map(this::toResponse).toList();
+        return new ProjectResponse(project.getId(), project.getTitle(), project.getCompany(),
+                project.getDescription(), project.getStatus(), members);
+    }
+
+    /**
+     * Maps a list of project entities to response DTOs.
+     *
+     * @param projects the project entities
+     * @return the response DTOs in the same order
+     */
+    public List<ProjectResponse> toResponses(List<Project> projects) {
+        return projects.stream().map(this::toResponse).toList();
+    }
+
+    private ProjectMemberResponse toResponse(ProjectMember member) {
+        return new ProjectMemberResponse(member.getEmail(), member.getRole());
+    }
+}
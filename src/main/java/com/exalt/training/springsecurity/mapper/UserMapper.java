@@ -0,0 +1,34 @@
+package com.exalt.training.springsecurity.mapper;
+
+import com.exalt.training.springsecurity.dto.UserResponse;
+import com.exalt.training.springsecurity.model.User;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Maps {@link User} entities to {@link UserResponse} DTOs returned by the controllers.
+ */
+@Component
+public class UserMapper {
+
+    /**
+     * Maps a user entity to its response DTO.
+     *
+     * @param user the user entity
+     * @return the response DTO
+     */
+    public UserResponse toResponse(User user) {
+        return new UserResponse(user.getId(), user.getFirstName(), user.getSecondName(), user.getEmail(), user.getRole());
+    }
+
+    /**
+     * Maps a list of user entities to response DTOs.
+     *
+     * @param users the user entities
+     * @return the response DTOs in the same order
+     */
+    public List<UserResponse> toResponses(List<User> users) {
+        return users.stream().map(this::toResponse).toList();
+    }
+}
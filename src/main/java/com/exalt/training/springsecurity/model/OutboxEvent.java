@@ -0,0 +1,42 @@
+package com.exalt.training.springsecurity.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Represents a change event waiting in the outbox until it is delivered to the downstream sink.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id; // identifier of the event, also the deduplication key for consumers
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType; // kind of entity that changed
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId; // title or email of the entity that changed
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 64)
+    private OutboxEventType eventType;
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload; // JSON document describing the change
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    @Column(name = "attempts", nullable = false)
+    private int attempts; // failed delivery attempts so far
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt; // the event is not delivered before this time
+    @Column(name = "last_error", length = 1000)
+    private String lastError; // error of the latest failed attempt
+}
@@ -0,0 +1,24 @@
+package com.exalt.training.springsecurity.model;
+
+/**
+ * Enumeration of the change events published to downstream systems through the outbox.
+ *
+ * <ul>
+ *     <li>PROJECT_STATUS_CHANGED: The status of a project changed; the aggregate is the project title.</li>
+ *     <li>USER_ROLE_CHANGED: The role of a user changed; the aggregate is the user email.</li>
+ * </ul>
+ */
+public enum OutboxEventType {
+    PROJECT_STATUS_CHANGED("project"), //ProjectServiceImpl status updates
+    USER_ROLE_CHANGED("user"); //UserDetailsServiceImpl role updates
+
+    private final String aggregateType; // kind of entity the event is about
+
+    OutboxEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+}
@@ -3,7 +3,14 @@ package com.exalt.training.springsecurity.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents a project in the system.
@@ -12,6 +19,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Data
 @Entity
+@DynamicUpdate // UPDATE statements list only the changed columns
 @Table(name="projects")
 public class Project {
     @Id
@@ -34,4 +42,9 @@ public class Project {
     private String description; // project details
     @Column(name = "status", nullable = false)
     private String status; // project status (completed, pending, etc.)
+    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50) // bounds the queries when projects are loaded without the members graph
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<ProjectMember> members = new ArrayList<>(); // users associated with the project
 }
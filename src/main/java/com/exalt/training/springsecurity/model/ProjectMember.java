@@ -0,0 +1,55 @@
+package com.exalt.training.springsecurity.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Represents the membership of a user in a project, with the role the user holds in that project.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "project_members",
+        uniqueConstraints = @UniqueConstraint(name = "project_members_project_user_key", columnNames = {"project_id", "user_id"}))
+public class ProjectMember {
+    @Id
+    @SequenceGenerator(
+            name="project_members_sequence",
+            sequenceName="project_members_sequence",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "project_members_sequence"
+    )
+    @Column(name = "id", nullable = false, updatable = false)
+    private Integer id; // identifier for the membership
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "project_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Project project; // project the user belongs to
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user; // member of the project
+    @Column(name = "role", nullable = false)
+    private ProjectRole role; // role of the user within the project
+
+    /**
+     * Returns the email of the member, which identifies the user in API responses.
+     * @return The email of the member.
+     */
+    public String getEmail() {
+        return user.getEmail();
+    }
+}
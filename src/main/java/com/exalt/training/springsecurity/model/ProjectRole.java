@@ -0,0 +1,16 @@
+package com.exalt.training.springsecurity.model;
+/**
+ * Enumeration representing the role a user holds within a single project.
+ * It is independent of the system-wide {@link Role} of the user.
+ *
+ * <ul>
+ *     <li>Owner: Accountable for the project.</li>
+ *     <li>Leader: Leads the day-to-day work on the project.</li>
+ *     <li>Member: Contributes to the project.</li>
+ * </ul>
+ */
+public enum ProjectRole {
+    Owner, //accountable for the project
+    Leader, //leads the project team
+    Member //contributes to the project
+}
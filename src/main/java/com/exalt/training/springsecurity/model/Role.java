@@ -1,4 +1,10 @@
 package com.exalt.training.springsecurity.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
 /**
  * Enumeration representing the different roles in the system.
  * Each role defines a level of authority that a user can have.
@@ -12,5 +18,16 @@ package com.exalt.training.springsecurity.model;
 public enum Role {
     CEO, //highest authority level
     TeamLeader, //moderate authority level
-    TeamMember //basic authority level
+    TeamMember; //basic authority level
+
+    private final List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(name())); // shared by every user with this role
+
+    /**
+     * Returns the authorities granted by this role, created once and shared.
+     *
+     * @return an immutable list containing the role's authority
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
 }
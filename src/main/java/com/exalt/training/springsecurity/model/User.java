@@ -4,11 +4,11 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
-import java.util.List;
 
 /**
  * Represents a user in the system with personal details and role information.
@@ -18,13 +18,17 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DynamicUpdate // UPDATE statements list only the changed columns
 @Table(name= "users")
+@BatchSize(size = 50)
 public class User implements UserDetails {
+    public static final int ID_BLOCK_SIZE = 50; // ids reserved per nextval of users_sequence (its increment, V4 migration)
+
     @Id
     @SequenceGenerator(
             name="users_sequence",
             sequenceName="users_sequence",
-            allocationSize = 1
+            allocationSize = ID_BLOCK_SIZE
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -36,8 +40,8 @@ public class User implements UserDetails {
     private String firstName; //user 1st name
     @Column(name = "second_name", nullable = false, length = 50)
     private String secondName; //user 2nd name
-    @Column(name = "email", nullable = false, unique = true, length = 100)
-    private String email;
+    @Column(name = "email", nullable = false, length = 100)
+    private String email; //unique ignoring case (users_email_lower_key index)
     @Column(name = "password", nullable = false)
     private String password; //user password
     @Column(name = "role", nullable = false)
@@ -49,7 +53,7 @@ public class User implements UserDetails {
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority(role.name()));
+        return role.getAuthorities();
     }
 
     /**
@@ -0,0 +1,89 @@
+package com.exalt.training.springsecurity.outbox;
+
+import com.exalt.training.springsecurity.model.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stand-in sink appending each event as one JSON line to a local file.
+ */
+public class FileOutboxSink implements OutboxSink, Closeable {
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock lock = new ReentrantLock();
+    private BufferedWriter writer; // opened on the first event, guarded by lock
+
+    /**
+     * Creates the sink.
+     *
+     * @param file         the file the events are appended to
+     * @param objectMapper the mapper writing the lines
+     */
+    public FileOutboxSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) {
+        lock.lock();
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+            }
+            writer.write(toJson(event));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            closeWriter();
+            throw new UncheckedIOException("Could not append the outbox event to " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closeWriter();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String toJson(OutboxEvent event) throws JsonProcessingException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("id", event.getId());
+        line.put("type", event.getEventType());
+        line.put("aggregateType", event.getAggregateType());
+        line.put("aggregateId", event.getAggregateId());
+        line.put("createdAt", event.getCreatedAt().toString());
+        line.put("payload", objectMapper.readTree(event.getPayload()));
+        return objectMapper.writeValueAsString(line);
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // the next event reopens the file
+            }
+            writer = null;
+        }
+    }
+}
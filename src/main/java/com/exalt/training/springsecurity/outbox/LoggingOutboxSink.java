@@ -0,0 +1,17 @@
+package com.exalt.training.springsecurity.outbox;
+
+import com.exalt.training.springsecurity.model.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stand-in sink writing each event to the application log.
+ */
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void deliver(OutboxEvent event) {
+        log.info("outbox_event id={} type={} aggregate={}:{} payload={}", event.getId(), event.getEventType(),
+                event.getAggregateType(), event.getAggregateId(), event.getPayload());
+    }
+}
@@ -0,0 +1,139 @@
+package com.exalt.training.springsecurity.outbox;
+
+import com.exalt.training.springsecurity.model.OutboxEvent;
+import com.exalt.training.springsecurity.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drains the outbox in batches and hands the events to the {@link OutboxSink}.
+ * Each batch is locked with {@code FOR UPDATE SKIP LOCKED} inside one transaction: delivered events are deleted,
+ * failed ones are rescheduled with exponential backoff and jitter. A crash before the commit releases the locks
+ * and the events are delivered again (at-least-once). Failed events do not block the others, so events of one
+ * entity may arrive out of order; consumers order them by id.
+ */
+@Slf4j
+public class OutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 1000; // size of the last_error column
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Timer deliveryDelay;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicReference<Instant> oldestPending = new AtomicReference<>();
+
+    /**
+     * Creates the dispatcher and its {@code app.outbox.*} meters.
+     *
+     * @param outboxEventRepository the outbox repository
+     * @param sink                  the destination of the events
+     * @param transactionManager    the transaction manager
+     * @param batchSize             the maximum number of events locked per transaction
+     * @param initialBackoff        the delay before the first retry, doubled at each further failure
+     * @param maxBackoff            the longest delay between retries
+     * @param registry              the meter registry
+     */
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, OutboxSink sink,
+                            PlatformTransactionManager transactionManager, int batchSize, Duration initialBackoff,
+                            Duration maxBackoff, MeterRegistry registry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.delivered = Counter.builder("app.outbox.delivered").description("Events accepted by the sink").register(registry);
+        this.failed = Counter.builder("app.outbox.failed").description("Failed delivery attempts").register(registry);
+        this.deliveryDelay = Timer.builder("app.outbox.delivery.delay")
+                .description("Time from the commit of a change to the delivery of its event")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("app.outbox.pending", pending, AtomicLong::get)
+                .description("Undelivered events at the last poll").register(registry);
+        Gauge.builder("app.outbox.lag", oldestPending, OutboxDispatcher::ageSeconds)
+                .description("Age in seconds of the oldest undelivered event").baseUnit("seconds").register(registry);
+    }
+
+    /**
+     * Delivers the due events, batch after batch while batches come back full, then refreshes the backlog gauges.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        try {
+            Integer locked;
+            do {
+                locked = transaction.execute(status -> dispatchBatch());
+            } while (locked != null && locked == batchSize);
+            pending.set(outboxEventRepository.count());
+            oldestPending.set(outboxEventRepository.findOldestCreatedAt().orElse(null));
+        } catch (RuntimeException e) {
+            log.warn("Outbox dispatch failed, retrying at the next poll", e);
+        }
+    }
+
+    private int dispatchBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockDueBatch(Instant.now(), batchSize);
+        List<OutboxEvent> deliveredEvents = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                sink.deliver(event);
+                deliveredEvents.add(event);
+                deliveryDelay.record(Duration.between(event.getCreatedAt(), Instant.now()));
+            } catch (RuntimeException e) {
+                reschedule(event, e);
+            }
+        }
+        outboxEventRepository.deleteAllInBatch(deliveredEvents);
+        delivered.increment(deliveredEvents.size());
+        return events.size();
+    }
+
+    private void reschedule(OutboxEvent event, RuntimeException error) {
+        int attempts = event.getAttempts() + 1;
+        Duration backoff = backoff(attempts);
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(Instant.now().plus(backoff));
+        String message = error.toString();
+        event.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        failed.increment();
+        log.warn("Outbox event {} ({}) failed {} time(s), retrying in {}s: {}", event.getId(), event.getEventType(),
+                attempts, backoff.toSeconds(), message);
+    }
+
+    private Duration backoff(int attempts) {
+        // initial * 2^(attempts - 1), capped, minus up to 20% jitter so that failed batches spread out
+        long maxMillis = maxBackoff.toMillis();
+        long millis = initialBackoff.toMillis();
+        for (int i = 1; i < attempts && millis < maxMillis; i++) {
+            millis *= 2;
+        }
+        millis = Math.min(millis, maxMillis);
+        long jitter = (long) (millis * 0.2 * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(millis - jitter);
+    }
+
+    private static double ageSeconds(AtomicReference<Instant> oldest) {
+        Instant instant = oldest.get();
+        return instant == null ? 0 : Duration.between(instant, Instant.now()).toMillis() / 1000.0;
+    }
+}
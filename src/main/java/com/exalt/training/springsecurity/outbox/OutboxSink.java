@@ -0,0 +1,19 @@
+package com.exalt.training.springsecurity.outbox;
+
+import com.exalt.training.springsecurity.model.OutboxEvent;
+
+/**
+ * Destination of the outbox events, such as a message broker or a downstream HTTP API.
+ * Delivery is at-least-once: an event may be delivered again after a failure or a crash, so consumers
+ * deduplicate by event id.
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers one event; returns only once the destination has accepted it.
+     *
+     * @param event the event, which must not be modified
+     * @throws RuntimeException if the event was not accepted; it is retried later
+     */
+    void deliver(OutboxEvent event);
+}
@@ -0,0 +1,63 @@
+package com.exalt.training.springsecurity.patch;
+
+import com.exalt.training.springsecurity.exception.InvalidPatchException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Applies JSON merge patches (RFC 7396) to request DTOs.
+ * The service fills a DTO with the current state of the entity, applies the patch to it and compares the result
+ * with the entity, so that only the changed columns are written; the DTO's validation constraints still apply.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonMergePatcher {
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Applies a merge patch to a flat DTO: members absent from the patch keep their value, members set to
+     * {@code null} are removed and other members replace the value.
+     *
+     * @param patch  the merge patch
+     * @param target the DTO holding the current state, modified in place
+     * @param fields the names of the members the patch may contain
+     * @param <T>    the DTO type
+     * @return the patched target
+     * @throws InvalidPatchException if the patch is not an object, names another member, holds a value of the
+     *                               wrong type, or leaves the target invalid
+     */
+    public <T> T apply(JsonNode patch, T target, Set<String> fields) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidPatchException("A merge patch must be a JSON object");
+        }
+        for (Iterator<String> names = patch.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (!fields.contains(name)) {
+                throw new InvalidPatchException("Field cannot be patched: " + name);
+            }
+        }
+        try {
+            objectMapper.readerForUpdating(target).readValue(patch);
+        } catch (IOException e) {
+            throw new InvalidPatchException("Invalid patch value: "
+                    + (e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage()));
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(target);
+        if (!violations.isEmpty()) {
+            throw new InvalidPatchException(violations.iterator().next().getMessage());
+        }
+        return target;
+    }
+}
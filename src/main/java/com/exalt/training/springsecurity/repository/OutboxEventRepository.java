@@ -0,0 +1,37 @@
+package com.exalt.training.springsecurity.repository;
+
+import com.exalt.training.springsecurity.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for the outbox events.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the next due events. Rows locked by another dispatcher are skipped, so several nodes can drain
+     * the outbox concurrently without delivering the same event twice. Must be called inside a transaction,
+     * which holds the locks until the events are deleted or rescheduled.
+     *
+     * @param now   the current time
+     * @param limit the maximum number of events to lock
+     * @return the due events, oldest first
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE next_attempt_at <= :now"
+            + " ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDueBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Finds the creation time of the oldest undelivered event.
+     *
+     * @return the creation time, or empty if the outbox is empty
+     */
+    @Query("select min(e.createdAt) from OutboxEvent e")
+    Optional<Instant> findOldestCreatedAt();
+}
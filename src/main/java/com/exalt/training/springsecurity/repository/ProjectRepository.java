@@ -1,22 +1,111 @@
 package com.exalt.training.springsecurity.repository;
 
 import com.exalt.training.springsecurity.model.Project;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for handling CRUD operations on Project entities.
  * Extends JpaRepository to leverage JPA's built-in methods.
+ * Methods returning projects to the API fetch the members and their users through an
+ * entity graph, so a list of projects costs a single query.
  */
 public interface ProjectRepository extends JpaRepository<Project, Integer> {
 
     /**
-     * Finds a project by its title.
+     * Weighted full-text document of a project row; must match the GIN index expression exactly.
+     */
+    String SEARCH_VECTOR = "setweight(to_tsvector('english', coalesce(title, '')), 'A')"
+            + " || setweight(to_tsvector('english', coalesce(company, '')), 'B')"
+            + " || setweight(to_tsvector('english', coalesce(description, '')), 'C')";
+
+    /**
+     * Finds a project by its title, without its members.
      *
      * @param title the title of the project
      * @return an Optional containing the found Project, or empty if not found
      */
     Optional<Project> findByTitle(String title);
 
+    /**
+     * Finds a project by its title, together with its members, for callers that return or change them.
+     *
+     * @param title the title of the project
+     * @return an Optional containing the found Project, or empty if not found
+     */
+    @EntityGraph(attributePaths = {"members", "members.user"})
+    Optional<Project> findWithMembersByTitle(String title);
+
+    /**
+     * Checks whether a project with the given title exists, without loading it.
+     *
+     * @param title the title of the project
+     * @return true if a project with this title exists
+     */
+    boolean existsByTitle(String title);
+
+    /**
+     * Retrieves all projects together with their members.
+     *
+     * @return the list of all projects
+     */
+    @Override
+    @EntityGraph(attributePaths = {"members", "members.user"})
+    List<Project> findAll();
+
+    /**
+     * Retrieves all projects without their members, for callers that only read the project columns,
+     * such as the in-memory search index.
+     *
+     * @return the list of all projects, with their members left unloaded
+     */
+    @Query("select p from Project p")
+    List<Project> findAllWithoutMembers();
+
+    /**
+     * Retrieves the projects with the given ids together with their members.
+     *
+     * @param ids the project ids
+     * @return the found projects, in no particular order
+     */
+    @Override
+    @EntityGraph(attributePaths = {"members", "members.user"})
+    List<Project> findAllById(Iterable<Integer> ids);
+
+    /**
+     * Retrieves the projects the user with the given email is a member of, together with their members.
+     *
+     * @param email the email of the member
+     * @return the list of the user's projects
+     */
+    @EntityGraph(attributePaths = {"members", "members.user"})
+    @Query("select p from Project p where exists "
+            + "(select m from ProjectMember m where m.project = p and lower(m.user.email) = lower(:email))")
+    List<Project> findAllByMemberEmail(@Param("email") String email);
+
+    /**
+     * Retrieves the titles of all projects without loading the entities.
+     *
+     * @return the list of all project titles
+     */
+    @Query("select p.title from Project p")
+    List<String> findAllTitles();
+
+    /**
+     * Searches projects with PostgreSQL full-text search, best match first.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of projects to return
+     * @return the matching projects ordered by descending rank
+     */
+    @Query(value = "SELECT * FROM projects WHERE (" + SEARCH_VECTOR + ") @@ plainto_tsquery('english', :query)"
+            + " ORDER BY ts_rank((" + SEARCH_VECTOR + "), plainto_tsquery('english', :query)) DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Project> searchByText(@Param("query") String query, @Param("limit") int limit);
+
 }
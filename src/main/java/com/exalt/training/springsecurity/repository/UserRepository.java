@@ -1,10 +1,16 @@
 package com.exalt.training.springsecurity.repository;
 
+import com.exalt.training.springsecurity.exception.EmailAlreadyUsedException;
 import com.exalt.training.springsecurity.model.Role;
 import com.exalt.training.springsecurity.model.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,20 +19,55 @@ import java.util.Optional;
  */
 @Repository
 public interface UserRepository extends JpaRepository<User,Long> {
+    String EMAIL_CONSTRAINT = "users_email_lower_key"; // unique index on lower(email)
 
     /**
-     * Finds a user by their email.
+     * Inserts a new user and flushes immediately, so that a duplicate email surfaces here rather than at commit.
+     * Uniqueness is left to the {@code users_email_lower_key} index instead of a prior lookup: one round trip,
+     * and no window in which two concurrent sign-ups of the same email both pass the check.
+     * The current transaction is rolled back when the email is taken.
+     *
+     * @param user the new user, without id.
+     * @return the saved user.
+     * @throws EmailAlreadyUsedException if a user with the same email, ignoring case, already exists.
+     */
+    default User insert(User user) {
+        try {
+            return saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof ConstraintViolationException violation
+                        && EMAIL_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                    throw new EmailAlreadyUsedException("Email is already used", e);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Finds a user by their email, ignoring case.
+     * The comparison on {@code lower(email)} is served by the {@code users_email_lower_key} index.
      *
      * @param email the email address of the user to find.
      * @return an {@link Optional} containing the found {@link User} if present, or {@link Optional#empty()} if not.
      */
-    Optional<User> findByEmail(String email);
+    @Query("select u from User u where lower(u.email) = lower(:email)")
+    Optional<User> findByEmail(@Param("email") String email);
+
+    /**
+     * Checks whether any user has the given role.
+     *
+     * @param role the role to look for.
+     * @return true if at least one user has the role; otherwise, false.
+     */
+    boolean existsByRole(Role role);
 
     /**
-     * Finds a user by their role.
+     * Retrieves the emails of all users without loading the entities.
      *
-     * @param role the role of the user to find.
-     * @return the {@link User} with the specified role.
+     * @return the list of all user emails
      */
-    User findByRole(Role role);
+    @Query("select u.email from User u")
+    List<String> findAllEmails();
 }
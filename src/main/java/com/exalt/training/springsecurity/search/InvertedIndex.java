@@ -0,0 +1,142 @@
+package com.exalt.training.springsecurity.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index mapping terms to the documents that contain them.
+ * Each posting carries a weight (term frequency multiplied by the weight of the field it came from),
+ * and queries are ranked by the sum of posting weights scaled by inverse document frequency.
+ * Reads run concurrently; writes take an exclusive lock.
+ */
+public class InvertedIndex {
+
+    private final Map<String, Map<Integer, Float>> postings = new HashMap<>(); // term -> (document id -> weight)
+    private final Map<Integer, Map<String, Float>> documents = new HashMap<>(); // document id -> its weighted terms
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or replaces a document in the index.
+     *
+     * @param documentId the document identifier
+     * @param terms      the weighted terms of the document
+     */
+    public void put(int documentId, Map<String, Float> terms) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(documentId);
+            documents.put(documentId, terms);
+            terms.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(documentId, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document from the index if present.
+     *
+     * @param documentId the document identifier
+     */
+    public void remove(int documentId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every document from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed documents.
+     *
+     * @return the document count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents matching any of the query terms, best match first.
+     *
+     * @param queryTerms the normalized query terms
+     * @param limit      the maximum number of document ids to return
+     * @return the matching document ids ordered by descending relevance
+     */
+    public List<Integer> search(List<String> queryTerms, int limit) {
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Map<Integer, Float> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            for (String term : queryTerms) {
+                Map<Integer, Float> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                float idf = (float) Math.log(1.0 + (double) documentCount / termPostings.size());
+                termPostings.forEach((documentId, weight) -> scores.merge(documentId, weight * idf, Float::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return topDocuments(scores, limit);
+    }
+
+    private void removeInternal(int documentId) {
+        Map<String, Float> previous = documents.remove(documentId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.keySet()) {
+            Map<Integer, Float> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(documentId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static List<Integer> topDocuments(Map<Integer, Float> scores, int limit) {
+        PriorityQueue<Map.Entry<Integer, Float>> best = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Integer> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().getKey());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+}
@@ -0,0 +1,216 @@
+package com.exalt.training.springsecurity.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compact case-insensitive prefix index over a set of strings.
+ * Values are kept in a sorted array snapshot that readers access without locking; a prefix lookup is a
+ * binary search followed by a scan of at most {@code limit} neighbours. Values are ordered by their lower-cased key,
+ * then by the original string, so values differing only in case are distinct entries. Writers copy the array under a lock
+ * and publish the new snapshot, which suits the read-heavy autocomplete workload.
+ */
+public class PrefixIndex {
+
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new String[0]); // current immutable view
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Lower-cased keys and the original values at the same positions, sorted by key then value.
+     */
+    private record Snapshot(String[] keys, String[] values) {
+    }
+
+    /**
+     * Replaces the whole content of the index.
+     *
+     * @param values the values to index
+     */
+    public void replaceAll(Collection<String> values) {
+        String[][] entries = values.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(value -> new String[]{normalize(value), value})
+                .sorted(Comparator.<String[], String>comparing(entry -> entry[0]).thenComparing(entry -> entry[1]))
+                .toArray(String[][]::new);
+        String[] keys = new String[entries.length];
+        String[] sortedValues = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = entries[i][0];
+            sortedValues[i] = entries[i][1];
+        }
+        writeLock.lock();
+        try {
+            snapshot = new Snapshot(keys, sortedValues);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a value to the index if not already present.
+     *
+     * @param value the value to add
+     */
+    public void add(String value) {
+        if (value == null) {
+            return;
+        }
+        String key = normalize(value);
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            int position = find(current, key, value);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            snapshot = new Snapshot(insert(current.keys(), insertAt, key), insert(current.values(), insertAt, value));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a value from the index if present; values differing only in case are kept.
+     *
+     * @param value the value to remove
+     */
+    public void remove(String value) {
+        if (value == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            int position = find(current, normalize(value), value);
+            if (position >= 0) {
+                snapshot = new Snapshot(delete(current.keys(), position), delete(current.values(), position));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every value equal to the given one ignoring case.
+     *
+     * @param value the value to remove, in any case
+     */
+    public void removeIgnoringCase(String value) {
+        if (value == null) {
+            return;
+        }
+        String key = normalize(value);
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            int start = lowerBound(current.keys(), key);
+            int end = start;
+            while (end < current.keys().length && current.keys()[end].equals(key)) {
+                end++;
+            }
+            if (end > start) {
+                snapshot = new Snapshot(delete(current.keys(), start, end), delete(current.values(), start, end));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the first values, in case-insensitive alphabetical order, that start with the given prefix.
+     *
+     * @param prefix the prefix to match, case-insensitively
+     * @param limit  the maximum number of values to return
+     * @return the matching values
+     */
+    public List<String> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String key = normalize(prefix == null ? "" : prefix);
+        int start = lowerBound(current.keys(), key);
+        List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        for (int i = start; i < current.keys().length && matches.size() < limit; i++) {
+            if (!current.keys()[i].startsWith(key)) {
+                break;
+            }
+            matches.add(current.values()[i]);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the number of indexed values.
+     *
+     * @return the value count
+     */
+    public int size() {
+        return snapshot.keys().length;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds a value among the entries sharing its key.
+     *
+     * @return the position of the value, or {@code -(insertion point) - 1} if absent
+     */
+    private static int find(Snapshot current, String key, String value) {
+        String[] keys = current.keys();
+        int i = lowerBound(keys, key);
+        while (i < keys.length && keys[i].equals(key)) {
+            int order = current.values()[i].compareTo(value);
+            if (order == 0) {
+                return i;
+            }
+            if (order > 0) {
+                break;
+            }
+            i++;
+        }
+        return -i - 1;
+    }
+
+    /**
+     * Returns the position of the first key greater than or equal to the given one.
+     */
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String[] insert(String[] array, int index, String element) {
+        String[] copy = new String[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = element;
+        System.arraycopy(array, index, copy, index + 1, array.length - index);
+        return copy;
+    }
+
+    private static String[] delete(String[] array, int index) {
+        return delete(array, index, index + 1);
+    }
+
+    private static String[] delete(String[] array, int from, int to) {
+        String[] copy = new String[array.length - (to - from)];
+        System.arraycopy(array, 0, copy, 0, from);
+        System.arraycopy(array, to, copy, from, array.length - to);
+        return copy;
+    }
+}
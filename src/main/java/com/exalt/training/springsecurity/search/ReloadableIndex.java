@@ -0,0 +1,124 @@
+package com.exalt.training.springsecurity.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Holder of an in-memory index that is loaded from the database while writes keep being applied.
+ * A reload builds a new index aside; the updates applied while it loads are recorded and replayed on the new
+ * index before it replaces the current one, so that a write committed during the load is never lost. Updates
+ * must be idempotent, e.g. puts and removals by key.
+ *
+ * @param <T> the index type
+ */
+@Slf4j
+public class ReloadableIndex<T> {
+
+    private volatile T current; // index read by the queries
+    private List<Consumer<T>> journal; // updates applied during a reload, guarded by updateLock
+    private final ReentrantLock updateLock = new ReentrantLock(); // orders updates and the swap of a reload
+    private final ReentrantLock reloadLock = new ReentrantLock(); // one reload at a time
+    private final AtomicBoolean reloadQueued = new AtomicBoolean(); // a background reload has not started loading yet
+
+    /**
+     * Creates the holder.
+     *
+     * @param initial the index used until the first reload
+     */
+    public ReloadableIndex(T initial) {
+        this.current = initial;
+    }
+
+    /**
+     * Returns the current index, for reads.
+     *
+     * @return the current index
+     */
+    public T get() {
+        return current;
+    }
+
+    /**
+     * Applies an update to the current index, and to the index being loaded if a reload is running.
+     *
+     * @param update the update
+     */
+    public void update(Consumer<T> update) {
+        updateLock.lock();
+        try {
+            update.accept(current);
+            if (journal != null) {
+                journal.add(update);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Loads a new index and replaces the current one with it.
+     *
+     * @param loader builds the new index from the database
+     */
+    public void reload(Supplier<T> loader) {
+        reloadLock.lock();
+        try {
+            setJournal(new ArrayList<>());
+            T loaded;
+            try {
+                loaded = loader.get();
+            } catch (RuntimeException e) {
+                setJournal(null);
+                throw e;
+            }
+            updateLock.lock();
+            try {
+                journal.forEach(update -> update.accept(loaded));
+                current = loaded;
+                journal = null;
+            } finally {
+                updateLock.unlock();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void setJournal(List<Consumer<T>> journal) {
+        updateLock.lock();
+        try {
+            this.journal = journal;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the index on a background thread. Requests made before the queued reload starts share it, so that a
+     * burst of invalidations costs one load.
+     *
+     * @param loader builds the new index from the database
+     */
+    public void reloadInBackground(Supplier<T> loader) {
+        if (!reloadQueued.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("index-reload").start(() -> {
+            reloadLock.lock(); // wait for a running reload, which may have read the database before the request
+            try {
+                reloadQueued.set(false);
+                reload(loader);
+            } catch (RuntimeException e) {
+                log.error("Could not reload the index", e);
+            } finally {
+                reloadLock.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.exalt.training.springsecurity.service;
+
+import com.exalt.training.springsecurity.audit.AuditAction;
+import com.exalt.training.springsecurity.dto.AuditEntry;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Service interface for the audit log of security and admin actions.
+ */
+public interface AuditService {
+
+    /**
+     * Records an action performed by the current user. Inside a transaction, the action is recorded only once the
+     * transaction commits. Never waits for the database.
+     *
+     * @param action  the action
+     * @param target  the email or title the action applied to, or null
+     * @param details free-form details, or null
+     */
+    void record(AuditAction action, String target, String details);
+
+    /**
+     * Records an action performed by the given actor, e.g. a sign-in attempt. Never waits for the database.
+     *
+     * @param action  the action
+     * @param actor   the user who acted
+     * @param target  the email or title the action applied to, or null
+     * @param details free-form details, or null
+     */
+    void recordAs(AuditAction action, String actor, String target, String details);
+
+    /**
+     * Finds the stored events of a time range, newest first.
+     *
+     * @param from   the start of the range, inclusive
+     * @param to     the end of the range, exclusive
+     * @param action the action to keep, or null for all
+     * @param actor  the actor to keep, or null for all
+     * @param limit  the maximum number of events to return
+     * @return the events
+     */
+    List<AuditEntry> find(Instant from, Instant to, AuditAction action, String actor, int limit);
+}
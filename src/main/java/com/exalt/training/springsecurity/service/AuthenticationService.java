@@ -16,6 +16,7 @@ public interface AuthenticationService {
      *
      * @param signUpRequest the sign-up request data.
      * @return the signed-up user.
+     * @throws com.exalt.training.springsecurity.exception.EmailAlreadyUsedException if the email is already used.
      */
     User signup(SignUpRequest signUpRequest);
     /**
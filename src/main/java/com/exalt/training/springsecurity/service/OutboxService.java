@@ -0,0 +1,22 @@
+package com.exalt.training.springsecurity.service;
+
+import com.exalt.training.springsecurity.model.OutboxEventType;
+
+import java.util.Map;
+
+/**
+ * Service interface for recording change events in the transactional outbox.
+ */
+public interface OutboxService {
+
+    /**
+     * Records an event in the transaction of the change it describes; it is delivered only if that
+     * transaction commits.
+     *
+     * @param type        the event type
+     * @param aggregateId the title or email of the entity that changed
+     * @param payload     the event attributes, serialized as JSON
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active
+     */
+    void record(OutboxEventType type, String aggregateId, Map<String, ?> payload);
+}
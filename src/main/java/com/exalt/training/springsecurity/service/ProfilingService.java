@@ -0,0 +1,43 @@
+package com.exalt.training.springsecurity.service;
+
+import com.exalt.training.springsecurity.dto.ProfilingStatus;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Service interface for on-demand Java Flight Recorder profiling of the running application.
+ */
+public interface ProfilingService {
+
+    /**
+     * Starts recording the application for the given duration, in the background.
+     * Returns at once; the summary is available from {@link #getStatus(String)} when the recording is over.
+     *
+     * @param profile  the JFR settings to use, {@code default} or {@code profile}
+     * @param duration the recording duration
+     * @return the status of the new recording, {@link ProfilingStatus.State#RUNNING}
+     * @throws IllegalArgumentException if the profile is not allowed or the duration is out of bounds
+     * @throws com.exalt.training.springsecurity.exception.ProfilingOverloadedException if the CPU load is too high
+     * @throws com.exalt.training.springsecurity.exception.ProfilingUnavailableException if a recording cannot start now
+     */
+    ProfilingStatus start(String profile, Duration duration);
+
+    /**
+     * Returns the status of the latest recording, with its summary once it is finished.
+     *
+     * @param recordingId the identifier returned by {@link #start(String, Duration)}
+     * @return the status of the recording
+     * @throws IllegalArgumentException if the recording does not exist or has been replaced by a newer one
+     */
+    ProfilingStatus getStatus(String recordingId);
+
+    /**
+     * Returns the file of a finished recording.
+     *
+     * @param recordingId the identifier returned by {@link #start(String, Duration)}
+     * @return the path of the {@code .jfr} file
+     * @throws IllegalArgumentException if the recording is not finished, does not exist or has been replaced by a newer one
+     */
+    Path getRecording(String recordingId);
+}
@@ -0,0 +1,35 @@
+package com.exalt.training.springsecurity.service;
+
+import com.exalt.training.springsecurity.model.Project;
+
+import java.util.List;
+
+/**
+ * Service interface for full-text search over project title, company and description.
+ * Implementations are selected with the {@code app.search.mode} property.
+ */
+public interface ProjectSearchService {
+
+    /**
+     * Searches projects matching the given free-text query.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of projects to return
+     * @return the matching projects ordered by descending relevance
+     */
+    List<Project> search(String query, int limit);
+
+    /**
+     * Adds or refreshes a project in the search index. Inside a transaction, the change applies once it commits.
+     *
+     * @param project the saved project
+     */
+    void index(Project project);
+
+    /**
+     * Removes a project from the search index. Inside a transaction, the change applies once it commits.
+     *
+     * @param project the deleted project
+     */
+    void remove(Project project);
+}
@@ -2,6 +2,9 @@ package com.exalt.training.springsecurity.service;
 
 import com.exalt.training.springsecurity.dto.ProjectDTO;
 import com.exalt.training.springsecurity.model.Project;
+import com.exalt.training.springsecurity.model.ProjectRole;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.List;
 
@@ -29,6 +32,19 @@ public interface ProjectService {
      */
     Project updateProject(String title, ProjectDTO projectDTO);
 
+    /**
+     * Applies a JSON merge patch to an existing project. Only the changed columns are written, and a patch that
+     * changes nothing writes nothing.
+     *
+     * @param title the title of the project to patch
+     * @param patch the merge patch over the fields of {@link ProjectDTO}
+     * @return the patched Project entity
+     * @throws IllegalArgumentException if the project is not found
+     * @throws com.exalt.training.springsecurity.exception.InvalidPatchException if the patch cannot be applied
+     * @throws com.exalt.training.springsecurity.exception.ProjectTitleAlreadyExistsException if the new title is taken
+     */
+    Project patchProject(String title, JsonNode patch);
+
     /**
      * Updates the status of an existing project based on its title.
      *
@@ -62,4 +78,56 @@ public interface ProjectService {
      * @throws IllegalArgumentException if the project is not found
      */
     void deleteProjectByTitle(String title);
+
+    /**
+     * Searches projects by title, company and description.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of projects to return
+     * @return the matching Project entities ordered by descending relevance
+     * @throws IllegalArgumentException if the query is blank
+     */
+    List<Project> searchProjects(String query, int limit);
+
+    /**
+     * Suggests project titles starting with the given prefix.
+     *
+     * @param prefix the case-insensitive title prefix
+     * @param limit the maximum number of titles to return
+     * @return the matching titles in alphabetical order
+     */
+    List<String> suggestTitles(String prefix, int limit);
+
+    /**
+     * Retrieves the projects the given user is a member of.
+     *
+     * @param email the email of the member
+     * @return a list of the user's Project entities
+     */
+    List<Project> getProjectsForMember(String email);
+
+    /**
+     * Adds a user to a project, or changes the user's role if already a member.
+     *
+     * @param title the title of the project
+     * @param email the email of the user
+     * @param role the role of the user within the project
+     * @param actor the user making the change, who must be the CEO or an owner or leader of the project
+     * @return the updated Project entity
+     * @throws IllegalArgumentException if the project or the user is not found
+     * @throws com.exalt.training.springsecurity.exception.ProjectAccessDeniedException if the actor may not change the members
+     */
+    Project addMember(String title, String email, ProjectRole role, UserDetails actor);
+
+    /**
+     * Removes a user from a project.
+     *
+     * @param title the title of the project
+     * @param email the email of the user
+     * @param actor the user making the change, who must be the CEO or an owner or leader of the project
+     * @return the updated Project entity
+     * @throws IllegalArgumentException if the project is not found or the user is not a member
+     * @throws com.exalt.training.springsecurity.exception.ProjectAccessDeniedException if the actor may not change the members
+     */
+    Project removeMember(String title, String email, UserDetails actor);
 }
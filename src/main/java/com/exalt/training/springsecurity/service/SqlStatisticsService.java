@@ -0,0 +1,32 @@
+package com.exalt.training.springsecurity.service;
+
+import com.exalt.training.springsecurity.dto.SqlStatementStats;
+
+import java.util.List;
+
+/**
+ * Service interface for the aggregated statistics of the SQL statements sent to the database.
+ */
+public interface SqlStatisticsService {
+
+    /**
+     * Records one execution of a statement.
+     *
+     * @param sql           the statement text
+     * @param elapsedMillis the execution time in milliseconds
+     */
+    void record(String sql, long elapsedMillis);
+
+    /**
+     * Returns the statements with the highest cumulative execution time.
+     *
+     * @param limit the maximum number of statements to return
+     * @return the statistics ordered by descending total time
+     */
+    List<SqlStatementStats> getTopStatements(int limit);
+
+    /**
+     * Clears all recorded statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,57 @@
+package com.exalt.training.springsecurity.service;
+
+import java.util.List;
+
+/**
+ * Service interface for prefix autocomplete over project titles and user emails.
+ * The write methods must be called by the services that create, rename or delete those values; inside a transaction,
+ * they apply once it commits.
+ */
+public interface SuggestionService {
+
+    /**
+     * Suggests project titles starting with the given prefix.
+     *
+     * @param prefix the case-insensitive prefix
+     * @param limit  the maximum number of titles to return
+     * @return the matching titles in alphabetical order
+     */
+    List<String> suggestProjectTitles(String prefix, int limit);
+
+    /**
+     * Suggests user emails starting with the given prefix.
+     *
+     * @param prefix the case-insensitive prefix
+     * @param limit  the maximum number of emails to return
+     * @return the matching emails in alphabetical order
+     */
+    List<String> suggestUserEmails(String prefix, int limit);
+
+    /**
+     * Registers a project title.
+     *
+     * @param title the title of a created or renamed project
+     */
+    void addProjectTitle(String title);
+
+    /**
+     * Unregisters a project title.
+     *
+     * @param title the title of a deleted or renamed project
+     */
+    void removeProjectTitle(String title);
+
+    /**
+     * Registers a user email.
+     *
+     * @param email the email of a created user
+     */
+    void addUserEmail(String email);
+
+    /**
+     * Unregisters a user email.
+     *
+     * @param email the email of a deleted user
+     */
+    void removeUserEmail(String email);
+}
@@ -3,6 +3,7 @@ package com.exalt.training.springsecurity.service;
 import com.exalt.training.springsecurity.dto.UserDTO;
 import com.exalt.training.springsecurity.model.Role;
 import com.exalt.training.springsecurity.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.List;
@@ -14,6 +15,7 @@ public interface UserDetailsService {
      *
      * @param userDTO the data for the new user
      * @return the created user
+     * @throws com.exalt.training.springsecurity.exception.EmailAlreadyUsedException if the email is already used
      */
     User createUser(UserDTO userDTO);
 
@@ -26,6 +28,18 @@ public interface UserDetailsService {
      */
     User updateUser(String email, UserDTO userDTO);
 
+    /**
+     * Applies a JSON merge patch to an existing user. Only the changed columns are written, and a patch that
+     * changes nothing writes nothing.
+     *
+     * @param email the email of the user to patch
+     * @param patch the merge patch over firstName, lastName, password and role
+     * @return the patched user
+     * @throws UsernameNotFoundException if the user is not found
+     * @throws com.exalt.training.springsecurity.exception.InvalidPatchException if the patch cannot be applied
+     */
+    User patchUser(String email, JsonNode patch);
+
     /**
      * Deletes a user identified by the email.
      *
@@ -57,4 +71,13 @@ public interface UserDetailsService {
      * @throws UsernameNotFoundException if the user with the specified email is not found
      */
     User updateUserRole(String email, Role newRole);
+
+    /**
+     * Suggests user emails starting with the given prefix.
+     *
+     * @param prefix the case-insensitive email prefix
+     * @param limit the maximum number of emails to return
+     * @return the matching emails in alphabetical order
+     */
+    List<String> suggestEmails(String prefix, int limit);
 }
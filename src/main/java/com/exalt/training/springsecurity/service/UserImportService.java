@@ -0,0 +1,31 @@
+package com.exalt.training.springsecurity.service;
+
+import com.exalt.training.springsecurity.dto.UserImportResult;
+import com.exalt.training.springsecurity.dto.UserImportSummary;
+import com.exalt.training.springsecurity.importing.UserImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Service interface for creating users in bulk.
+ */
+public interface UserImportService {
+
+    /**
+     * Imports the users of an input, chunk after chunk. Each chunk is committed on its own, so rows of committed
+     * chunks stay imported if a later chunk fails or the import is interrupted; rows already present are reported
+     * as duplicates when the input is imported again.
+     *
+     * @param input   the input, UTF-8 encoded
+     * @param format  the format of the input
+     * @param results receives the results of each chunk, in input order, once the chunk is committed
+     * @return the counts of the rows by outcome
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if the input as a whole is malformed
+     */
+    UserImportSummary importUsers(InputStream input, UserImportFormat format, Consumer<List<UserImportResult>> results)
+            throws IOException;
+}
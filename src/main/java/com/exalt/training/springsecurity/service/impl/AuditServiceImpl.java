@@ -0,0 +1,284 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.audit.AuditAction;
+import com.exalt.training.springsecurity.audit.AuditEvent;
+import com.exalt.training.springsecurity.audit.MpscRingBuffer;
+import com.exalt.training.springsecurity.audit.OverflowPolicy;
+import com.exalt.training.springsecurity.dto.AuditEntry;
+import com.exalt.training.springsecurity.service.AuditService;
+import com.exalt.training.springsecurity.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Implementation of the AuditService interface with asynchronous, batched writes.
+ * Request threads only put events into a bounded lock-free ring buffer; when it is full, the configured
+ * {@link OverflowPolicy} applies instead of waiting. A single writer thread drains the buffer and appends the events
+ * to {@code audit_events} with one multi-row insert per batch, retrying a failed batch a few times. A batch rejected
+ * for its data is written again row by row, so that one bad event does not lose the others.
+ */
+@Service
+@Slf4j
+public class AuditServiceImpl implements AuditService, SmartLifecycle {
+    private static final String INSERT = "INSERT INTO audit_events (occurred_at, action, actor, target, details) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?)";
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 200;
+    private static final int MAX_ACTOR_LENGTH = 100; // column sizes of audit_events
+    private static final int MAX_TARGET_LENGTH = 255;
+    private static final int MAX_DETAILS_LENGTH = 500;
+    private static final String UNKNOWN_ACTOR = "unknown"; // actor of events recorded without one, the column is NOT NULL
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long flushIntervalNanos; // longest an event waits for its batch to fill up
+    private final String fullBatchInsert;
+    private final Counter written;
+    private final Counter overflowed;
+    private final Counter failed;
+    private final Timer writeTimer;
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Creates the service; the writer thread starts with the application context.
+     *
+     * @param jdbcTemplate   the template used by the writer and the queries
+     * @param capacity       the number of buffered events, rounded up to a power of two
+     * @param batchSize      the maximum number of rows per insert
+     * @param flushInterval  the longest an event waits for its batch to fill up
+     * @param overflowPolicy what happens to an event when the buffer is full
+     * @param registry       the meter registry
+     */
+    public AuditServiceImpl(JdbcTemplate jdbcTemplate,
+                            @Value("${app.audit.buffer-capacity:8192}") int capacity,
+                            @Value("${app.audit.batch-size:200}") int batchSize,
+                            @Value("${app.audit.flush-interval:200ms}") Duration flushInterval,
+                            @Value("${app.audit.overflow-policy:LOG}") OverflowPolicy overflowPolicy,
+                            MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.fullBatchInsert = insertOf(batchSize);
+        this.written = counter(registry, "written");
+        this.overflowed = counter(registry, "overflow");
+        this.failed = counter(registry, "write_failure");
+        this.writeTimer = Timer.builder("app.audit.write").description("Multi-row inserts of audit events").register(registry);
+        Gauge.builder("app.audit.buffer.size", buffer, MpscRingBuffer::size)
+                .description("Audit events waiting for the writer").register(registry);
+    }
+
+    @Override
+    public void record(AuditAction action, String target, String details) {
+        recordAs(action, currentActor(), target, details);
+    }
+
+    @Override
+    public void recordAs(AuditAction action, String actor, String target, String details) {
+        String knownActor = actor == null || actor.isBlank() ? UNKNOWN_ACTOR : actor;
+        AuditEvent event = new AuditEvent(Instant.now(), action, truncate(knownActor, MAX_ACTOR_LENGTH),
+                truncate(target, MAX_TARGET_LENGTH), truncate(details, MAX_DETAILS_LENGTH));
+        AfterCommit.run(() -> enqueue(event));
+    }
+
+    @Override
+    public List<AuditEntry> find(Instant from, Instant to, AuditAction action, String actor, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, occurred_at, action, actor, target, details FROM audit_events"
+                + " WHERE occurred_at >= ? AND occurred_at < ?");
+        List<Object> args = new ArrayList<>(List.of(utc(from), utc(to)));
+        if (action != null) {
+            sql.append(" AND action = ?");
+            args.add(action.name());
+        }
+        if (actor != null) {
+            sql.append(" AND actor = ?");
+            args.add(actor);
+        }
+        sql.append(" ORDER BY occurred_at DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new AuditEntry(rs.getLong("id"),
+                rs.getObject("occurred_at", OffsetDateTime.class).toInstant(), rs.getString("action"),
+                rs.getString("actor"), rs.getString("target"), rs.getString("details")), args.toArray());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().daemon().name("audit-writer").start(this::writeLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(Duration.ofSeconds(5).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server, so that events of the requests completing during a graceful shutdown are written.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            overflowed.increment();
+            if (overflowPolicy == OverflowPolicy.LOG) {
+                log.warn("audit_overflow occurred_at={} action={} actor={} target={} details={}", event.occurredAt(),
+                        event.action(), event.actor(), event.target(), event.details());
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            buffer.drainTo(batch, batchSize);
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            if (!running && (batch.isEmpty() || buffer.size() == 0)) {
+                return;
+            }
+            if (batch.size() < batchSize && running) {
+                LockSupport.parkNanos(flushIntervalNanos); // let the next batch fill up
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        switch (insert(batch, MAX_WRITE_ATTEMPTS)) {
+            case WRITTEN -> written.increment(batch.size());
+            case UNAVAILABLE -> batch.forEach(this::lost);
+            case REJECTED -> {
+                if (batch.size() == 1) {
+                    lost(batch.get(0));
+                    return;
+                }
+                log.warn("A batch of {} audit events was rejected, writing them one by one", batch.size());
+                for (AuditEvent event : batch) {
+                    if (insert(List.of(event), 1) == WriteOutcome.WRITTEN) {
+                        written.increment();
+                    } else {
+                        lost(event);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts the events with one statement, retrying transient failures.
+     *
+     * @param events   the events
+     * @param attempts the maximum number of attempts
+     * @return whether the events were written, rejected for their data, or could not reach the database
+     */
+    private WriteOutcome insert(List<AuditEvent> events, int attempts) {
+        String sql = events.size() == batchSize ? fullBatchInsert : insertOf(events.size());
+        Object[] args = new Object[events.size() * 5];
+        int i = 0;
+        for (AuditEvent event : events) {
+            args[i++] = utc(event.occurredAt());
+            args[i++] = event.action().name();
+            args[i++] = event.actor();
+            args[i++] = event.target();
+            args[i++] = event.details();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeTimer.record(() -> jdbcTemplate.update(sql, args));
+                return WriteOutcome.WRITTEN;
+            } catch (NonTransientDataAccessException e) {
+                log.error("Could not write {} audit events", events.size(), e); // the same rows would fail again
+                return WriteOutcome.REJECTED;
+            } catch (DataAccessException e) {
+                if (attempt >= attempts) {
+                    log.error("Could not write {} audit events after {} attempts", events.size(), attempt, e);
+                    return WriteOutcome.UNAVAILABLE;
+                }
+                LockSupport.parkNanos(Duration.ofMillis(RETRY_DELAY_MILLIS * attempt).toNanos());
+            }
+        }
+    }
+
+    private void lost(AuditEvent event) {
+        failed.increment();
+        if (overflowPolicy == OverflowPolicy.LOG) {
+            log.warn("audit_write_failure occurred_at={} action={} actor={} target={} details={}",
+                    event.occurredAt(), event.action(), event.actor(), event.target(), event.details());
+        }
+    }
+
+    private static String insertOf(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + rows * (ROW.length() + 2)).append(INSERT);
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "" : ", ").append(ROW);
+        }
+        return sql.toString();
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return "anonymous";
+        }
+        return authentication.getName();
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("app.audit.events").tag("outcome", outcome).register(registry);
+    }
+
+    private enum WriteOutcome {
+        WRITTEN, // the rows are stored
+        REJECTED, // the rows were refused, e.g. by a constraint, and retrying them together cannot succeed
+        UNAVAILABLE // the database could not be reached within the attempts
+    }
+}
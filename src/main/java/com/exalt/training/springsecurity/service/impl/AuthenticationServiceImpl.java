@@ -1,23 +1,31 @@
 package com.exalt.training.springsecurity.service.impl;
 
+import com.exalt.training.springsecurity.audit.AuditAction;
 import com.exalt.training.springsecurity.dto.JwtAuthenticationResponse;
 import com.exalt.training.springsecurity.dto.RefreshTokenRequest;
 import com.exalt.training.springsecurity.dto.SignUpRequest;
 import com.exalt.training.springsecurity.dto.SigninRequest;
 import com.exalt.training.springsecurity.exception.EmailAlreadyUsedException;
+import com.exalt.training.springsecurity.invalidation.CacheRegion;
+import com.exalt.training.springsecurity.invalidation.InvalidationBus;
 import com.exalt.training.springsecurity.model.Role;
 import com.exalt.training.springsecurity.model.User;
 import com.exalt.training.springsecurity.repository.UserRepository;
+import com.exalt.training.springsecurity.service.AuditService;
 import com.exalt.training.springsecurity.service.AuthenticationService;
 import com.exalt.training.springsecurity.service.JWTService;
+import com.exalt.training.springsecurity.service.SuggestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
+import java.util.Locale;
 
 /**
  * Implementation of the AuthenticationService interface, providing authentication-related operations.
@@ -29,24 +37,30 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JWTService jwtService;
+    private final SuggestionService suggestionService;
+    private final InvalidationBus invalidationBus;
+    private final AuditService auditService;
 
     /**
      * Handles user sign-up based on the provided sign-up request.
+     * The user is inserted directly; a duplicate email is detected by the unique index.
      *
      * @param signUpRequest the sign-up request data.
      * @return the signed-up user.
+     * @throws EmailAlreadyUsedException if the email is already used.
      */
+    @Transactional
     public User signup( SignUpRequest signUpRequest){
-        if (userRepository.findByEmail(signUpRequest.getEmail()).isPresent()) {
-            throw new EmailAlreadyUsedException("Email is already used");
-        }
         User user= new User();
         user.setEmail(signUpRequest.getEmail());
         user.setFirstName(signUpRequest.getFirstName());
         user.setSecondName(signUpRequest.getLastName());
         user.setRole(Role.TeamMember);
         user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
-        return userRepository.save(user);
+        User saved = userRepository.insert(user);
+        suggestionService.addUserEmail(saved.getEmail());
+        invalidationBus.publish(CacheRegion.USER, saved.getEmail().toLowerCase(Locale.ROOT));
+        return saved;
     }
 
     /**
@@ -57,12 +71,18 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      * @throws IllegalArgumentException if the credentials provided are invalid.
      */
     public JwtAuthenticationResponse signin(SigninRequest signinRequest){
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(signinRequest.getEmail(), signinRequest.getPassword()));
+            authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(signinRequest.getEmail(), signinRequest.getPassword()));
         } catch (BadCredentialsException e) {
+            auditService.recordAs(AuditAction.SIGNIN_FAILED, signinRequest.getEmail(), null, "bad credentials");
             throw new IllegalArgumentException("Invalid Credentials", e);
         }
-        var user = userRepository.findByEmail(signinRequest.getEmail()).orElseThrow(()-> new IllegalArgumentException("Invalid Credentials")); // Retrieve the user from the repository based on their email.
+        // The provider already loaded the user to check the password; reuse it instead of querying again.
+        if (!(authentication.getPrincipal() instanceof User user)) {
+            throw new IllegalArgumentException("Invalid Credentials");
+        }
+        auditService.recordAs(AuditAction.SIGNIN_SUCCEEDED, user.getEmail(), null, null);
         var jwt = jwtService.generateToken(user); // Generate the JWT token for the authenticated user.
         var refreshToken = jwtService.generateRefreshToken(new HashMap<>(),user); // Generate a refresh token for the authenticated user.
 
@@ -79,6 +99,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      * @param refreshTokenRequest The request containing the refresh token.
      * @return A {@link JwtAuthenticationResponse} containing a new JWT token and the existing refresh token, or {@code null} if the token is invalid.
      */
+    @Transactional(readOnly = true)
     public JwtAuthenticationResponse refreshToken(RefreshTokenRequest refreshTokenRequest){
         String userEmail = jwtService.extractUserName(refreshTokenRequest.getToken()); //Extract the username (email) from the refresh token.
         User user = userRepository.findByEmail(userEmail).orElseThrow(); // Retrieve the user from the repository based on the extracted email.
@@ -0,0 +1,135 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.invalidation.CacheRegion;
+import com.exalt.training.springsecurity.invalidation.InvalidationBus;
+import com.exalt.training.springsecurity.model.Project;
+import com.exalt.training.springsecurity.repository.ProjectRepository;
+import com.exalt.training.springsecurity.search.InvertedIndex;
+import com.exalt.training.springsecurity.search.ReloadableIndex;
+import com.exalt.training.springsecurity.search.Tokenizer;
+import com.exalt.training.springsecurity.service.ProjectSearchService;
+import com.exalt.training.springsecurity.transaction.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Default implementation of the ProjectSearchService interface, backed by an in-process inverted index.
+ * The index is built from the database once the application is ready and kept in sync by {@link ProjectServiceImpl} writes,
+ * which apply once their transaction commits. Writes committed while the index loads are replayed on the loaded index.
+ * Changes made on other nodes arrive through the {@link InvalidationBus}: a changed title is re-read from the database,
+ * while a removed title or a flush reloads the whole index in the background.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.mode", havingValue = "memory", matchIfMissing = true)
+public class InMemoryProjectSearchServiceImpl implements ProjectSearchService {
+    private static final float TITLE_WEIGHT = 3.0f; // matches in the title rank highest
+    private static final float COMPANY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private final ProjectRepository projectRepository;
+    private final InvalidationBus invalidationBus;
+    private final ReloadableIndex<InvertedIndex> index = new ReloadableIndex<>(new InvertedIndex());
+
+    /**
+     * Builds the index from all stored projects once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.reload(this::load);
+    }
+
+    private InvertedIndex load() {
+        InvertedIndex loaded = new InvertedIndex();
+        projectRepository.findAllWithoutMembers().forEach(project -> loaded.put(project.getId(), termsOf(project)));
+        return loaded;
+    }
+
+    /**
+     * Follows the project changes of the other nodes.
+     */
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribeRemote(CacheRegion.PROJECT, this::refresh);
+    }
+
+    /**
+     * Searches the in-memory index and loads the matching projects by id, preserving the ranking.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of projects to return
+     * @return the matching projects ordered by descending relevance
+     */
+    @Override
+    public List<Project> search(String query, int limit) {
+        List<Integer> ids = index.get().search(Tokenizer.tokenize(query), limit);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, Project> projects = projectRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        return ids.stream().map(projects::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Adds or refreshes a project in the index. The terms are taken now and applied after commit.
+     *
+     * @param project the saved project
+     */
+    @Override
+    public void index(Project project) {
+        int id = project.getId();
+        Map<String, Float> terms = termsOf(project);
+        AfterCommit.run(() -> index.update(current -> current.put(id, terms)));
+    }
+
+    /**
+     * Removes a project from the index after commit.
+     *
+     * @param project the deleted project
+     */
+    @Override
+    public void remove(Project project) {
+        int id = project.getId();
+        AfterCommit.run(() -> index.update(current -> current.remove(id)));
+    }
+
+    private void refresh(String title) {
+        Optional<Project> project = title == null ? Optional.empty() : projectRepository.findByTitle(title);
+        if (project.isPresent()) {
+            int id = project.get().getId();
+            Map<String, Float> terms = termsOf(project.get());
+            index.update(current -> current.put(id, terms));
+        } else {
+            // a flush, or a deleted or renamed project whose document id is not known here
+            index.reloadInBackground(this::load);
+        }
+    }
+
+    private static Map<String, Float> termsOf(Project project) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, project.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, project.getCompany(), COMPANY_WEIGHT);
+        addTerms(terms, project.getDescription(), DESCRIPTION_WEIGHT);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String term : Tokenizer.tokenize(text)) {
+            terms.merge(term, weight, Float::sum);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.exalt.training.springsecurity.service.impl;
 
 import com.exalt.training.springsecurity.service.JWTService;
+import com.exalt.training.springsecurity.timing.RequestTimings;
+import com.exalt.training.springsecurity.timing.TimingPhase;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
@@ -14,9 +18,20 @@ import java.util.function.Function;
 
 /**
  * Implementation of the JWTService interface, providing JWT-related operations.
+ * Signing and parsing are timed as {@code app.jwt.sign} and {@code app.jwt.parse}.
  */
 @Service
 public class JWTServiceImpl implements JWTService {
+    private final SecretKey signinKey = getSigninKey(); // decoded once instead of on every sign and parse
+    private final Timer signTimer;
+    private final Timer parseTimer;
+
+    public JWTServiceImpl(MeterRegistry meterRegistry) {
+        this.signTimer = Timer.builder("app.jwt.sign")
+                .description("Time spent signing JWTs").publishPercentileHistogram().register(meterRegistry);
+        this.parseTimer = Timer.builder("app.jwt.parse")
+                .description("Time spent verifying and parsing JWTs").publishPercentileHistogram().register(meterRegistry);
+    }
 
     /**
      * Generates a JWT token based on user details.
@@ -25,11 +40,11 @@ public class JWTServiceImpl implements JWTService {
      * @return the generated JWT token.
      */
     public String generateToken(UserDetails userDetails){
-        return Jwts.builder().subject(userDetails.getUsername())
+        return signTimer.record(() -> Jwts.builder().subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date (System.currentTimeMillis()+1000*60*24))
-                .signWith(getSigninKey())
-                .compact();
+                .signWith(signinKey)
+                .compact());
 
     }
 
@@ -41,11 +56,11 @@ public class JWTServiceImpl implements JWTService {
      * @return the generated refresh token.
      */
     public String generateRefreshToken(Map<String, Object> extraClaims, UserDetails userDetails){
-        return Jwts.builder().claims(extraClaims).subject(userDetails.getUsername())
+        return signTimer.record(() -> Jwts.builder().claims(extraClaims).subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date (System.currentTimeMillis()+604800000))
-                .signWith(getSigninKey())
-                .compact();
+                .signWith(signinKey)
+                .compact());
 
     }
 
@@ -77,7 +92,7 @@ public class JWTServiceImpl implements JWTService {
      *
      * @return the signing key.
      */
-    private SecretKey getSigninKey() {
+    private static SecretKey getSigninKey() {
         byte[] key = Decoders.BASE64.decode("u4e3aIn2l0JiJqF7qPimO3YxZ9/hE0oPGydXKhBkr9c=");
         return Keys.hmacShaKeyFor(key);
     }
@@ -89,7 +104,12 @@ public class JWTServiceImpl implements JWTService {
      * @return the claims extracted from the token.
      */
     private Claims extractAllClaim(String token){
-        return Jwts.parser().verifyWith(getSigninKey()).build().parseSignedClaims(token).getPayload();
+        long start = RequestTimings.begin(TimingPhase.JWT);
+        try {
+            return parseTimer.record(() -> Jwts.parser().verifyWith(signinKey).build().parseSignedClaims(token).getPayload());
+        } finally {
+            RequestTimings.end(TimingPhase.JWT, start);
+        }
     }
 
     /**
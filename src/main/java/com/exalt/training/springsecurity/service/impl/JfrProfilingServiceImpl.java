@@ -0,0 +1,289 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.dto.ProfilingHotSpot;
+import com.exalt.training.springsecurity.dto.ProfilingStatus;
+import com.exalt.training.springsecurity.dto.ProfilingStatus.State;
+import com.exalt.training.springsecurity.dto.ProfilingSummary;
+import com.exalt.training.springsecurity.exception.ProfilingOverloadedException;
+import com.exalt.training.springsecurity.exception.ProfilingUnavailableException;
+import com.exalt.training.springsecurity.service.ProfilingService;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of the ProfilingService interface using the JDK Flight Recorder API.
+ * Overhead guards: one recording at a time, a bounded duration and file size, a cool-down between recordings,
+ * only the configured JFR settings, and no recording while the system CPU load is above a threshold.
+ * Recordings run on a virtual thread, so no request waits for them. Only the latest recording is kept on disk;
+ * the file of a failed recording is deleted, and the kept one is deleted at shutdown.
+ */
+@Service
+@Slf4j
+public class JfrProfilingServiceImpl implements ProfilingService {
+    private static final int TOP_ENTRIES = 15; // entries per list in the summary
+    private static final long SHUTDOWN_WAIT_MILLIS = 5000; // time given to a running recording to clean up at shutdown
+
+    private final AtomicBoolean running = new AtomicBoolean(); // guards the single recording slot
+    private volatile long lastFinishedNanos; // end of the previous recording, for the cool-down
+    private volatile Job latest; // latest recording, the only one whose file is kept
+    private volatile Thread worker; // thread of the latest recording
+
+    @Value("${app.profiling.allowed-profiles:default,profile}")
+    private List<String> allowedProfiles;
+
+    @Value("${app.profiling.max-duration:60s}")
+    private Duration maxDuration;
+
+    @Value("${app.profiling.max-size:50MB}")
+    private DataSize maxSize; // the recording discards its oldest chunks beyond this size
+
+    @Value("${app.profiling.cooldown:1m}")
+    private Duration cooldown;
+
+    @Value("${app.profiling.max-cpu-load:0.85}")
+    private double maxCpuLoad; // system CPU load (0..1) above which no recording starts
+
+    @Override
+    public ProfilingStatus start(String profile, Duration duration) {
+        if (!allowedProfiles.contains(profile)) {
+            throw new IllegalArgumentException("Profile must be one of " + allowedProfiles);
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Duration must be between 1s and " + maxDuration.toSeconds() + "s");
+        }
+        Configuration configuration = configuration(profile);
+        if (!running.compareAndSet(false, true)) {
+            throw new ProfilingUnavailableException("A recording is already running");
+        }
+        try {
+            checkCooldown();
+            checkCpuLoad();
+            Job job = new Job(UUID.randomUUID().toString(), profile, duration, configuration);
+            Job previous = latest;
+            latest = job;
+            if (previous != null && previous.file != null) {
+                delete(previous.file);
+            }
+            worker = Thread.ofVirtual().name("jfr-recording").start(() -> run(job));
+            return job.status();
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    @Override
+    public ProfilingStatus getStatus(String recordingId) {
+        return find(recordingId).status();
+    }
+
+    @Override
+    public Path getRecording(String recordingId) {
+        Path file = find(recordingId).file;
+        if (file == null || !Files.exists(file)) {
+            throw new IllegalArgumentException("Recording not available: " + recordingId);
+        }
+        return file;
+    }
+
+    /**
+     * Stops the running recording, if any, and deletes the kept file.
+     *
+     * @throws InterruptedException if interrupted while waiting for the recording to stop
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        Thread thread = worker;
+        if (thread != null && thread.isAlive()) {
+            thread.interrupt();
+            thread.join(SHUTDOWN_WAIT_MILLIS);
+        }
+        Job job = latest;
+        if (job != null && job.file != null) {
+            delete(job.file);
+        }
+    }
+
+    private Job find(String recordingId) {
+        Job job = latest;
+        if (job == null || !job.id.equals(recordingId)) {
+            throw new IllegalArgumentException("Recording not found: " + recordingId);
+        }
+        return job;
+    }
+
+    private static Configuration configuration(String profile) {
+        try {
+            return Configuration.getConfiguration(profile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the JFR settings " + profile, e);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid JFR settings: " + profile, e);
+        }
+    }
+
+    private void run(Job job) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("profiling-" + job.id, ".jfr");
+            record(job, file);
+            ProfilingSummary summary = summarize(job.id, job.profile, job.duration, file);
+            job.file = file;
+            job.summary = summary;
+            log.info("JFR recording {} finished: {} bytes", job.id, summary.sizeBytes());
+        } catch (InterruptedException e) {
+            job.error = "Recording interrupted";
+        } catch (IOException | RuntimeException e) {
+            job.error = "Could not record: " + e;
+            log.warn("JFR recording {} failed", job.id, e);
+        } finally {
+            if (job.summary == null && file != null) {
+                delete(file);
+            }
+            running.set(false);
+        }
+    }
+
+    private void record(Job job, Path file) throws IOException, InterruptedException {
+        try (Recording recording = new Recording(job.configuration)) {
+            recording.setName("admin-" + job.id);
+            recording.setMaxSize(maxSize.toBytes());
+            recording.setToDisk(true);
+            log.info("JFR recording {} started: profile={} duration={}s", job.id, job.profile, job.duration.toSeconds());
+            recording.start();
+            try {
+                Thread.sleep(job.duration.toMillis());
+            } finally {
+                recording.stop();
+                lastFinishedNanos = System.nanoTime();
+            }
+            recording.dump(file);
+        }
+    }
+
+    private ProfilingSummary summarize(String id, String profile, Duration duration, Path file) throws IOException {
+        Map<String, Long> samples = new HashMap<>(); // top frame -> execution samples
+        Map<String, Long> allocations = new HashMap<>(); // top frame and class -> sampled bytes
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        String frame = topFrame(event.getStackTrace());
+                        if (frame != null) {
+                            samples.merge(frame, 1L, Long::sum);
+                        }
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        String frame = topFrame(event.getStackTrace());
+                        if (frame != null) {
+                            allocations.merge(frame + " [" + event.getClass("objectClass").getName() + "]",
+                                    event.getLong("weight"), Long::sum);
+                        }
+                    }
+                    default -> {
+                        // other events stay in the file for offline analysis
+                    }
+                }
+            }
+        }
+        return new ProfilingSummary(id, profile, duration.toMillis(), Files.size(file), top(samples), top(allocations));
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame()) {
+                return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+            }
+        }
+        return null;
+    }
+
+    private static List<ProfilingHotSpot> top(Map<String, Long> weights) {
+        long total = weights.values().stream().mapToLong(Long::longValue).sum();
+        return weights.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP_ENTRIES)
+                .map(entry -> new ProfilingHotSpot(entry.getKey(), entry.getValue(),
+                        total == 0 ? 0 : 100.0 * entry.getValue() / total))
+                .toList();
+    }
+
+    private void checkCooldown() {
+        long previous = lastFinishedNanos;
+        if (previous != 0 && System.nanoTime() - previous < cooldown.toNanos()) {
+            throw new ProfilingUnavailableException("The previous recording ended less than "
+                    + cooldown.toSeconds() + "s ago");
+        }
+    }
+
+    private void checkCpuLoad() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            double load = os.getCpuLoad();
+            if (load > maxCpuLoad) {
+                throw new ProfilingOverloadedException(String.format("System CPU load is %.0f%%, above the %.0f%% limit",
+                        load * 100, maxCpuLoad * 100));
+            }
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete the JFR recording {}", file, e);
+        }
+    }
+
+    /**
+     * A recording and its outcome. The recording thread writes the outcome once; requests read it while polling.
+     */
+    private static final class Job {
+        private final String id; // identifier returned to the caller
+        private final String profile; // name of the JFR settings
+        private final Duration duration; // requested recording duration
+        private final Configuration configuration; // JFR settings, parsed before the recording starts
+        private volatile Path file; // .jfr file, once finished
+        private volatile ProfilingSummary summary; // summary, once finished
+        private volatile String error; // reason of the failure, once failed
+
+        private Job(String id, String profile, Duration duration, Configuration configuration) {
+            this.id = id;
+            this.profile = profile;
+            this.duration = duration;
+            this.configuration = configuration;
+        }
+
+        private ProfilingStatus status() {
+            ProfilingSummary done = summary;
+            String failure = error;
+            State state = done != null ? State.FINISHED : failure != null ? State.FAILED : State.RUNNING;
+            return new ProfilingStatus(id, state, done, failure);
+        }
+    }
+}
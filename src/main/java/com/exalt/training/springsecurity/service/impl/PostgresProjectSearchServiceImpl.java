@@ -0,0 +1,45 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.model.Project;
+import com.exalt.training.springsecurity.repository.ProjectRepository;
+import com.exalt.training.springsecurity.service.ProjectSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementation of the ProjectSearchService interface using PostgreSQL full-text search.
+ * Ranking uses a weighted {@code tsvector} over title, company and description, served by the
+ * {@code projects_search_idx} GIN expression index created by the schema migrations.
+ * The database keeps the index in sync, so the write hooks are no-ops.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.mode", havingValue = "postgres")
+public class PostgresProjectSearchServiceImpl implements ProjectSearchService {
+    private final ProjectRepository projectRepository;
+
+    /**
+     * Searches projects with {@code plainto_tsquery}, ordered by {@code ts_rank}.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of projects to return
+     * @return the matching projects ordered by descending relevance
+     */
+    @Override
+    public List<Project> search(String query, int limit) {
+        return projectRepository.searchByText(query, limit);
+    }
+
+    @Override
+    public void index(Project project) {
+        // the tsvector is computed by the database from the row itself
+    }
+
+    @Override
+    public void remove(Project project) {
+        // the tsvector is computed by the database from the row itself
+    }
+}
@@ -1,13 +1,38 @@
 package com.exalt.training.springsecurity.service.impl;
+import com.exalt.training.springsecurity.coalescing.SingleFlight;
+import com.exalt.training.springsecurity.audit.AuditAction;
 import com.exalt.training.springsecurity.dto.ProjectDTO;
+import com.exalt.training.springsecurity.exception.ProjectAccessDeniedException;
 import com.exalt.training.springsecurity.exception.ProjectTitleAlreadyExistsException;
+import com.exalt.training.springsecurity.patch.JsonMergePatcher;
+import com.exalt.training.springsecurity.invalidation.CacheRegion;
+import com.exalt.training.springsecurity.invalidation.InvalidationBus;
+import com.exalt.training.springsecurity.model.OutboxEventType;
 import com.exalt.training.springsecurity.model.Project;
+import com.exalt.training.springsecurity.model.ProjectMember;
+import com.exalt.training.springsecurity.model.ProjectRole;
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
 import com.exalt.training.springsecurity.repository.ProjectRepository;
+import com.exalt.training.springsecurity.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.exalt.training.springsecurity.service.AuditService;
+import com.exalt.training.springsecurity.service.OutboxService;
+import com.exalt.training.springsecurity.service.ProjectSearchService;
 import com.exalt.training.springsecurity.service.ProjectService;
+import com.exalt.training.springsecurity.service.SuggestionService;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementation of the ProjectService interface.
@@ -19,6 +44,47 @@ public class ProjectServiceImpl implements ProjectService {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectSearchService projectSearchService;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private SingleFlight<String, Optional<Project>> projectLookups; // coalesces concurrent lookups by title
+
+    @Autowired
+    private InvalidationBus invalidationBus; // evicts the changed titles on every node after commit
+
+    @Autowired
+    private OutboxService outboxService; // status changes for downstream systems, written in the same transaction
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private JsonMergePatcher jsonMergePatcher;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private static final int MAX_SEARCH_RESULTS = 100; // upper bound for a single search page
+    private static final int MAX_SUGGESTIONS = 50; // upper bound for a single autocomplete response
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("title", "company", "description", "status");
+
+    /**
+     * Creates the read-only transaction template used by the coalesced lookups.
+     *
+     * @param transactionManager the transaction manager
+     */
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
     /**
      * Creates a new project based on the provided {@link ProjectDTO}.
      *
@@ -26,8 +92,9 @@ public class ProjectServiceImpl implements ProjectService {
      * @return the created {@link Project} entity
      */
     @Override
+    @Transactional
     public Project createProject(ProjectDTO projectDTO) {
-        if (projectRepository.findByTitle(projectDTO.getTitle()).isPresent()) {
+        if (projectRepository.existsByTitle(projectDTO.getTitle())) {
             throw new ProjectTitleAlreadyExistsException("Project title already exists: " + projectDTO.getTitle());
         }
         Project project = new Project();
@@ -35,7 +102,11 @@ public class ProjectServiceImpl implements ProjectService {
         project.setCompany(projectDTO.getCompany());
         project.setDescription(projectDTO.getDescription());
         project.setStatus(projectDTO.getStatus());
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        projectSearchService.index(saved);
+        suggestionService.addProjectTitle(saved.getTitle());
+        invalidationBus.publish(CacheRegion.PROJECT, saved.getTitle());
+        return saved;
     }
 
     /**
@@ -47,17 +118,79 @@ public class ProjectServiceImpl implements ProjectService {
      * @throws IllegalArgumentException if no project with the given title is found
      */
     @Override
+    @Transactional
     public Project updateProject(String title, ProjectDTO projectDTO) {
-        Project project = projectRepository.findByTitle(title)
+        Project project = projectRepository.findWithMembersByTitle(title)
                 .orElseThrow(() -> new IllegalArgumentException("Project not found"));
-        if (projectRepository.findByTitle(projectDTO.getTitle()).isPresent()) {
+        // Only a rename can collide with another project; keeping the same title is not a conflict.
+        if (!title.equals(projectDTO.getTitle()) && projectRepository.existsByTitle(projectDTO.getTitle())) {
             throw new ProjectTitleAlreadyExistsException("Project with this title already exists: " + projectDTO.getTitle());
         }
+        String previousStatus = project.getStatus();
         project.setTitle(projectDTO.getTitle());
         project.setCompany(projectDTO.getCompany());
         project.setDescription(projectDTO.getDescription());
         project.setStatus(projectDTO.getStatus());
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        recordStatusChange(saved, previousStatus);
+        projectSearchService.index(saved);
+        suggestionService.removeProjectTitle(title);
+        suggestionService.addProjectTitle(saved.getTitle());
+        invalidationBus.publish(CacheRegion.PROJECT, title);
+        if (!title.equals(saved.getTitle())) {
+            invalidationBus.publish(CacheRegion.PROJECT, saved.getTitle());
+        }
+        return saved;
+    }
+
+    /**
+     * Applies a JSON merge patch to an existing project.
+     * The patch is applied to a {@link ProjectDTO} copy of the project and validated like a full update; only the
+     * fields that differ are then set, so the UPDATE lists only their columns. Without any difference, nothing is
+     * written, indexed or published.
+     *
+     * @param title the title of the project to patch
+     * @param patch the merge patch
+     * @return the patched {@link Project} entity
+     * @throws IllegalArgumentException if no project with the given title is found
+     */
+    @Override
+    @Transactional
+    public Project patchProject(String title, JsonNode patch) {
+        Project project = projectRepository.findWithMembersByTitle(title)
+                .orElseThrow(() -> new IllegalArgumentException("Project not found"));
+        ProjectDTO target = new ProjectDTO();
+        target.setTitle(project.getTitle());
+        target.setCompany(project.getCompany());
+        target.setDescription(project.getDescription());
+        target.setStatus(project.getStatus());
+        jsonMergePatcher.apply(patch, target, PATCHABLE_FIELDS);
+
+        boolean renamed = !project.getTitle().equals(target.getTitle());
+        boolean searchableChanged = renamed || !project.getCompany().equals(target.getCompany())
+                || !Objects.equals(project.getDescription(), target.getDescription());
+        String previousStatus = project.getStatus();
+        if (!searchableChanged && previousStatus.equals(target.getStatus())) {
+            return project;
+        }
+        if (renamed && projectRepository.existsByTitle(target.getTitle())) {
+            throw new ProjectTitleAlreadyExistsException("Project with this title already exists: " + target.getTitle());
+        }
+        project.setTitle(target.getTitle());
+        project.setCompany(target.getCompany());
+        project.setDescription(target.getDescription());
+        project.setStatus(target.getStatus());
+        recordStatusChange(project, previousStatus);
+        if (searchableChanged) {
+            projectSearchService.index(project);
+        }
+        if (renamed) {
+            suggestionService.removeProjectTitle(title);
+            suggestionService.addProjectTitle(project.getTitle());
+            invalidationBus.publish(CacheRegion.PROJECT, project.getTitle());
+        }
+        invalidationBus.publish(CacheRegion.PROJECT, title);
+        return project;
     }
 
     /**
@@ -69,16 +202,21 @@ public class ProjectServiceImpl implements ProjectService {
      * @throws IllegalArgumentException if no project with the given title is found
      */
     @Override
+    @Transactional
     public Project updateProjectStatus(String title, String status) {
         if (status == null || status.trim().isEmpty()) {
             throw new IllegalArgumentException("Status cannot be null or empty");
         }
 
-        Project project = projectRepository.findByTitle(title)
+        Project project = projectRepository.findWithMembersByTitle(title)
                 .orElseThrow(() -> new IllegalArgumentException("Project not found"));
 
+        String previousStatus = project.getStatus();
         project.setStatus(status);
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        recordStatusChange(saved, previousStatus);
+        invalidationBus.publish(CacheRegion.PROJECT, title);
+        return saved;
     }
 
     /**
@@ -87,12 +225,15 @@ public class ProjectServiceImpl implements ProjectService {
      * @return a list of all {@link Project} entities
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Project> getAllProjects() {
         return projectRepository.findAll();
     }
 
     /**
      * Retrieves a project by its title.
+     * Concurrent lookups of the same title share one query; the lookup runs in its own read-only transaction
+     * so that waiting callers do not hold a connection. The returned project must not be modified.
      *
      * @param title the title of the project to retrieve
      * @return the {@link Project} entity with the given title
@@ -100,7 +241,7 @@ public class ProjectServiceImpl implements ProjectService {
      */
     @Override
     public Project getProjectByTitle(String title) {
-        return projectRepository.findByTitle(title)
+        return projectLookups.execute(title, () -> readOnlyTransaction.execute(status -> projectRepository.findWithMembersByTitle(title)))
                 .orElseThrow(() -> new IllegalArgumentException("Project with the given title not found"));
     }
 
@@ -111,9 +252,143 @@ public class ProjectServiceImpl implements ProjectService {
      * @throws IllegalArgumentException if no project with the given title is found
      */
     @Override
+    @Transactional
     public void deleteProjectByTitle(String title) {
-        Project project = projectRepository.findByTitle(title)
+        Project project = projectRepository.findWithMembersByTitle(title)
                 .orElseThrow(() -> new IllegalArgumentException("Project with the given title not found"));
         projectRepository.delete(project);
+        projectSearchService.remove(project);
+        suggestionService.removeProjectTitle(project.getTitle());
+        invalidationBus.publish(CacheRegion.PROJECT, title);
+        auditService.record(AuditAction.PROJECT_DELETED, title, null);
+    }
+
+    /**
+     * Searches projects by title, company and description.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of projects to return, capped at {@value #MAX_SEARCH_RESULTS}
+     * @return the matching {@link Project} entities ordered by descending relevance
+     * @throws IllegalArgumentException if the query is blank
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Project> searchProjects(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be null or empty");
+        }
+        return projectSearchService.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    /**
+     * Suggests project titles starting with the given prefix.
+     *
+     * @param prefix the case-insensitive title prefix
+     * @param limit the maximum number of titles to return, capped at {@value #MAX_SUGGESTIONS}
+     * @return the matching titles in alphabetical order
+     */
+    @Override
+    public List<String> suggestTitles(String prefix, int limit) {
+        return suggestionService.suggestProjectTitles(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * Retrieves the projects the given user is a member of, with their members loaded in the same query.
+     *
+     * @param email the email of the member
+     * @return a list of the user's {@link Project} entities
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Project> getProjectsForMember(String email) {
+        return projectRepository.findAllByMemberEmail(email);
+    }
+
+    /**
+     * Adds a user to a project, or changes the user's role if already a member.
+     *
+     * @param title the title of the project
+     * @param email the email of the user
+     * @param role the role of the user within the project
+     * @param actor the user making the change
+     * @return the updated {@link Project} entity
+     * @throws IllegalArgumentException if the project or the user is not found
+     * @throws ProjectAccessDeniedException if the actor may not change the members of the project
+     */
+    @Override
+    @Transactional
+    public Project addMember(String title, String email, ProjectRole role, UserDetails actor) {
+        if (role == null) {
+            throw new IllegalArgumentException("Project role cannot be null");
+        }
+        Project project = projectRepository.findWithMembersByTitle(title)
+                .orElseThrow(() -> new IllegalArgumentException("Project not found"));
+        checkCanManageMembers(project, actor);
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new IllegalArgumentException("User with email " + email + " not found"));
+        project.getMembers().stream()
+                .filter(member -> member.getUser().getId().equals(user.getId()))
+                .findFirst()
+                .ifPresentOrElse(member -> member.setRole(role),
+                        () -> project.getMembers().add(new ProjectMember(null, project, user, role)));
+        Project saved = projectRepository.save(project);
+        invalidationBus.publish(CacheRegion.PROJECT, title);
+        return saved;
+    }
+
+    /**
+     * Removes a user from a project.
+     *
+     * @param title the title of the project
+     * @param email the email of the user
+     * @param actor the user making the change
+     * @return the updated {@link Project} entity
+     * @throws IllegalArgumentException if the project is not found or the user is not a member
+     * @throws ProjectAccessDeniedException if the actor may not change the members of the project
+     */
+    @Override
+    @Transactional
+    public Project removeMember(String title, String email, UserDetails actor) {
+        Project project = projectRepository.findWithMembersByTitle(title)
+                .orElseThrow(() -> new IllegalArgumentException("Project not found"));
+        checkCanManageMembers(project, actor);
+        if (!project.getMembers().removeIf(member -> member.getEmail().equalsIgnoreCase(email))) {
+            throw new IllegalArgumentException("User with email " + email + " is not a member of the project");
+        }
+        Project saved = projectRepository.save(project);
+        invalidationBus.publish(CacheRegion.PROJECT, title);
+        return saved;
+    }
+
+    /**
+     * Checks that the actor is the CEO, or an owner or leader of the project; the route table lets every team
+     * leader reach the membership endpoints, whatever project they lead.
+     *
+     * @param project the project, with its members loaded
+     * @param actor the user making the change
+     * @throws ProjectAccessDeniedException if the actor may not change the members of the project
+     */
+    private static void checkCanManageMembers(Project project, UserDetails actor) {
+        boolean ceo = actor.getAuthorities().stream()
+                .anyMatch(authority -> Role.CEO.name().equals(authority.getAuthority()));
+        boolean leader = project.getMembers().stream()
+                .anyMatch(member -> member.getRole() != ProjectRole.Member
+                        && member.getEmail().equalsIgnoreCase(actor.getUsername()));
+        if (!ceo && !leader) {
+            throw new ProjectAccessDeniedException("Only the CEO or an owner or leader of the project can change its members");
+        }
+    }
+
+    /**
+     * Records a {@link OutboxEventType#PROJECT_STATUS_CHANGED} event if the status of the project changed.
+     *
+     * @param project the saved project
+     * @param previousStatus the status before the update
+     */
+    private void recordStatusChange(Project project, String previousStatus) {
+        if (!project.getStatus().equals(previousStatus)) {
+            outboxService.record(OutboxEventType.PROJECT_STATUS_CHANGED, project.getTitle(),
+                    Map.of("title", project.getTitle(), "previousStatus", previousStatus, "status", project.getStatus()));
+        }
     }
 }
@@ -0,0 +1,68 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.dto.SqlStatementStats;
+import com.exalt.training.springsecurity.service.SqlStatisticsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of the SqlStatisticsService interface keeping lock-free counters per statement text.
+ * Hibernate generates a small, fixed set of statements, so the map stays small; statements beyond
+ * {@code app.sql.max-tracked-statements} are folded into a single overflow entry to bound memory.
+ */
+@Service
+public class SqlStatisticsServiceImpl implements SqlStatisticsService {
+    private static final String OVERFLOW_KEY = "<other statements>";
+
+    private final Map<String, Counters> statements = new ConcurrentHashMap<>(); // statement text -> counters
+    private final int maxTrackedStatements;
+
+    public SqlStatisticsServiceImpl(@Value("${app.sql.max-tracked-statements:1000}") int maxTrackedStatements) {
+        this.maxTrackedStatements = maxTrackedStatements;
+    }
+
+    @Override
+    public void record(String sql, long elapsedMillis) {
+        Counters counters = statements.get(sql);
+        if (counters == null) {
+            String key = statements.size() < maxTrackedStatements ? sql : OVERFLOW_KEY;
+            counters = statements.computeIfAbsent(key, k -> new Counters());
+        }
+        counters.executions.increment();
+        counters.totalMillis.add(elapsedMillis);
+        counters.maxMillis.accumulate(elapsedMillis);
+    }
+
+    @Override
+    public List<SqlStatementStats> getTopStatements(int limit) {
+        return statements.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingLong(SqlStatementStats::totalMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void reset() {
+        statements.clear();
+    }
+
+    private static final class Counters {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+
+        private SqlStatementStats snapshot(String sql) {
+            long count = executions.sum();
+            long total = totalMillis.sum();
+            return new SqlStatementStats(sql, count, total, maxMillis.get(), count == 0 ? 0 : (double) total / count);
+        }
+    }
+}
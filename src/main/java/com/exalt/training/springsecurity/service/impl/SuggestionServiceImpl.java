@@ -0,0 +1,109 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.invalidation.CacheRegion;
+import com.exalt.training.springsecurity.invalidation.InvalidationBus;
+import com.exalt.training.springsecurity.repository.ProjectRepository;
+import com.exalt.training.springsecurity.repository.UserRepository;
+import com.exalt.training.springsecurity.search.PrefixIndex;
+import com.exalt.training.springsecurity.search.ReloadableIndex;
+import com.exalt.training.springsecurity.service.SuggestionService;
+import com.exalt.training.springsecurity.transaction.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementation of the SuggestionService interface backed by two in-memory {@link PrefixIndex} instances.
+ * Both indexes are loaded from the database once the application is ready and then updated by the service write paths
+ * once their transaction commits. Writes committed while an index loads are replayed on the loaded index.
+ * Changes made on other nodes arrive through the {@link InvalidationBus} and are checked against the database; a
+ * flush reloads the affected index in the background.
+ */
+@Service
+@RequiredArgsConstructor
+public class SuggestionServiceImpl implements SuggestionService {
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final InvalidationBus invalidationBus;
+    private final ReloadableIndex<PrefixIndex> projectTitles = new ReloadableIndex<>(new PrefixIndex()); // Project.title values
+    private final ReloadableIndex<PrefixIndex> userEmails = new ReloadableIndex<>(new PrefixIndex()); // User.email values
+
+    /**
+     * Loads all project titles and user emails once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        projectTitles.reload(() -> loaded(projectRepository.findAllTitles()));
+        userEmails.reload(() -> loaded(userRepository.findAllEmails()));
+    }
+
+    /**
+     * Follows the project and user changes of the other nodes.
+     */
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribeRemote(CacheRegion.PROJECT, this::refreshProjectTitle);
+        invalidationBus.subscribeRemote(CacheRegion.USER, this::refreshUserEmail);
+    }
+
+    @Override
+    public List<String> suggestProjectTitles(String prefix, int limit) {
+        return projectTitles.get().suggest(prefix, limit);
+    }
+
+    @Override
+    public List<String> suggestUserEmails(String prefix, int limit) {
+        return userEmails.get().suggest(prefix, limit);
+    }
+
+    @Override
+    public void addProjectTitle(String title) {
+        AfterCommit.run(() -> projectTitles.update(index -> index.add(title)));
+    }
+
+    @Override
+    public void removeProjectTitle(String title) {
+        AfterCommit.run(() -> projectTitles.update(index -> index.remove(title)));
+    }
+
+    @Override
+    public void addUserEmail(String email) {
+        AfterCommit.run(() -> userEmails.update(index -> index.add(email)));
+    }
+
+    @Override
+    public void removeUserEmail(String email) {
+        AfterCommit.run(() -> userEmails.update(index -> index.remove(email)));
+    }
+
+    private void refreshProjectTitle(String title) {
+        if (title == null) {
+            projectTitles.reloadInBackground(() -> loaded(projectRepository.findAllTitles()));
+        } else if (projectRepository.existsByTitle(title)) {
+            projectTitles.update(index -> index.add(title));
+        } else {
+            projectTitles.update(index -> index.remove(title));
+        }
+    }
+
+    private void refreshUserEmail(String email) {
+        if (email == null) {
+            userEmails.reloadInBackground(() -> loaded(userRepository.findAllEmails()));
+            return;
+        }
+        // the bus carries lower-cased emails; the index keeps them as stored
+        userRepository.findByEmail(email).ifPresentOrElse(
+                user -> userEmails.update(index -> index.add(user.getEmail())),
+                () -> userEmails.update(index -> index.removeIgnoringCase(email)));
+    }
+
+    private static PrefixIndex loaded(List<String> values) {
+        PrefixIndex index = new PrefixIndex();
+        index.replaceAll(values);
+        return index;
+    }
+}
@@ -1,16 +1,31 @@
 package com.exalt.training.springsecurity.service.impl;
 
+import com.exalt.training.springsecurity.audit.AuditAction;
 import com.exalt.training.springsecurity.dto.UserDTO;
+import com.exalt.training.springsecurity.exception.EmailAlreadyUsedException;
+import com.exalt.training.springsecurity.exception.InvalidPatchException;
+import com.exalt.training.springsecurity.invalidation.CacheRegion;
+import com.exalt.training.springsecurity.invalidation.InvalidationBus;
+import com.exalt.training.springsecurity.model.OutboxEventType;
 import com.exalt.training.springsecurity.model.Role;
 import com.exalt.training.springsecurity.model.User;
+import com.exalt.training.springsecurity.patch.JsonMergePatcher;
 import com.exalt.training.springsecurity.repository.UserRepository;
+import com.exalt.training.springsecurity.service.AuditService;
+import com.exalt.training.springsecurity.service.OutboxService;
+import com.exalt.training.springsecurity.service.SuggestionService;
 import com.exalt.training.springsecurity.service.UserDetailsService;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 @Service
 @RequiredArgsConstructor
 
@@ -20,13 +35,22 @@ import java.util.List;
 public class UserDetailsServiceImpl implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SuggestionService suggestionService;
+    private final InvalidationBus invalidationBus; // evicts the changed users on every node after commit
+    private final OutboxService outboxService; // role changes for downstream systems, written in the same transaction
+    private final AuditService auditService;
+    private final JsonMergePatcher jsonMergePatcher;
+    private static final int MAX_SUGGESTIONS = 50; // upper bound for a single autocomplete response
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("firstName", "lastName", "password", "role");
     /**
      * Creates a new user in the system based on the provided user data.
      *
      * @param userDTO the data transfer object containing the user's details (first name, last name, email, password, and role)
      * @return the created user
+     * @throws EmailAlreadyUsedException if the email is already used
      */
     @Override
+    @Transactional
     public User createUser(UserDTO userDTO) {
         User user = new User();
         user.setFirstName(userDTO.getFirstName());
@@ -34,7 +58,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         user.setEmail(userDTO.getEmail());
         user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         user.setRole(userDTO.getRole());
-        return userRepository.save(user);
+        User saved = userRepository.insert(user);
+        suggestionService.addUserEmail(saved.getEmail());
+        invalidationBus.publish(CacheRegion.USER, saved.getEmail().toLowerCase(Locale.ROOT));
+        return saved;
     }
 
     /**
@@ -47,6 +74,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @throws UsernameNotFoundException if the user with the specified email is not found
      */
     @Override
+    @Transactional
     public User updateUser(String email, UserDTO userDTO) {
         User existingUser = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + email + " not found"));
@@ -55,8 +83,58 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         if (userDTO.getPassword() != null && !userDTO.getPassword().isBlank()) {
             existingUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         }
+        Role previousRole = existingUser.getRole();
         existingUser.setRole(userDTO.getRole());
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        recordRoleChange(saved, previousRole);
+        invalidationBus.publish(CacheRegion.USER, saved.getEmail().toLowerCase(Locale.ROOT));
+        invalidationBus.publishAll(CacheRegion.PROJECT_MEMBERS); // project lookups return the members
+        return saved;
+    }
+
+    /**
+     * Applies a JSON merge patch to an existing user.
+     * The patch is applied to a {@link UserDTO} copy of the user and validated like a full update; only the fields
+     * that differ are then set, so the UPDATE lists only their columns. A password in the patch is always hashed
+     * and written. Without any difference, nothing is written or published.
+     *
+     * @param email the email of the user to patch
+     * @param patch the merge patch
+     * @return the patched user
+     * @throws UsernameNotFoundException if the user with the specified email is not found
+     * @throws InvalidPatchException if the patch cannot be applied
+     */
+    @Override
+    @Transactional
+    public User patchUser(String email, JsonNode patch) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User with email " + email + " not found"));
+        UserDTO target = new UserDTO();
+        target.setFirstName(user.getFirstName());
+        target.setLastName(user.getSecondName());
+        target.setEmail(user.getEmail());
+        target.setRole(user.getRole());
+        jsonMergePatcher.apply(patch, target, PATCHABLE_FIELDS);
+        if (patch.has("password") && (target.getPassword() == null || target.getPassword().isBlank())) {
+            throw new InvalidPatchException("Password cannot be removed or blank");
+        }
+
+        boolean renamed = !user.getFirstName().equals(target.getFirstName())
+                || !user.getSecondName().equals(target.getLastName());
+        Role previousRole = user.getRole();
+        if (!renamed && target.getPassword() == null && previousRole == target.getRole()) {
+            return user;
+        }
+        user.setFirstName(target.getFirstName());
+        user.setSecondName(target.getLastName());
+        if (target.getPassword() != null) {
+            user.setPassword(passwordEncoder.encode(target.getPassword()));
+        }
+        user.setRole(target.getRole());
+        recordRoleChange(user, previousRole);
+        invalidationBus.publish(CacheRegion.USER, user.getEmail().toLowerCase(Locale.ROOT));
+        invalidationBus.publishAll(CacheRegion.PROJECT_MEMBERS); // project lookups return the members
+        return user;
     }
 
     /**
@@ -66,10 +144,15 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @throws UsernameNotFoundException if the user with the specified email is not found
      */
     @Override
+    @Transactional
     public void deleteUserByEmail(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + email + " not found"));
         userRepository.delete(user);
+        suggestionService.removeUserEmail(user.getEmail());
+        invalidationBus.publish(CacheRegion.USER, user.getEmail().toLowerCase(Locale.ROOT));
+        invalidationBus.publishAll(CacheRegion.PROJECT_MEMBERS); // the deletion cascades to the memberships
+        auditService.record(AuditAction.USER_DELETED, user.getEmail(), null);
     }
 
     /**
@@ -78,6 +161,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @return a list of all users
      */
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -90,6 +174,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @throws UsernameNotFoundException if the user with the specified email is not found
      */
     @Override
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + email + " not found"));
@@ -104,10 +189,41 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @throws UsernameNotFoundException if the user with the specified email is not found
      */
     @Override
+    @Transactional
     public User updateUserRole(String email, Role newRole) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + email + " not found"));
+        Role previousRole = user.getRole();
         user.setRole(newRole);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        recordRoleChange(saved, previousRole);
+        invalidationBus.publish(CacheRegion.USER, saved.getEmail().toLowerCase(Locale.ROOT));
+        return saved;
+    }
+
+    /**
+     * Suggests user emails starting with the given prefix.
+     *
+     * @param prefix the case-insensitive email prefix
+     * @param limit the maximum number of emails to return, capped at {@value #MAX_SUGGESTIONS}
+     * @return the matching emails in alphabetical order
+     */
+    @Override
+    public List<String> suggestEmails(String prefix, int limit) {
+        return suggestionService.suggestUserEmails(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * Records a {@link OutboxEventType#USER_ROLE_CHANGED} event and audits the change if the role of the user changed.
+     *
+     * @param user the saved user
+     * @param previousRole the role before the update
+     */
+    private void recordRoleChange(User user, Role previousRole) {
+        if (user.getRole() != previousRole) {
+            outboxService.record(OutboxEventType.USER_ROLE_CHANGED, user.getEmail(),
+                    Map.of("email", user.getEmail(), "previousRole", previousRole.name(), "role", user.getRole().name()));
+            auditService.record(AuditAction.ROLE_CHANGED, user.getEmail(), previousRole.name() + " -> " + user.getRole().name());
+        }
     }
 }
@@ -0,0 +1,319 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.audit.AuditAction;
+import com.exalt.training.springsecurity.config.TimedPasswordEncoder;
+import com.exalt.training.springsecurity.dto.UserDTO;
+import com.exalt.training.springsecurity.dto.UserImportResult;
+import com.exalt.training.springsecurity.dto.UserImportResult.Status;
+import com.exalt.training.springsecurity.dto.UserImportSummary;
+import com.exalt.training.springsecurity.importing.UserImportFormat;
+import com.exalt.training.springsecurity.importing.UserImportRow;
+import com.exalt.training.springsecurity.importing.UserRowReader;
+import com.exalt.training.springsecurity.invalidation.CacheRegion;
+import com.exalt.training.springsecurity.invalidation.InvalidationBus;
+import com.exalt.training.springsecurity.model.User;
+import com.exalt.training.springsecurity.service.AuditService;
+import com.exalt.training.springsecurity.service.SuggestionService;
+import com.exalt.training.springsecurity.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the UserImportService interface.
+ * Rows are read in chunks of {@code app.users.import.chunk-size}. For each chunk, invalid rows and emails that
+ * already exist are set aside first, so that no password is hashed for a row that will not be inserted. The
+ * remaining passwords are hashed in parallel on a pool of {@code app.users.import.parallelism} threads (the number
+ * of cores by default) with a BCrypt encoder of their own: the {@code PasswordEncoder} bean may be bounded by
+ * {@code app.security.password-hashing.max-concurrency}, and an import holding its permits would starve sign-in and
+ * sign-up, so the pool is the only bound of the import. The chunk is then written in one transaction: one query
+ * reserving its ids from {@code users_sequence} and one JDBC batch of
+ * {@code INSERT ... ON CONFLICT ((lower(email))) DO NOTHING}, which turns a concurrent insert of the same email into a
+ * duplicate instead of failing the chunk. Any other conflict, such as a taken id, still fails the chunk.
+ */
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+    private static final String EXISTING_EMAILS = "SELECT lower(email) FROM users WHERE lower(email) = ANY (?)";
+    private static final String RESERVE_ID_BLOCKS = "SELECT nextval('users_sequence') FROM generate_series(1, ?)";
+    private static final String INSERT = "INSERT INTO users (id, first_name, second_name, email, password, role)"
+            + " VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT ((lower(email))) DO NOTHING"; // users_email_lower_key only
+    private static final String INSERTED_IDS = "SELECT id FROM users WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final PasswordEncoder passwordEncoder; // not the bean, so imports never take the permits of sign-in
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final SuggestionService suggestionService;
+    private final InvalidationBus invalidationBus;
+    private final AuditService auditService;
+    private final ForkJoinPool hashingPool; // shared by concurrent imports, so hashing never exceeds its parallelism
+    private final int chunkSize;
+    private final int maxRows;
+    private final Map<Status, Counter> rows = new EnumMap<>(Status.class);
+
+    /**
+     * Creates the service and its hashing pool.
+     *
+     * @param jdbcTemplate       the template running the batch inserts
+     * @param transactionManager the transaction manager of the chunks
+     * @param validator          the validator of the rows
+     * @param objectMapper       the mapper reading NDJSON rows
+     * @param suggestionService  the autocomplete index receiving the created emails
+     * @param invalidationBus    the bus publishing the created emails
+     * @param auditService       the audit log
+     * @param parallelism        the number of hashing threads, or 0 for the number of cores
+     * @param chunkSize          the number of rows hashed and inserted together
+     * @param maxRows            the maximum number of rows of one import
+     * @param registry           the meter registry
+     */
+    public UserImportServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 Validator validator, ObjectMapper objectMapper,
+                                 SuggestionService suggestionService, InvalidationBus invalidationBus,
+                                 AuditService auditService,
+                                 @Value("${app.users.import.parallelism:0}") int parallelism,
+                                 @Value("${app.users.import.chunk-size:500}") int chunkSize,
+                                 @Value("${app.users.import.max-rows:10000}") int maxRows,
+                                 MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(), registry);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.suggestionService = suggestionService;
+        this.invalidationBus = invalidationBus;
+        this.auditService = auditService;
+        this.hashingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        for (Status status : Status.values()) {
+            rows.put(status, Counter.builder("app.users.import.rows").tag("status", status.name().toLowerCase(Locale.ROOT))
+                    .description("Rows of bulk user imports by outcome").register(registry));
+        }
+    }
+
+    @Override
+    public UserImportSummary importUsers(InputStream input, UserImportFormat format,
+                                         Consumer<List<UserImportResult>> results) throws IOException {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        List<UserImportRow> chunk = new ArrayList<>(chunkSize);
+        int read = 0;
+        boolean completed = false;
+        try {
+            UserRowReader reader = UserRowReader.of(format,
+                    new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), objectMapper);
+            UserImportRow row;
+            while ((row = reader.next()) != null) {
+                if (++read > maxRows) {
+                    chunk.add(UserImportRow.invalid(row.line(), "An import is limited to " + maxRows + " rows"));
+                    break;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    emit(importChunk(chunk), counts, results);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                emit(importChunk(chunk), counts, results);
+            }
+            completed = true;
+        } finally {
+            // committed chunks stay imported, so an interrupted import is audited with what it created so far
+            UserImportSummary summary = summary(counts);
+            auditService.record(AuditAction.USERS_IMPORTED, null, "created=" + summary.created()
+                    + " duplicates=" + summary.duplicates() + " invalid=" + summary.invalid() + " failed=" + summary.failed()
+                    + (completed ? "" : " aborted"));
+        }
+        return summary(counts);
+    }
+
+    /**
+     * Shuts the hashing pool down with the application context.
+     */
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    private UserImportResult[] importChunk(List<UserImportRow> chunk) {
+        UserImportResult[] results = new UserImportResult[chunk.size()];
+        List<Integer> pending = new ArrayList<>(chunk.size()); // indexes of the rows to insert
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            UserImportRow row = chunk.get(i);
+            String error = row.error() != null ? row.error() : validate(row.user());
+            if (error != null) {
+                results[i] = new UserImportResult(row.line(), row.user() == null ? null : row.user().getEmail(),
+                        Status.INVALID, null, error);
+            } else if (!seen.add(row.user().getEmail().toLowerCase(Locale.ROOT))) {
+                results[i] = duplicate(row);
+            } else {
+                pending.add(i);
+            }
+        }
+        if (pending.isEmpty()) {
+            return results;
+        }
+        try {
+            Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(EXISTING_EMAILS, String.class,
+                    (Object) seen.toArray(String[]::new)));
+            List<UserImportRow> inserts = new ArrayList<>(pending.size());
+            List<Integer> insertIndexes = new ArrayList<>(pending.size());
+            for (int i : pending) {
+                if (existing.contains(chunk.get(i).user().getEmail().toLowerCase(Locale.ROOT))) {
+                    results[i] = duplicate(chunk.get(i));
+                } else {
+                    inserts.add(chunk.get(i));
+                    insertIndexes.add(i);
+                }
+            }
+            pending = insertIndexes;
+            if (!inserts.isEmpty()) {
+                List<String> hashes = hash(inserts.stream().map(row -> row.user().getPassword()).toList());
+                List<Integer> ids = transaction.execute(status -> insert(inserts, hashes));
+                for (int n = 0; n < inserts.size(); n++) {
+                    UserImportRow row = inserts.get(n);
+                    if (ids.get(n) == null) {
+                        results[pending.get(n)] = duplicate(row); // inserted concurrently since the lookup
+                    } else {
+                        results[pending.get(n)] = new UserImportResult(row.line(), row.user().getEmail(), Status.CREATED,
+                                ids.get(n), null);
+                        suggestionService.addUserEmail(row.user().getEmail());
+                        invalidationBus.publish(CacheRegion.USER, row.user().getEmail().toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Bulk import of lines {} to {} failed", chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e);
+            for (int i : pending) {
+                results[i] = new UserImportResult(chunk.get(i).line(), chunk.get(i).user().getEmail(), Status.FAILED,
+                        null, "Could not write the row, import it again");
+            }
+        }
+        return results;
+    }
+
+    private List<String> hash(List<String> passwords) {
+        List<ForkJoinTask<String>> tasks = new ArrayList<>(passwords.size());
+        for (String password : passwords) {
+            tasks.add(hashingPool.submit(() -> passwordEncoder.encode(password)));
+        }
+        return tasks.stream().map(ForkJoinTask::join).toList();
+    }
+
+    /**
+     * Inserts the rows with one JDBC batch.
+     *
+     * @return the id of each row, or null for a row whose email was taken in the meantime
+     */
+    private List<Integer> insert(List<UserImportRow> inserts, List<String> hashes) {
+        List<Integer> ids = reserveIds(inserts.size());
+        List<Object[]> args = new ArrayList<>(inserts.size());
+        for (int n = 0; n < inserts.size(); n++) {
+            UserDTO user = inserts.get(n).user();
+            args.add(new Object[]{ids.get(n), user.getFirstName(), user.getLastName(), user.getEmail(), hashes.get(n),
+                    user.getRole().ordinal()});
+        }
+        Set<Integer> inserted = insertedIds(ids, jdbcTemplate.batchUpdate(INSERT, args));
+        List<Integer> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            result.add(inserted.contains(id) ? id : null);
+        }
+        return result;
+    }
+
+    /**
+     * Reserves ids the way Hibernate's pooled optimizer does: each value {@code v} of the sequence stands for the
+     * block {@code v - 49 .. v}, so the ids never collide with those allocated by the entity manager.
+     */
+    private List<Integer> reserveIds(int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + User.ID_BLOCK_SIZE - 1) / User.ID_BLOCK_SIZE;
+            for (Long high : jdbcTemplate.queryForList(RESERVE_ID_BLOCKS, Long.class, blocks)) {
+                // the first value of a fresh sequence is 1 and stands for itself only
+                for (long id = Math.max(1, high - User.ID_BLOCK_SIZE + 1); id <= high && ids.size() < count; id++) {
+                    ids.add((int) id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Set<Integer> insertedIds(List<Integer> ids, int[] counts) {
+        Set<Integer> inserted = new HashSet<>();
+        for (int n = 0; n < counts.length; n++) {
+            if (counts[n] == Statement.SUCCESS_NO_INFO) {
+                // the driver rewrote the batch and lost the per-row counts: ask the table
+                return new HashSet<>(jdbcTemplate.queryForList(INSERTED_IDS, Integer.class, (Object) ids.toArray(Integer[]::new)));
+            }
+            if (counts[n] > 0) {
+                inserted.add(ids.get(n));
+            }
+        }
+        return inserted;
+    }
+
+    private String validate(UserDTO user) {
+        if (user == null) {
+            return "A row must describe a user";
+        }
+        Set<ConstraintViolation<UserDTO>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (user.getPassword() == null || user.getPassword().isBlank()) {
+            return "Password is required";
+        }
+        return null;
+    }
+
+    private void emit(UserImportResult[] chunkResults, Map<Status, Integer> counts, Consumer<List<UserImportResult>> results) {
+        for (UserImportResult result : chunkResults) {
+            counts.merge(result.status(), 1, Integer::sum);
+            rows.get(result.status()).increment();
+        }
+        results.accept(List.of(chunkResults));
+    }
+
+    private static UserImportSummary summary(Map<Status, Integer> counts) {
+        return new UserImportSummary(counts.getOrDefault(Status.CREATED, 0), counts.getOrDefault(Status.DUPLICATE, 0),
+                counts.getOrDefault(Status.INVALID, 0), counts.getOrDefault(Status.FAILED, 0));
+    }
+
+    private static UserImportResult duplicate(UserImportRow row) {
+        return new UserImportResult(row.line(), row.user().getEmail(), Status.DUPLICATE, null, "Email is already used");
+    }
+}
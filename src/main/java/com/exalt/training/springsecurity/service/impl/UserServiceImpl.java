@@ -1,24 +1,48 @@
 package com.exalt.training.springsecurity.service.impl;
 
+import com.exalt.training.springsecurity.coalescing.SingleFlight;
+import com.exalt.training.springsecurity.model.User;
 import com.exalt.training.springsecurity.repository.UserRepository;
 import com.exalt.training.springsecurity.service.UserService;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Optional;
 
 
 /**
  * Implementation of the UserService interface, providing authentication user-related services.
  */
 @Service
-@RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction; // user lookups are read-only and may be served by a replica
+    private final SingleFlight<String, Optional<User>> userLookups; // coalesces concurrent lookups by email
+
+    /**
+     * Creates the service with a read-only transaction template for user lookups.
+     *
+     * @param userRepository the repository used to load users
+     * @param transactionManager the transaction manager backing the lookups
+     * @param userLookups the single-flight group shared by concurrent lookups of the same email
+     */
+    public UserServiceImpl(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                           SingleFlight<String, Optional<User>> userLookups) {
+        this.userRepository = userRepository;
+        this.userLookups = userLookups;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     /**
-     * Provides an anonymous implementation of UserDetailsService that loads user data by username.
+     * Provides an anonymous implementation of UserDetailsService that loads user data by username
+     * inside a read-only transaction. Concurrent lookups of the same email share one query, so the returned
+     * user may be shared between requests and must not be modified.
      *
      * @return an instance of UserDetailsService.
      */
@@ -27,7 +51,7 @@ public class UserServiceImpl implements UserService {
         return new UserDetailsService() {
             @Override
             public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-                return userRepository.findByEmail(email)
+                return userLookups.execute(email.toLowerCase(Locale.ROOT), () -> readOnlyTransaction.execute(status -> userRepository.findByEmail(email)))
                         .orElseThrow(() -> new UsernameNotFoundException("user not found"));
             }
         };
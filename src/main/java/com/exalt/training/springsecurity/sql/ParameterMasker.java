@@ -0,0 +1,63 @@
+package com.exalt.training.springsecurity.sql;
+
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.time.temporal.Temporal;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Formats JDBC bind parameters for logging without leaking sensitive data.
+ * Numbers, booleans, dates and nulls are printed as they help diagnose a slow query; every other value
+ * (emails, password hashes, titles, free text) is replaced by its type and length.
+ */
+final class ParameterMasker {
+    private static final int MAX_PARAMETER_SETS = 5; // batches only log their first parameter sets
+
+    private ParameterMasker() {
+    }
+
+    /**
+     * Formats the parameter sets of one statement.
+     *
+     * @param parametersList the parameter sets recorded by the datasource proxy
+     * @return the masked parameters, e.g. {@code [(1=42, 2=<String:18>)]}
+     */
+    static String format(List<List<ParameterSetOperation>> parametersList) {
+        StringBuilder text = new StringBuilder("[");
+        int sets = Math.min(parametersList.size(), MAX_PARAMETER_SETS);
+        for (int i = 0; i < sets; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append('(');
+            List<ParameterSetOperation> operations = parametersList.get(i).stream()
+                    .sorted(Comparator.comparing(operation -> String.valueOf(operation.getArgs()[0])))
+                    .toList();
+            for (int j = 0; j < operations.size(); j++) {
+                Object[] args = operations.get(j).getArgs();
+                if (j > 0) {
+                    text.append(", ");
+                }
+                text.append(args[0]).append('=').append(args.length > 1 ? mask(args[1]) : "?");
+            }
+            text.append(')');
+        }
+        if (parametersList.size() > sets) {
+            text.append(", ... ").append(parametersList.size() - sets).append(" more");
+        }
+        return text.append(']').toString();
+    }
+
+    private static String mask(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean
+                || value instanceof Date || value instanceof Temporal) {
+            return String.valueOf(value);
+        }
+        if (value instanceof CharSequence chars) {
+            return "<String:" + chars.length() + ">";
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+}
@@ -0,0 +1,65 @@
+package com.exalt.training.springsecurity.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Filter opening a {@link RequestQueryLog} for each request and flagging likely N+1 patterns:
+ * a statement executed more than {@code app.sql.n-plus-one-threshold} times within one request.
+ * The number of statements per request is published as {@code app.sql.request.statements}.
+ */
+@Slf4j
+public class QueryCountingFilter extends OncePerRequestFilter {
+    private final int repeatThreshold;
+    private final DistributionSummary statementsPerRequest;
+    private final Counter repeatedStatements;
+
+    public QueryCountingFilter(int repeatThreshold, MeterRegistry meterRegistry) {
+        this.repeatThreshold = repeatThreshold;
+        this.statementsPerRequest = DistributionSummary.builder("app.sql.request.statements")
+                .description("SQL statements executed per HTTP request").register(meterRegistry);
+        this.repeatedStatements = Counter.builder("app.sql.repeated.statements")
+                .description("Statements repeated above the N+1 threshold within one request").register(meterRegistry);
+    }
+
+    /**
+     * Counts the statements executed by the request and logs the repeated ones.
+     *
+     * @param request     The HTTP request.
+     * @param response    The HTTP response.
+     * @param filterChain The filter chain to pass the request and response further down the chain.
+     * @throws ServletException In case of servlet-related errors.
+     * @throws IOException      In case of IO-related errors.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryLog queryLog = RequestQueryLog.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryLog.end();
+            statementsPerRequest.record(queryLog.getStatementCount());
+            Map<String, Integer> repeated = queryLog.getRepeatedStatements(repeatThreshold);
+            if (!repeated.isEmpty()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                repeated.forEach((sql, count) -> {
+                    repeatedStatements.increment();
+                    log.warn("n_plus_one method={} uri={} executions={} sql=\"{}\"", request.getMethod(),
+                            pattern != null ? pattern : "UNMAPPED", count, sql);
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.exalt.training.springsecurity.sql;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-request log of the SQL statements executed on the current thread.
+ * A log is opened by {@link #begin()} and closed by {@link #end()}; nested {@code begin} calls join the
+ * outer log, so a test can wrap a whole request and still see what the request filter saw.
+ */
+public final class RequestQueryLog {
+    private static final ThreadLocal<RequestQueryLog> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> counts = new HashMap<>(); // statement text -> executions
+    private int statementCount;
+    private int depth; // nested begin calls sharing this log
+
+    private RequestQueryLog() {
+    }
+
+    /**
+     * Opens a log on the current thread, or joins the one already open.
+     *
+     * @return the active log
+     */
+    public static RequestQueryLog begin() {
+        RequestQueryLog log = CURRENT.get();
+        if (log == null) {
+            log = new RequestQueryLog();
+            CURRENT.set(log);
+        }
+        log.depth++;
+        return log;
+    }
+
+    /**
+     * Leaves the log opened by the matching {@link #begin()}; the outermost call detaches it from the thread.
+     */
+    public static void end() {
+        RequestQueryLog log = CURRENT.get();
+        if (log != null && --log.depth == 0) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Records a statement execution if a log is open on the current thread.
+     *
+     * @param sql the statement text
+     */
+    static void record(String sql) {
+        RequestQueryLog log = CURRENT.get();
+        if (log != null) {
+            log.counts.merge(sql, 1, Integer::sum);
+            log.statementCount++;
+        }
+    }
+
+    /**
+     * Returns whether this log is shared with an enclosing {@link #begin()} call.
+     *
+     * @return true if the log was opened by an outer caller
+     */
+    public boolean isNested() {
+        return depth > 1;
+    }
+
+    /**
+     * Returns the number of statements executed while the log was open.
+     *
+     * @return the statement count
+     */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * Returns the executions of each distinct statement.
+     *
+     * @return an unmodifiable view of the statement counts
+     */
+    public Map<String, Integer> getStatementCounts() {
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Returns the statements executed more than the given number of times, a typical sign of an N+1 pattern.
+     *
+     * @param threshold the highest acceptable number of executions of one statement
+     * @return the repeated statements with their execution counts
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        counts.forEach((sql, count) -> {
+            if (count > threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+}
@@ -0,0 +1,54 @@
+package com.exalt.training.springsecurity.sql;
+
+import com.exalt.training.springsecurity.service.SqlStatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Datasource-proxy listener feeding every executed statement to the aggregated statistics and to the
+ * {@link RequestQueryLog} of the current request. Statements at or above the slow threshold are logged
+ * once, with their bind parameters masked by {@link ParameterMasker}.
+ */
+@Slf4j
+public class SqlStatisticsListener implements QueryExecutionListener {
+    private final SqlStatisticsService sqlStatisticsService;
+    private final long slowThresholdMillis; // statements at or above this duration are logged
+
+    public SqlStatisticsListener(SqlStatisticsService sqlStatisticsService, long slowThresholdMillis) {
+        this.sqlStatisticsService = sqlStatisticsService;
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // timing is taken from the execution info once the statement has completed
+    }
+
+    /**
+     * Records the executed statements. A batch spreads its elapsed time over the statements it contains.
+     *
+     * @param execInfo      the execution details, including the elapsed time
+     * @param queryInfoList the statements and their bind parameters
+     */
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        long share = queryInfoList.isEmpty() ? elapsed : elapsed / queryInfoList.size();
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = queryInfo.getQuery();
+            sqlStatisticsService.record(sql, share);
+            RequestQueryLog.record(sql);
+        }
+        if (elapsed >= slowThresholdMillis) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                log.warn("slow_query elapsed_ms={} success={} batch_size={} sql=\"{}\" params={}", elapsed,
+                        execInfo.isSuccess(), execInfo.getBatchSize(), queryInfo.getQuery(),
+                        ParameterMasker.format(queryInfo.getParametersList()));
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.exalt.training.springsecurity.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Aspect attributing the time spent in repository methods to the {@link TimingPhase#DB} phase.
+ * Registered by {@code ServerTimingConfiguration} only when the instrumentation is enabled.
+ */
+@Aspect
+public class RepositoryTimingAspect {
+
+    /**
+     * Times a repository invocation.
+     *
+     * @param joinPoint the repository call
+     * @return the repository result
+     * @throws Throwable anything thrown by the repository
+     */
+    @Around("execution(* com.exalt.training.springsecurity.repository.*Repository.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = RequestTimings.begin(TimingPhase.DB);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTimings.end(TimingPhase.DB, start);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.exalt.training.springsecurity.timing;
+
+import java.util.Locale;
+
+/**
+ * Per-request accumulator of phase durations, bound to the request thread.
+ * Timings are only collected between {@link #open()} and {@link #close()}; outside of that,
+ * {@link #begin(TimingPhase)} and {@link #end(TimingPhase, long)} cost a single thread-local lookup
+ * and allocate nothing, so call sites can stay in place when the instrumentation is disabled.
+ * Re-entering a phase that is already running is not counted twice.
+ */
+public final class RequestTimings {
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[PHASES.length]; // accumulated time per phase
+    private final int[] counts = new int[PHASES.length]; // completed top-level entries per phase
+    private final int[] depth = new int[PHASES.length]; // nesting level of the running entry per phase
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Starts collecting timings for the request running on the current thread.
+     *
+     * @return the new accumulator
+     */
+    public static RequestTimings open() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Stops collecting timings on the current thread.
+     */
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Marks the start of a phase.
+     *
+     * @param phase the phase being entered
+     * @return the start timestamp to pass to {@link #end(TimingPhase, long)}, or -1 if nothing is recorded
+     */
+    public static long begin(TimingPhase phase) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return -1;
+        }
+        return timings.depth[phase.ordinal()]++ == 0 ? System.nanoTime() : -1;
+    }
+
+    /**
+     * Marks the end of a phase started with {@link #begin(TimingPhase)}.
+     *
+     * @param phase the phase being left
+     * @param start the value returned by the matching {@code begin} call
+     */
+    public static void end(TimingPhase phase, long start) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return;
+        }
+        int index = phase.ordinal();
+        timings.depth[index]--;
+        if (start >= 0) {
+            timings.nanos[index] += System.nanoTime() - start;
+            timings.counts[index]++;
+        }
+    }
+
+    /**
+     * Returns the time elapsed since the accumulator was opened.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Formats the recorded phases and the given total as a {@code Server-Timing} header value.
+     * Phases that never ran are omitted.
+     *
+     * @param totalNanos the total request time
+     * @return the header value, e.g. {@code jwt;dur=0.41;desc="JWT verification", total;dur=12.80}
+     */
+    public String toServerTimingHeader(long totalNanos) {
+        StringBuilder header = new StringBuilder(128);
+        for (TimingPhase phase : PHASES) {
+            int index = phase.ordinal();
+            if (counts[index] > 0) {
+                header.append(phase.getMetricName()).append(";dur=").append(millis(nanos[index]))
+                        .append(";desc=\"").append(phase.getDescription()).append("\", ");
+            }
+        }
+        return header.append("total;dur=").append(millis(totalNanos)).toString();
+    }
+
+    /**
+     * Formats the recorded phases as space-separated {@code key=value} pairs for structured logging.
+     *
+     * @return the pairs, e.g. {@code jwt_ms=0.41 db_ms=3.20 db_count=2}
+     */
+    public String toLogFields() {
+        StringBuilder fields = new StringBuilder(128);
+        for (TimingPhase phase : PHASES) {
+            int index = phase.ordinal();
+            if (fields.length() > 0) {
+                fields.append(' ');
+            }
+            fields.append(phase.getMetricName()).append("_ms=").append(millis(nanos[index]))
+                    .append(' ').append(phase.getMetricName()).append("_count=").append(counts[index]);
+        }
+        return fields.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
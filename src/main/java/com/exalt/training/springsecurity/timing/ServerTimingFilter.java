@@ -0,0 +1,62 @@
+package com.exalt.training.springsecurity.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Filter collecting the phase timings of each request and reporting them in a {@code Server-Timing} header.
+ * The response body is held back so the header can still be added once the body has been serialized, except for
+ * streamed content types (see {@link ServerTimingResponseWrapper}).
+ * Requests slower than the threshold are also logged as {@code key=value} pairs; the path is logged as its
+ * URI template so titles and emails do not end up in the logs.
+ */
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private final long slowThresholdNanos; // requests at or above this total are logged
+
+    public ServerTimingFilter(long slowThresholdNanos) {
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    /**
+     * Opens the timing accumulator for the request, then writes the header and the slow-request log entry.
+     *
+     * @param request     The HTTP request.
+     * @param response    The HTTP response.
+     * @param filterChain The filter chain to pass the request and response further down the chain.
+     * @throws ServletException In case of servlet-related errors.
+     * @throws IOException      In case of IO-related errors.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.open();
+        ServerTimingResponseWrapper wrapper = new ServerTimingResponseWrapper(response,
+                () -> timings.toServerTimingHeader(timings.elapsedNanos()));
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            RequestTimings.close();
+            long total = timings.elapsedNanos();
+            if (total >= slowThresholdNanos) {
+                log.warn("slow_request method={} uri={} status={} total_ms={} {}", request.getMethod(),
+                        uriTemplate(request), wrapper.getStatus(), String.format(Locale.ROOT, "%.2f", total / 1_000_000.0),
+                        timings.toLogFields());
+            }
+            wrapper.finish();
+        }
+    }
+
+    private static String uriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNMAPPED";
+    }
+}
@@ -0,0 +1,182 @@
+package com.exalt.training.springsecurity.timing;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.FastByteArrayOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Response wrapper holding back the body so that the {@code Server-Timing} header can be added with the timings
+ * of the whole request, serialization included. Streamed content types go straight to the client instead: NDJSON
+ * results must arrive as they are produced, and downloads would otherwise be copied into the heap. They get the
+ * header when their body starts, with the timings measured until then.
+ */
+final class ServerTimingResponseWrapper extends HttpServletResponseWrapper {
+    static final String SERVER_TIMING = "Server-Timing";
+    private static final List<MediaType> STREAMED_TYPES = List.of(MediaType.APPLICATION_NDJSON,
+            MediaType.APPLICATION_OCTET_STREAM, MediaType.TEXT_EVENT_STREAM);
+
+    private final Supplier<String> header; // current value of the Server-Timing header
+    private final FastByteArrayOutputStream buffer = new FastByteArrayOutputStream(1024); // held-back body
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private boolean streamed; // whether the body goes straight to the client
+
+    /**
+     * Wraps a response.
+     *
+     * @param response the response to wrap
+     * @param header   computes the header value from the timings measured so far
+     */
+    ServerTimingResponseWrapper(HttpServletResponse response, Supplier<String> header) {
+        super(response);
+        this.header = header;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream == null) {
+            outputStream = startStreaming() ? super.getOutputStream() : new BufferOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            writer = startStreaming() ? super.getWriter()
+                    : new PrintWriter(new OutputStreamWriter(buffer, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (streamed) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        buffer.reset();
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        buffer.reset();
+        super.reset();
+        if (streamed) {
+            super.setHeader(SERVER_TIMING, header.get());
+        }
+    }
+
+    @Override
+    public void sendError(int status) throws IOException {
+        beforeCommit();
+        super.sendError(status);
+    }
+
+    @Override
+    public void sendError(int status, String message) throws IOException {
+        beforeCommit();
+        super.sendError(status, message);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        beforeCommit();
+        super.sendRedirect(location);
+    }
+
+    /**
+     * Adds the header with the final timings and sends the held-back body; streamed responses are already sent.
+     *
+     * @throws IOException if the body cannot be written
+     */
+    void finish() throws IOException {
+        if (streamed) {
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (!response.isCommitted()) {
+            response.setHeader(SERVER_TIMING, header.get());
+        }
+        if (buffer.size() > 0) {
+            buffer.writeTo(response.getOutputStream());
+            buffer.reset();
+        }
+    }
+
+    private boolean startStreaming() {
+        streamed = isStreamed(getContentType());
+        if (streamed) {
+            super.setHeader(SERVER_TIMING, header.get());
+        }
+        return streamed;
+    }
+
+    private void beforeCommit() {
+        buffer.reset();
+        if (!isCommitted()) {
+            super.setHeader(SERVER_TIMING, header.get());
+        }
+    }
+
+    private static boolean isStreamed(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return STREAMED_TYPES.stream().anyMatch(mediaType::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Output stream writing into the held-back body.
+     */
+    private final class BufferOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            buffer.write(bytes, offset, length);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            throw new UnsupportedOperationException("Non-blocking writes are not supported while the body is held back");
+        }
+    }
+}
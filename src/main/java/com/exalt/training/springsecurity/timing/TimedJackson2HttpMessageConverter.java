@@ -0,0 +1,31 @@
+package com.exalt.training.springsecurity.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON message converter attributing response serialization to the {@link TimingPhase#SER} phase.
+ * CBOR and Smile responses are not timed.
+ */
+public class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = RequestTimings.begin(TimingPhase.SER);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestTimings.end(TimingPhase.SER, start);
+        }
+    }
+}
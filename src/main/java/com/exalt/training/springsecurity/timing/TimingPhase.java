@@ -0,0 +1,35 @@
+package com.exalt.training.springsecurity.timing;
+
+/**
+ * Enumeration of the request phases reported in the {@code Server-Timing} header.
+ * Phases may overlap: the user lookup includes the repository query it runs.
+ *
+ * <ul>
+ *     <li>JWT: Token parsing and signature verification.</li>
+ *     <li>USER: Loading the principal named by the token.</li>
+ *     <li>DB: Repository invocations.</li>
+ *     <li>SER: JSON serialization of the response body.</li>
+ * </ul>
+ */
+public enum TimingPhase {
+    JWT("jwt", "JWT verification"), //JwtAuthenticationFilter token checks
+    USER("user", "User lookup"), //JwtAuthenticationFilter principal lookup
+    DB("db", "Repository queries"), //repository calls from any layer
+    SER("ser", "Serialization"); //Jackson message converter
+
+    private final String metricName; // short name used in the header and the slow-request log
+    private final String description;
+
+    TimingPhase(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
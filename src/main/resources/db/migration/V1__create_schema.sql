@@ -0,0 +1,53 @@
+-- Baseline schema for users, projects and project memberships.
+-- Every repository lookup is backed by an index; see RepositoryIndexUsageTests.
+
+CREATE SEQUENCE users_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE projects_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE project_members_sequence START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE users (
+    id          INTEGER      NOT NULL,
+    first_name  VARCHAR(50)  NOT NULL,
+    second_name VARCHAR(50)  NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    role        SMALLINT     NOT NULL CHECK (role BETWEEN 0 AND 2),
+    CONSTRAINT users_pkey PRIMARY KEY (id)
+);
+
+-- UserRepository.findByEmail compares lower(email); this index also enforces case-insensitive uniqueness.
+CREATE UNIQUE INDEX users_email_lower_key ON users (lower(email));
+-- UserRepository.existsByRole, used at startup by CEOConfiguration.
+CREATE INDEX users_role_idx ON users (role);
+
+CREATE TABLE projects (
+    id          INTEGER      NOT NULL,
+    title       VARCHAR(100) NOT NULL,
+    company     VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    status      VARCHAR(255) NOT NULL,
+    CONSTRAINT projects_pkey PRIMARY KEY (id),
+    CONSTRAINT projects_title_key UNIQUE (title)
+);
+
+-- Status and company filters.
+CREATE INDEX projects_status_company_idx ON projects (status, company);
+-- Full-text search (app.search.mode=postgres); the expression must match ProjectRepository.SEARCH_VECTOR.
+CREATE INDEX projects_search_idx ON projects USING GIN ((
+    setweight(to_tsvector('english', coalesce(title, '')), 'A')
+    || setweight(to_tsvector('english', coalesce(company, '')), 'B')
+    || setweight(to_tsvector('english', coalesce(description, '')), 'C')
+));
+
+CREATE TABLE project_members (
+    id         INTEGER  NOT NULL,
+    project_id INTEGER  NOT NULL REFERENCES projects (id) ON DELETE CASCADE,
+    user_id    INTEGER  NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    role       SMALLINT NOT NULL CHECK (role BETWEEN 0 AND 2),
+    CONSTRAINT project_members_pkey PRIMARY KEY (id),
+    -- also serves member lookups by project
+    CONSTRAINT project_members_project_user_key UNIQUE (project_id, user_id)
+);
+
+-- ProjectRepository.findAllByMemberEmail and cascading user deletes.
+CREATE INDEX project_members_user_id_idx ON project_members (user_id);
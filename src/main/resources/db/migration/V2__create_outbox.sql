@@ -0,0 +1,18 @@
+-- Transactional outbox: change events written in the transaction of the change and drained by OutboxDispatcher.
+-- Delivered events are deleted, so the table only holds the backlog.
+
+CREATE TABLE outbox_events (
+    id              BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    aggregate_type  VARCHAR(32)  NOT NULL,
+    aggregate_id    VARCHAR(255) NOT NULL,
+    event_type      VARCHAR(64)  NOT NULL,
+    payload         TEXT         NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_error      VARCHAR(1000),
+    CONSTRAINT outbox_events_pkey PRIMARY KEY (id)
+);
+
+-- OutboxEventRepository.lockDueBatch: due events in order, claimed with FOR UPDATE SKIP LOCKED.
+CREATE INDEX outbox_events_next_attempt_idx ON outbox_events (next_attempt_at, id);
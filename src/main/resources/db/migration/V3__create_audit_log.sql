@@ -0,0 +1,27 @@
+-- Append-only audit log of security and admin actions, written in batches by AuditServiceImpl.
+
+CREATE TABLE audit_events (
+    id          BIGINT       GENERATED ALWAYS AS IDENTITY,
+    occurred_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    action      VARCHAR(32)  NOT NULL,
+    actor       VARCHAR(100) NOT NULL,
+    target      VARCHAR(255),
+    details     VARCHAR(500),
+    CONSTRAINT audit_events_pkey PRIMARY KEY (id)
+);
+
+-- Time-range queries of GET /exalt/training/admin/audit, newest first.
+CREATE INDEX audit_events_occurred_at_idx ON audit_events (occurred_at);
+-- The same queries filtered by actor.
+CREATE INDEX audit_events_actor_occurred_at_idx ON audit_events (actor, occurred_at);
+
+-- Audit rows are never changed or removed by the application.
+CREATE FUNCTION audit_events_append_only() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'audit_events is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER audit_events_append_only
+    BEFORE UPDATE OR DELETE ON audit_events
+    FOR EACH ROW EXECUTE FUNCTION audit_events_append_only();
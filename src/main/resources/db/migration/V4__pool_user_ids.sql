@@ -0,0 +1,5 @@
+-- User ids are allocated by Hibernate in blocks of 50 (pooled optimizer), so an insert no longer needs its own
+-- nextval round trip. The increment must match the allocationSize of User. Raw inserts calling nextval directly
+-- stay safe: each call reserves a whole block.
+
+ALTER SEQUENCE users_sequence INCREMENT BY 50;
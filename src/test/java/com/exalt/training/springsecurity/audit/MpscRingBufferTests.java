@@ -0,0 +1,73 @@
+package com.exalt.training.springsecurity.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpscRingBufferTests {
+
+	@Test
+	void capacityIsRoundedUpToAPowerOfTwo() {
+		assertThat(new MpscRingBuffer<String>(1000).capacity()).isEqualTo(1024);
+		assertThat(new MpscRingBuffer<String>(8).capacity()).isEqualTo(8);
+		assertThatThrownBy(() -> new MpscRingBuffer<String>(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void offerFailsWhenFullAndSucceedsOnceDrained() {
+		MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(buffer.offer(i)).isTrue();
+		}
+		assertThat(buffer.offer(4)).isFalse();
+
+		List<Integer> drained = new ArrayList<>();
+		assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+		assertThat(drained).containsExactly(0, 1, 2);
+		assertThat(buffer.offer(5)).isTrue();
+		assertThat(buffer.drainTo(drained, 10)).isEqualTo(2);
+		assertThat(drained).containsExactly(0, 1, 2, 3, 5);
+		assertThat(buffer.size()).isZero();
+	}
+
+	@Test
+	void concurrentProducersLoseNothingTheyWereAllowedToAdd() throws Exception {
+		int producers = 4;
+		int perProducer = 50_000;
+		MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1024);
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		CountDownLatch done = new CountDownLatch(producers);
+		for (int p = 0; p < producers; p++) {
+			int base = p * perProducer;
+			executor.execute(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					while (!buffer.offer(base + i)) {
+						Thread.onSpinWait();
+					}
+				}
+				done.countDown();
+			});
+		}
+		Set<Integer> consumed = new HashSet<>();
+		List<Integer> batch = new ArrayList<>();
+		while (consumed.size() < producers * perProducer) {
+			batch.clear();
+			buffer.drainTo(batch, 256);
+			consumed.addAll(batch);
+		}
+		assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+		executor.shutdown();
+		assertThat(consumed).hasSize(producers * perProducer);
+		assertThat(buffer.size()).isZero();
+	}
+}
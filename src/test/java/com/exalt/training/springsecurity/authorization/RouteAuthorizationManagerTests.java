@@ -0,0 +1,100 @@
+package com.exalt.training.springsecurity.authorization;
+
+import com.exalt.training.springsecurity.config.SecurityConfiguration;
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteAuthorizationManagerTests {
+
+	private final RouteAuthorizationManager manager = new RouteAuthorizationManager(SecurityConfiguration.routeAuthorizationTable());
+
+	@Test
+	void rolesAreCheckedOnTemplates() {
+		assertThat(granted(Role.TeamLeader, "GET", "/exalt/training/users/retrieve/maria@gmail.com")).isTrue();
+		assertThat(granted(Role.TeamMember, "GET", "/exalt/training/users/retrieve/maria@gmail.com")).isFalse();
+		assertThat(granted(Role.TeamMember, "GET", "/exalt/training/projects/retrieve/Apollo")).isTrue();
+	}
+
+	@Test
+	void encodedSegmentsMatchTheDecodedRoute() {
+		assertThat(granted(Role.TeamMember, "GET", "/exalt/training/users/%61ll")).isFalse();
+		assertThat(granted(Role.TeamLeader, "GET", "/exalt/training/users/%61ll")).isFalse();
+		assertThat(granted(Role.CEO, "GET", "/exalt/training/users/%61ll")).isTrue();
+		assertThat(granted(Role.TeamMember, "GET", "/exalt/training/%61dmin/sql-stats")).isFalse();
+	}
+
+	@Test
+	void pathParametersDoNotHideTheRoute() {
+		assertThat(granted(Role.TeamMember, "GET", "/exalt/training/users/all;x=y")).isFalse();
+		assertThat(granted(Role.CEO, "GET", "/exalt/training/users/all;x=y")).isTrue();
+	}
+
+	@Test
+	void contextPathIsStripped() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/exalt/training/users/all");
+		request.setContextPath("/app");
+
+		assertThat(check(user(Role.CEO), request)).isTrue();
+		assertThat(check(user(Role.TeamLeader), request)).isFalse();
+	}
+
+	@Test
+	void methodMismatchFallsBackToTheDefaultRule() {
+		assertThat(granted(Role.CEO, "POST", "/exalt/training/users/all")).isFalse();
+		assertThat(granted(Role.CEO, "GET", "/exalt/training/projects/create")).isFalse();
+	}
+
+	@Test
+	void unmatchedRoutesAreDeniedEvenToTheCeo() {
+		assertThat(granted(Role.CEO, "GET", "/exalt/training/unknown")).isFalse();
+		assertThat(granted(Role.CEO, "GET", "/")).isFalse();
+	}
+
+	@Test
+	void openRoutesNeedNoAuthentication() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/exalt/training/security/auth/signin");
+
+		assertThat(manager.check(() -> {
+			throw new AssertionError("authentication must not be resolved");
+		}, new RequestAuthorizationContext(request)).isGranted()).isTrue();
+	}
+
+	@Test
+	void anonymousRequestsAreDeniedOnProtectedRoutes() {
+		Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymous",
+				AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+		assertThat(check(anonymous, new MockHttpServletRequest("GET", "/exalt/training/projects/all"))).isFalse();
+	}
+
+	@Test
+	void metricsAreRestrictedToTheCeo() {
+		assertThat(granted(Role.CEO, "GET", "/actuator/prometheus")).isTrue();
+		assertThat(granted(Role.TeamLeader, "GET", "/actuator/prometheus")).isFalse();
+		assertThat(manager.check(() -> null, new RequestAuthorizationContext(
+				new MockHttpServletRequest("GET", "/actuator/prometheus"))).isGranted()).isFalse();
+		assertThat(check(user(Role.TeamMember), new MockHttpServletRequest("GET", "/actuator/health/readiness"))).isTrue();
+	}
+
+	private boolean granted(Role role, String method, String uri) {
+		return check(user(role), new MockHttpServletRequest(method, uri));
+	}
+
+	private boolean check(Authentication authentication, MockHttpServletRequest request) {
+		return manager.check(() -> authentication, new RequestAuthorizationContext(request)).isGranted();
+	}
+
+	private static Authentication user(Role role) {
+		User user = new User(1, "maria", "Abu Sammour", "maria@gmail.com", "secret", role);
+		return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+	}
+}
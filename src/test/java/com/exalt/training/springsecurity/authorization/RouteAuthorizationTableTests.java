@@ -0,0 +1,75 @@
+package com.exalt.training.springsecurity.authorization;
+
+import com.exalt.training.springsecurity.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteAuthorizationTableTests {
+
+	private static final RouteRule CEO = RouteRule.hasAnyRole(Role.CEO);
+	private static final RouteRule LEADERS = RouteRule.hasAnyRole(Role.CEO, Role.TeamLeader);
+
+	private final RouteAuthorizationTable table = RouteAuthorizationTable.builder()
+			.route(null, "/auth/**", RouteRule.PERMIT_ALL)
+			.route(HttpMethod.GET, "/users/all", CEO)
+			.route(HttpMethod.GET, "/users/retrieve/{email}", LEADERS)
+			.route(HttpMethod.DELETE, "/users/delete/{email}", CEO)
+			.route(null, "/admin/**", CEO)
+			.build();
+
+	@Test
+	void literalRoutesMatchTheirMethodOnly() {
+		assertThat(table.lookup("GET", "/users/all")).isSameAs(CEO);
+		assertThat(table.lookup("POST", "/users/all")).isSameAs(RouteRule.DENY_ALL);
+	}
+
+	@Test
+	void headInheritsTheGetRule() {
+		assertThat(table.lookup("HEAD", "/users/all")).isSameAs(CEO);
+	}
+
+	@Test
+	void templatesMatchExactlyOneSegment() {
+		assertThat(table.lookup("GET", "/users/retrieve/maria@gmail.com")).isSameAs(LEADERS);
+		assertThat(table.lookup("GET", "/users/retrieve")).isSameAs(RouteRule.DENY_ALL);
+		assertThat(table.lookup("GET", "/users/retrieve/maria@gmail.com/extra")).isSameAs(RouteRule.DENY_ALL);
+		assertThat(table.lookup("GET", "/users/delete/maria@gmail.com")).isSameAs(RouteRule.DENY_ALL);
+	}
+
+	@Test
+	void restTemplatesMatchAnyMethodAndDepth() {
+		assertThat(table.lookup("POST", "/auth/signin")).isSameAs(RouteRule.PERMIT_ALL);
+		assertThat(table.lookup("GET", "/admin/profiling/42")).isSameAs(CEO);
+		assertThat(table.lookup("DELETE", "/admin")).isSameAs(CEO);
+	}
+
+	@Test
+	void repeatedAndTrailingSlashesAreIgnored() {
+		assertThat(table.lookup("GET", "//users//all/")).isSameAs(CEO);
+	}
+
+	@Test
+	void unmatchedRoutesAreDeniedByDefault() {
+		assertThat(table.lookup("GET", "/unknown")).isSameAs(RouteRule.DENY_ALL);
+		assertThat(table.lookup("GET", "/")).isSameAs(RouteRule.DENY_ALL);
+		assertThat(RouteRule.DENY_ALL.isGranted(null)).isFalse();
+	}
+
+	@Test
+	void defaultRuleCanBeReplaced() {
+		RouteAuthorizationTable open = RouteAuthorizationTable.builder()
+				.defaultRule(RouteRule.AUTHENTICATED)
+				.build();
+
+		assertThat(open.lookup("GET", "/unknown")).isSameAs(RouteRule.AUTHENTICATED);
+	}
+
+	@Test
+	void restMustBeTheLastSegment() {
+		assertThatThrownBy(() -> RouteAuthorizationTable.builder().route(null, "/a/**/b", CEO))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
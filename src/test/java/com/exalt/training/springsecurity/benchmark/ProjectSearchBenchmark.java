@@ -0,0 +1,81 @@
+package com.exalt.training.springsecurity.benchmark;
+
+import com.exalt.training.springsecurity.search.InvertedIndex;
+import com.exalt.training.springsecurity.search.Tokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a search of the in-memory {@link InvertedIndex}, tokenizing included, against the target of under 10 ms
+ * per query. Projects are generated from a fixed vocabulary in which a few words are very common, so that
+ * broad queries score a large share of the index. Sample mode reports the percentiles of single queries; run
+ * {@link #main(String[])} from the test classpath and check {@code p0.99} of the largest index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectSearchBenchmark {
+
+	private static final String[] COMMON_WORDS = {"platform", "migration", "data", "cloud"};
+	private static final int VOCABULARY_SIZE = 20_000;
+	private static final int WORDS_PER_PROJECT = 40;
+
+	@Param({"10000", "100000"})
+	private int projects;
+
+	@Param({"payment gateway", "cloud data platform migration"})
+	private String query;
+
+	private final InvertedIndex index = new InvertedIndex();
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		for (int id = 1; id <= projects; id++) {
+			Map<String, Float> terms = new HashMap<>();
+			terms.merge(COMMON_WORDS[random.nextInt(COMMON_WORDS.length)], 3.0f, Float::sum);
+			for (int word = 0; word < WORDS_PER_PROJECT; word++) {
+				// skewed draw: low word numbers appear in many projects, high ones in few
+				int rank = (int) Math.pow(VOCABULARY_SIZE, random.nextDouble());
+				terms.merge("w" + rank, 1.0f, Float::sum);
+			}
+			if (id % 100 == 0) {
+				terms.merge("payment", 3.0f, Float::sum);
+				terms.merge("gateway", 2.0f, Float::sum);
+			}
+			index.put(id, terms);
+		}
+	}
+
+	@Benchmark
+	public List<Integer> search() {
+		return index.search(Tokenizer.tokenize(query), 20);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ProjectSearchBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,102 @@
+package com.exalt.training.springsecurity.benchmark;
+
+import com.exalt.training.springsecurity.dto.ProjectMemberResponse;
+import com.exalt.training.springsecurity.dto.ProjectResponse;
+import com.exalt.training.springsecurity.model.ProjectRole;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time and size of encoding a {@code /projects/all} response as JSON, CBOR and Smile, with the
+ * Blackbird module the application registers. The {@code bytes} counter reports the payload size of each format.
+ * Run {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+	private static final int MEMBERS_PER_PROJECT = 5;
+
+	@Param({"10", "200"})
+	private int projects;
+
+	private final ObjectMapper jsonMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+	private final ObjectMapper cborMapper = new CBORMapper().registerModule(new BlackbirdModule());
+	private final ObjectMapper smileMapper = new SmileMapper().registerModule(new BlackbirdModule());
+	private List<ProjectResponse> response;
+
+	/**
+	 * Payload size of the last encoding; assigned rather than accumulated, so it reports the size of one response.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Payload {
+		public long bytes;
+	}
+
+	@Setup
+	public void setup() {
+		response = new ArrayList<>(projects);
+		for (int p = 0; p < projects; p++) {
+			List<ProjectMemberResponse> members = new ArrayList<>(MEMBERS_PER_PROJECT);
+			for (int m = 0; m < MEMBERS_PER_PROJECT; m++) {
+				members.add(new ProjectMemberResponse("member" + m + "@exalt.com", m == 0 ? ProjectRole.Owner : ProjectRole.Member));
+			}
+			response.add(new ProjectResponse(p, "project-" + p, "exalt", "Migration of the billing platform " + p,
+					"pending", members));
+		}
+	}
+
+	@Benchmark
+	public byte[] json(Payload payload) throws JsonProcessingException {
+		return measure(jsonMapper, payload);
+	}
+
+	@Benchmark
+	public byte[] cbor(Payload payload) throws JsonProcessingException {
+		return measure(cborMapper, payload);
+	}
+
+	@Benchmark
+	public byte[] smile(Payload payload) throws JsonProcessingException {
+		return measure(smileMapper, payload);
+	}
+
+	private byte[] measure(ObjectMapper mapper, Payload payload) throws JsonProcessingException {
+		byte[] bytes = mapper.writeValueAsBytes(response);
+		payload.bytes = bytes.length;
+		return bytes;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ResponseFormatBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
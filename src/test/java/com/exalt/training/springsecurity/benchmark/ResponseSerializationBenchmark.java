@@ -0,0 +1,89 @@
+package com.exalt.training.springsecurity.benchmark;
+
+import com.exalt.training.springsecurity.dto.UserResponse;
+import com.exalt.training.springsecurity.mapper.UserMapper;
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing the {@link User} entity, as the controllers used to, with serializing the
+ * {@link UserResponse} DTO with and without the Blackbird module.
+ * Run {@link #main(String[])} from the test classpath; the GC profiler reports allocations per operation
+ * ({@code gc.alloc.rate.norm}) and the {@code bytes} counter reports the payload size of each variant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+	private final ObjectMapper reflectionMapper = new ObjectMapper();
+	private final ObjectMapper blackbirdMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+	private User user;
+	private UserResponse response;
+
+	/**
+	 * Payload size of the last serialization; assigned rather than accumulated, so it reports the size of one payload.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Payload {
+		public long bytes;
+	}
+
+	@Setup
+	public void setup() {
+		user = new User(42, "maria", "Abu Sammour", "maria@gmail.com",
+				"$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1H6CXtT8cn5m9Z1rKQ0U1a.", Role.TeamLeader);
+		response = new UserMapper().toResponse(user);
+	}
+
+	@Benchmark
+	public byte[] userEntity(Payload payload) throws JsonProcessingException {
+		return measure(reflectionMapper, user, payload);
+	}
+
+	@Benchmark
+	public byte[] userResponse(Payload payload) throws JsonProcessingException {
+		return measure(reflectionMapper, response, payload);
+	}
+
+	@Benchmark
+	public byte[] userResponseBlackbird(Payload payload) throws JsonProcessingException {
+		return measure(blackbirdMapper, response, payload);
+	}
+
+	private static byte[] measure(ObjectMapper mapper, Object value, Payload payload) throws JsonProcessingException {
+		byte[] bytes = mapper.writeValueAsBytes(value);
+		payload.bytes = bytes.length;
+		return bytes;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ResponseSerializationBenchmark.class.getSimpleName())
+				.addProfiler("gc")
+				.build()).run();
+	}
+}
@@ -0,0 +1,122 @@
+package com.exalt.training.springsecurity.benchmark;
+
+import com.exalt.training.springsecurity.authorization.RouteAuthorizationManager;
+import com.exalt.training.springsecurity.config.SecurityConfiguration;
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the per-request authorization cost of the former linear list of request matchers, tried in
+ * declaration order, with the compiled {@link RouteAuthorizationManager} table.
+ * Both are evaluated the way the filter chain evaluates them, including the {@code getAuthorities()} call
+ * of the role check. Run {@link #main(String[])} from the test classpath; use {@code -prof gc} to compare
+ * allocations per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteAuthorizationBenchmark {
+
+	private static final String CEO = Role.CEO.name();
+	private static final String LEADER = Role.TeamLeader.name();
+	private static final String MEMBER = Role.TeamMember.name();
+
+	@Param({"GET /exalt/training/projects/retrieve/alpha", "PUT /exalt/training/users/update-role/bob@test.com",
+			"GET /exalt/training/unknown"})
+	public String route;
+
+	private AuthorizationManager<HttpServletRequest> linear;
+	private RouteAuthorizationManager compiled;
+	private HttpServletRequest request;
+	private RequestAuthorizationContext context;
+	private Supplier<Authentication> authentication;
+
+	@Setup
+	public void setup() {
+		linear = RequestMatcherDelegatingAuthorizationManager.builder()
+				.add(new AntPathRequestMatcher("/exalt/training/security/auth/**"), (a, c) -> new AuthorizationDecision(true))
+				.add(new AntPathRequestMatcher("/actuator/health/**"), (a, c) -> new AuthorizationDecision(true))
+				.add(new AntPathRequestMatcher("/actuator/prometheus"), (a, c) -> new AuthorizationDecision(true))
+				.add(new AntPathRequestMatcher("/actuator/**"), AuthorityAuthorizationManager.hasAuthority(CEO))
+				.add(new AntPathRequestMatcher("/exalt/training/admin/**"), AuthorityAuthorizationManager.hasAuthority(CEO))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/create"), AuthorityAuthorizationManager.hasAuthority(CEO))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/update/{title}"), AuthorityAuthorizationManager.hasAuthority(CEO))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/update-status/{title}"), AuthorityAuthorizationManager.hasAnyAuthority(CEO, LEADER))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/delete/{title}"), AuthorityAuthorizationManager.hasAuthority(CEO))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/all"), AuthorityAuthorizationManager.hasAnyAuthority(CEO, LEADER, MEMBER))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/retrieve/{title}"), AuthorityAuthorizationManager.hasAnyAuthority(CEO, LEADER, MEMBER))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/mine"), AuthorityAuthorizationManager.hasAnyAuthority(CEO, LEADER, MEMBER))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/add-member/{title}"), AuthorityAuthorizationManager.hasAnyAuthority(CEO, LEADER))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/remove-member/{title}"), AuthorityAuthorizationManager.hasAnyAuthority(CEO, LEADER))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/search"), AuthorityAuthorizationManager.hasAnyAuthority(CEO, LEADER, MEMBER))
+				.add(new AntPathRequestMatcher("/exalt/training/projects/suggest"), AuthorityAuthorizationManager.hasAnyAuthority(CEO, LEADER, MEMBER))
+				.add(new AntPathRequestMatcher("/exalt/training/users/all"), AuthorityAuthorizationManager.hasAuthority(CEO))
+				.add(new AntPathRequestMatcher("/exalt/training/users/retrieve/{email}"), AuthorityAuthorizationManager.hasAnyAuthority(CEO, LEADER))
+				.add(new AntPathRequestMatcher("/exalt/training/users/suggest"), AuthorityAuthorizationManager.hasAnyAuthority(CEO, LEADER))
+				.add(new AntPathRequestMatcher("/exalt/training/users/create"), AuthorityAuthorizationManager.hasAuthority(CEO))
+				.add(new AntPathRequestMatcher("/exalt/training/users/update/{email}"), AuthorityAuthorizationManager.hasAuthority(CEO))
+				.add(new AntPathRequestMatcher("/exalt/training/users/delete/{email}"), AuthorityAuthorizationManager.hasAuthority(CEO))
+				.add(new AntPathRequestMatcher("/exalt/training/users/update-role/{email}"), AuthorityAuthorizationManager.hasAuthority(CEO))
+				.add(AnyRequestMatcher.INSTANCE, AuthenticatedAuthorizationManager.authenticated())
+				.build();
+		compiled = new RouteAuthorizationManager(SecurityConfiguration.routeAuthorizationTable());
+
+		String[] parts = route.split(" ");
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(parts[0], parts[1]);
+		mockRequest.setServletPath(parts[1]);
+		request = mockRequest;
+		context = new RequestAuthorizationContext(request);
+		User user = new User(1, "maria", "Abu Sammour", "maria@gmail.com", "secret", Role.CEO);
+		Authentication token = UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+		authentication = () -> token;
+	}
+
+	@Benchmark
+	public AuthorizationDecision linearMatchers() {
+		return linear.check(authentication, request);
+	}
+
+	@Benchmark
+	public AuthorizationDecision compiledTable() {
+		return compiled.check(authentication, context);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(RouteAuthorizationBenchmark.class.getSimpleName())
+				.addProfiler("gc")
+				.build()).run();
+	}
+}
@@ -0,0 +1,134 @@
+package com.exalt.training.springsecurity.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs concurrent lookups against a slow supplier released by a latch.
+ */
+class SingleFlightTests {
+
+	private static final int CALLERS = 8;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+	private final AtomicInteger lookups = new AtomicInteger();
+	private final CountDownLatch started = new CountDownLatch(CALLERS);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void shutDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersShareOneLookup() throws Exception {
+		SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(10), true, registry);
+		List<Future<String>> results = submit(singleFlight, () -> "value");
+		awaitFollowers(singleFlight);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		}
+		assertThat(lookups).hasValue(1);
+		assertThat(count("leader")).isEqualTo(1);
+		assertThat(count("coalesced")).isEqualTo(CALLERS - 1);
+		assertThat(singleFlight.inFlightCount()).isZero();
+	}
+
+	@Test
+	void failureIsRethrownToEveryCaller() throws Exception {
+		SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(10), true, registry);
+		List<Future<String>> results = submit(singleFlight, () -> {
+			throw new IllegalArgumentException("not found");
+		});
+		awaitFollowers(singleFlight);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+					.isInstanceOf(ExecutionException.class)
+					.hasCauseInstanceOf(IllegalArgumentException.class);
+		}
+		assertThat(lookups).hasValue(1);
+		assertThat(singleFlight.inFlightCount()).isZero();
+	}
+
+	@Test
+	void followerRunsItsOwnLookupAfterMaxWait() throws Exception {
+		SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofMillis(50), true, registry);
+		Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+			lookups.incrementAndGet();
+			await();
+			return "leader";
+		}));
+		while (lookups.get() == 0) {
+			Thread.onSpinWait();
+		}
+
+		assertThat(singleFlight.execute("key", () -> "follower")).isEqualTo("follower");
+		assertThat(count("timeout")).isEqualTo(1);
+		release.countDown();
+		assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+	}
+
+	@Test
+	void disabledGroupRunsEveryLookup() {
+		SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(1), false, registry);
+		singleFlight.execute("key", () -> String.valueOf(lookups.incrementAndGet()));
+		singleFlight.execute("key", () -> String.valueOf(lookups.incrementAndGet()));
+
+		assertThat(lookups).hasValue(2);
+		assertThat(count("leader")).isZero();
+	}
+
+	private List<Future<String>> submit(SingleFlight<String, String> singleFlight, Supplier<String> value) {
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(executor.submit(() -> {
+				started.countDown();
+				return singleFlight.execute("key", () -> {
+					lookups.incrementAndGet();
+					await();
+					return value.get();
+				});
+			}));
+		}
+		return results;
+	}
+
+	private void awaitFollowers(SingleFlight<String, String> singleFlight) throws InterruptedException {
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		Thread.sleep(100); // leaves the last callers time to join the lookup, which blocks until released
+		assertThat(singleFlight.inFlightCount()).isEqualTo(1);
+	}
+
+	private void await() {
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private double count(String outcome) {
+		return registry.get("app.single-flight.calls").tag("outcome", outcome).counter().count();
+	}
+}
@@ -0,0 +1,68 @@
+package com.exalt.training.springsecurity.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between two in-memory H2 databases that each know their own name.
+ */
+class ReadWriteRoutingDataSourceTests {
+
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primary = database("primary");
+		DataSource replica = database("replica");
+		ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource();
+		routingDataSource.setTargetDataSources(Map.of(
+				ReadWriteRoutingDataSource.Target.PRIMARY, primary,
+				ReadWriteRoutingDataSource.Target.REPLICA, replica));
+		routingDataSource.setDefaultTargetDataSource(primary);
+		routingDataSource.afterPropertiesSet();
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplica() {
+		transactionTemplate.setReadOnly(true);
+		assertThat(transactionTemplate.execute(status -> databaseName())).isEqualTo("replica");
+	}
+
+	@Test
+	void readWriteTransactionsUseThePrimary() {
+		assertThat(transactionTemplate.execute(status -> databaseName())).isEqualTo("primary");
+	}
+
+	@Test
+	void statementsOutsideTransactionsUseThePrimary() {
+		assertThat(databaseName()).isEqualTo("primary");
+	}
+
+	private String databaseName() {
+		return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+	}
+
+	private static DataSource database(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+		jdbc.update("DELETE FROM node");
+		jdbc.update("INSERT INTO node VALUES (?)", name);
+		return dataSource;
+	}
+}
@@ -0,0 +1,132 @@
+package com.exalt.training.springsecurity.controller;
+
+import com.exalt.training.springsecurity.dto.ProjectDTO;
+import com.exalt.training.springsecurity.model.ProjectRole;
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
+import com.exalt.training.springsecurity.repository.ProjectRepository;
+import com.exalt.training.springsecurity.repository.UserRepository;
+import com.exalt.training.springsecurity.service.JWTService;
+import com.exalt.training.springsecurity.service.ProjectService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Negotiates the {@code /projects/all} response as JSON, CBOR and Smile and checks that the binary formats
+ * carry the same document in fewer bytes. {@code ResponseFormatBenchmark} measures the encoding time.
+ */
+@SpringBootTest(properties = "app.concurrency.enabled=false")
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class ContentNegotiationTests {
+
+	private static final String DOMAIN = "@formats.test";
+	private static final String TITLE_PREFIX = "formats-";
+	private static final String PROJECTS = "/exalt/training/projects/all";
+	private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private ProjectService projectService;
+
+	@Autowired
+	private JWTService jwtService;
+
+	private String token;
+
+	@BeforeEach
+	void seed() {
+		User ceo = userRepository.save(new User(null, "ceo", "formats", "ceo" + DOMAIN, "secret", Role.CEO));
+		for (int m = 0; m < 3; m++) {
+			userRepository.save(new User(null, "member" + m, "formats", "member" + m + DOMAIN, "secret", Role.TeamMember));
+		}
+		for (int p = 0; p < 10; p++) {
+			ProjectDTO project = new ProjectDTO();
+			project.setTitle(TITLE_PREFIX + p);
+			project.setCompany("exalt");
+			project.setDescription("Migration of the billing platform " + p);
+			project.setStatus("pending");
+			projectService.createProject(project);
+			projectService.addMember(project.getTitle(), ceo.getEmail(), ProjectRole.Owner, ceo);
+			for (int m = 0; m < 3; m++) {
+				projectService.addMember(project.getTitle(), "member" + m + DOMAIN, ProjectRole.Member, ceo);
+			}
+		}
+		token = jwtService.generateToken(ceo);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		projectRepository.findAllTitles().stream()
+				.filter(title -> title.startsWith(TITLE_PREFIX))
+				.forEach(projectService::deleteProjectByTitle);
+		userRepository.deleteAll(userRepository.findAll().stream()
+				.filter(user -> user.getEmail().endsWith(DOMAIN))
+				.toList());
+	}
+
+	@Test
+	void jsonIsTheDefault() throws Exception {
+		MvcResult result = fetch(MediaType.ALL);
+
+		assertThat(MediaType.parseMediaType(result.getResponse().getContentType()).isCompatibleWith(MediaType.APPLICATION_JSON)).isTrue();
+	}
+
+	@Test
+	void cborAndSmileAreNegotiatedFromTheAcceptHeader() throws Exception {
+		MvcResult cbor = fetch(CBOR);
+		MvcResult smile = fetch(SMILE);
+
+		assertThat(MediaType.parseMediaType(cbor.getResponse().getContentType()).isCompatibleWith(CBOR)).isTrue();
+		assertThat(MediaType.parseMediaType(smile.getResponse().getContentType()).isCompatibleWith(SMILE)).isTrue();
+	}
+
+	@Test
+	void binaryFormatsCarryTheSameDocumentInFewerBytes() throws Exception {
+		byte[] json = fetch(MediaType.APPLICATION_JSON).getResponse().getContentAsByteArray();
+		byte[] cbor = fetch(CBOR).getResponse().getContentAsByteArray();
+		byte[] smile = fetch(SMILE).getResponse().getContentAsByteArray();
+
+		JsonNode document = new ObjectMapper().readTree(json);
+		assertThat(document.size()).isGreaterThanOrEqualTo(10);
+		assertThat(new CBORMapper().readTree(cbor)).isEqualTo(document);
+		assertThat(new SmileMapper().readTree(smile)).isEqualTo(document);
+		assertThat(List.of(cbor.length, smile.length)).allSatisfy(size -> assertThat(size).isLessThan(json.length));
+	}
+
+	private MvcResult fetch(MediaType accept) throws Exception {
+		MvcResult result = mockMvc.perform(get(PROJECTS)
+						.accept(accept)
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andReturn();
+		assertThat(result.getResponse().getStatus()).isEqualTo(200);
+		return result;
+	}
+}
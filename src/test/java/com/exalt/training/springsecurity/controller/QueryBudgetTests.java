@@ -0,0 +1,231 @@
+package com.exalt.training.springsecurity.controller;
+
+import com.exalt.training.springsecurity.dto.ProjectDTO;
+import com.exalt.training.springsecurity.model.Project;
+import com.exalt.training.springsecurity.model.ProjectRole;
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
+import com.exalt.training.springsecurity.repository.ProjectRepository;
+import com.exalt.training.springsecurity.repository.UserRepository;
+import com.exalt.training.springsecurity.service.JWTService;
+import com.exalt.training.springsecurity.service.ProjectService;
+import com.exalt.training.springsecurity.sql.RequestQueryLog;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Boots the whole application against an embedded PostgreSQL and caps the number of SQL statements each
+ * endpoint may execute. Authenticated calls include the user lookup done by the JWT filter, and status or role
+ * changes include the insert of their outbox event. User inserts may include a {@code nextval} when Hibernate
+ * takes a new block of ids. A merge patch that changes nothing must not write.
+ * A failing budget lists every statement the call executed with its repeat count.
+ */
+@SpringBootTest(properties = {"app.concurrency.enabled=false", "app.sql.monitoring.enabled=true"})
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class QueryBudgetTests {
+
+	private static final String DOMAIN = "@budget.test";
+	private static final String PASSWORD = "password123";
+	private static final MediaType MERGE_PATCH = MediaType.parseMediaType("application/merge-patch+json");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private ProjectService projectService;
+
+	@Autowired
+	private JWTService jwtService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private String ceoToken;
+	private String memberToken;
+
+	@BeforeEach
+	void seed() {
+		User ceo = userRepository.save(new User(null, "ceo", "budget", "ceo" + DOMAIN, passwordEncoder.encode(PASSWORD), Role.CEO));
+		User member = userRepository.save(new User(null, "member", "budget", "member" + DOMAIN, passwordEncoder.encode(PASSWORD), Role.TeamMember));
+		userRepository.save(new User(null, "other", "budget", "other" + DOMAIN, passwordEncoder.encode(PASSWORD), Role.TeamMember));
+		for (int p = 0; p < 5; p++) {
+			projectService.createProject(project("budget-" + p, "pending"));
+			projectService.addMember("budget-" + p, ceo.getEmail(), ProjectRole.Owner, ceo);
+			projectService.addMember("budget-" + p, member.getEmail(), ProjectRole.Member, ceo);
+		}
+		projectService.createProject(project("budget-empty", "pending"));
+		ceoToken = jwtService.generateToken(ceo);
+		memberToken = jwtService.generateToken(member);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		projectRepository.findAll().stream().map(Project::getTitle).forEach(projectService::deleteProjectByTitle);
+		userRepository.deleteAll(userRepository.findAll().stream()
+				.filter(user -> user.getEmail().endsWith(DOMAIN))
+				.toList());
+	}
+
+	@Test
+	void dataSourceIsProxied() throws Exception {
+		assertThat(dataSource)
+				.as("statement counts require the datasource-proxy wrapper").isInstanceOf(ProxyDataSource.class);
+		assertThat(statementsOf(get("/exalt/training/projects/retrieve/budget-1"), ceoToken, 200)).isPositive();
+	}
+
+	@Test
+	void projectReads() throws Exception {
+		assertBudget(2, get("/exalt/training/projects/retrieve/budget-1"), ceoToken, 200);
+		assertBudget(2, get("/exalt/training/projects/all"), ceoToken, 200);
+		assertBudget(2, get("/exalt/training/projects/mine"), memberToken, 200);
+		assertBudget(2, get("/exalt/training/projects/search").param("query", "budget"), memberToken, 200);
+		assertBudget(1, get("/exalt/training/projects/suggest").param("prefix", "bud"), memberToken, 200);
+	}
+
+	@Test
+	void projectWrites() throws Exception {
+		assertBudget(4, post("/exalt/training/projects/create").contentType(MediaType.APPLICATION_JSON)
+				.content(projectJson("budget-new", "pending")), ceoToken, 200);
+		assertBudget(4, put("/exalt/training/projects/update/budget-1").contentType(MediaType.APPLICATION_JSON)
+				.content(projectJson("budget-1", "active")), ceoToken, 200);
+		assertBudget(5, put("/exalt/training/projects/update/budget-2").contentType(MediaType.APPLICATION_JSON)
+				.content(projectJson("budget-renamed", "active")), ceoToken, 200);
+		assertBudget(3, patch("/exalt/training/projects/update/budget-4").contentType(MERGE_PATCH)
+				.content("{\"company\":\"patched\"}"), ceoToken, 200);
+		assertBudget(2, patch("/exalt/training/projects/update/budget-4").contentType(MERGE_PATCH)
+				.content("{\"company\":\"patched\"}"), ceoToken, 200);
+		assertBudget(4, patch("/exalt/training/projects/update-status/budget-3").param("status", "done"), ceoToken, 200);
+		assertBudget(5, post("/exalt/training/projects/add-member/budget-empty").param("email", "other" + DOMAIN), ceoToken, 200);
+		assertBudget(3, delete("/exalt/training/projects/remove-member/budget-empty").param("email", "other" + DOMAIN), ceoToken, 200);
+		assertBudget(3, delete("/exalt/training/projects/delete/budget-empty"), ceoToken, 200);
+	}
+
+	@Test
+	void userEndpoints() throws Exception {
+		assertBudget(2, get("/exalt/training/users/all"), ceoToken, 200);
+		assertBudget(2, get("/exalt/training/users/retrieve/member" + DOMAIN), ceoToken, 200);
+		assertBudget(1, get("/exalt/training/users/suggest").param("prefix", "mem"), ceoToken, 200);
+		assertBudget(3, post("/exalt/training/users/create").contentType(MediaType.APPLICATION_JSON)
+				.content(userJson("created" + DOMAIN, "TeamMember")), ceoToken, 200);
+		assertBudget(4, post("/exalt/training/users/import").contentType(MediaType.parseMediaType("text/csv"))
+				.content("firstName,lastName,email,password,role\n"
+						+ "imported,user,imported1" + DOMAIN + "," + PASSWORD + ",TeamMember\n"
+						+ "imported,user,imported2" + DOMAIN + "," + PASSWORD + ",TeamMember\n"
+						+ "imported,user,member" + DOMAIN + "," + PASSWORD + ",TeamMember\n"), ceoToken, 200);
+		assertBudget(3, patch("/exalt/training/users/update/created" + DOMAIN).contentType(MERGE_PATCH)
+				.content("{\"firstName\":\"patched\"}"), ceoToken, 200);
+		assertBudget(2, patch("/exalt/training/users/update/created" + DOMAIN).contentType(MERGE_PATCH)
+				.content("{\"firstName\":\"patched\"}"), ceoToken, 200);
+		assertBudget(4, put("/exalt/training/users/update/created" + DOMAIN).contentType(MediaType.APPLICATION_JSON)
+				.content(userJson("created" + DOMAIN, "TeamLeader")), ceoToken, 200);
+		assertBudget(4, put("/exalt/training/users/update-role/created" + DOMAIN).param("role", "TeamMember"), ceoToken, 200);
+		assertBudget(3, delete("/exalt/training/users/delete/created" + DOMAIN), ceoToken, 200);
+	}
+
+	@Test
+	void authenticationEndpoints() throws Exception {
+		String signup = "{\"firstName\":\"new\",\"lastName\":\"user\",\"email\":\"signup" + DOMAIN + "\",\"password\":\"" + PASSWORD + "\"}";
+		assertBudget(2, post("/exalt/training/security/auth/signup").contentType(MediaType.APPLICATION_JSON)
+				.header("Idempotency-Key", "budget-signup").content(signup), null, 200);
+		assertBudget(0, post("/exalt/training/security/auth/signup").contentType(MediaType.APPLICATION_JSON)
+				.header("Idempotency-Key", "budget-signup").content(signup), null, 200);
+		assertBudget(2, post("/exalt/training/security/auth/signup").contentType(MediaType.APPLICATION_JSON)
+				.content(signup), null, 409);
+		assertBudget(1, post("/exalt/training/security/auth/signin").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"email\":\"member" + DOMAIN + "\",\"password\":\"" + PASSWORD + "\"}"), null, 200);
+		String refreshToken = jwtService.generateRefreshToken(new HashMap<>(), userRepository.findByEmail("member" + DOMAIN).orElseThrow());
+		assertBudget(1, post("/exalt/training/security/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"token\":\"" + refreshToken + "\"}"), null, 200);
+	}
+
+	private void assertBudget(int budget, MockHttpServletRequestBuilder request, String token, int expectedStatus) throws Exception {
+		RequestQueryLog queryLog = RequestQueryLog.begin();
+		MvcResult result;
+		try {
+			result = perform(request, token);
+		} finally {
+			RequestQueryLog.end();
+		}
+		String call = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+		assertThat(result.getResponse().getStatus()).as(call).isEqualTo(expectedStatus);
+		if (queryLog.getStatementCount() > budget) {
+			fail(call + " executed " + queryLog.getStatementCount() + " SQL statements, budget is " + budget + ":\n"
+					+ describe(queryLog.getStatementCounts()));
+		}
+	}
+
+	private int statementsOf(MockHttpServletRequestBuilder request, String token, int expectedStatus) throws Exception {
+		RequestQueryLog queryLog = RequestQueryLog.begin();
+		try {
+			assertThat(perform(request, token).getResponse().getStatus()).isEqualTo(expectedStatus);
+		} finally {
+			RequestQueryLog.end();
+		}
+		return queryLog.getStatementCount();
+	}
+
+	private MvcResult perform(MockHttpServletRequestBuilder request, String token) throws Exception {
+		if (token != null) {
+			request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		}
+		return mockMvc.perform(request).andReturn();
+	}
+
+	private static String describe(Map<String, Integer> statementCounts) {
+		return statementCounts.entrySet().stream()
+				.map(entry -> "  " + entry.getValue() + "x " + entry.getKey())
+				.collect(Collectors.joining("\n"));
+	}
+
+	private static ProjectDTO project(String title, String status) {
+		ProjectDTO project = new ProjectDTO();
+		project.setTitle(title);
+		project.setCompany("exalt");
+		project.setDescription("query budget fixture");
+		project.setStatus(status);
+		return project;
+	}
+
+	private static String projectJson(String title, String status) {
+		return "{\"title\":\"" + title + "\",\"company\":\"exalt\",\"description\":\"query budget fixture\",\"status\":\"" + status + "\"}";
+	}
+
+	private static String userJson(String email, String role) {
+		return "{\"firstName\":\"created\",\"lastName\":\"user\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\",\"role\":\"" + role + "\"}";
+	}
+}
@@ -0,0 +1,125 @@
+package com.exalt.training.springsecurity.idempotency;
+
+import com.exalt.training.springsecurity.exception.IdempotencyKeyInUseException;
+import com.exalt.training.springsecurity.exception.IdempotencyKeyReusedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTests {
+
+	private static final Map<String, String> REQUEST = Map.of("email", "user@store.test");
+
+	private final AtomicInteger runs = new AtomicInteger();
+	private IdempotencyStore store = new IdempotencyStore(new ObjectMapper(), Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+
+	@Test
+	void retryReplaysTheStoredResponse() {
+		ResponseEntity<?> first = store.execute("signup", "key-1", REQUEST, () -> respond(HttpStatus.OK));
+		ResponseEntity<?> retry = store.execute("signup", "key-1", REQUEST, () -> respond(HttpStatus.OK));
+
+		assertThat(runs).hasValue(1);
+		assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(retry.getBody()).isEqualTo(first.getBody());
+		assertThat(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+		assertThat(first.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+	}
+
+	@Test
+	void requestsWithoutKeyAlwaysRun() {
+		store.execute("signup", null, REQUEST, () -> respond(HttpStatus.OK));
+		store.execute("signup", null, REQUEST, () -> respond(HttpStatus.OK));
+
+		assertThat(runs).hasValue(2);
+	}
+
+	@Test
+	void scopesKeepKeysApart() {
+		store.execute("users/create ceo@store.test", "key-1", REQUEST, () -> respond(HttpStatus.OK));
+		store.execute("users/create lead@store.test", "key-1", REQUEST, () -> respond(HttpStatus.OK));
+
+		assertThat(runs).hasValue(2);
+	}
+
+	@Test
+	void keyReusedWithAnotherBodyIsRejected() {
+		store.execute("signup", "key-1", REQUEST, () -> respond(HttpStatus.OK));
+
+		assertThatThrownBy(() -> store.execute("signup", "key-1", Map.of("email", "other@store.test"), () -> respond(HttpStatus.OK)))
+				.isInstanceOf(IdempotencyKeyReusedException.class);
+		assertThat(runs).hasValue(1);
+	}
+
+	@Test
+	void retryDuringTheFirstRequestIsRejected() {
+		store.execute("signup", "key-1", REQUEST, () -> {
+			assertThatThrownBy(() -> store.execute("signup", "key-1", REQUEST, () -> respond(HttpStatus.OK)))
+					.isInstanceOf(IdempotencyKeyInUseException.class);
+			return respond(HttpStatus.OK);
+		});
+
+		assertThat(runs).hasValue(1);
+	}
+
+	@Test
+	void failuresAreNotStored() {
+		assertThatThrownBy(() -> store.execute("signup", "key-1", REQUEST, () -> {
+			throw new IllegalStateException("database down");
+		})).isInstanceOf(IllegalStateException.class);
+		store.execute("signup", "key-2", REQUEST, () -> respond(HttpStatus.SERVICE_UNAVAILABLE));
+
+		store.execute("signup", "key-1", REQUEST, () -> respond(HttpStatus.OK));
+		store.execute("signup", "key-2", REQUEST, () -> respond(HttpStatus.OK));
+		assertThat(runs).hasValue(3);
+	}
+
+	@Test
+	void conflictsAreReplayed() {
+		store.execute("signup", "key-1", REQUEST, () -> respond(HttpStatus.CONFLICT));
+		ResponseEntity<?> retry = store.execute("signup", "key-1", REQUEST, () -> respond(HttpStatus.OK));
+
+		assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		assertThat(runs).hasValue(1);
+	}
+
+	@Test
+	void expiredKeysRunAgain() {
+		store = new IdempotencyStore(new ObjectMapper(), Duration.ZERO, 100, new SimpleMeterRegistry());
+		store.execute("signup", "key-1", REQUEST, () -> respond(HttpStatus.OK));
+		store.execute("signup", "key-1", REQUEST, () -> respond(HttpStatus.OK));
+
+		assertThat(runs).hasValue(2);
+	}
+
+	@Test
+	void fullStoreRunsWithoutReplay() {
+		store = new IdempotencyStore(new ObjectMapper(), Duration.ofMinutes(1), 1, new SimpleMeterRegistry());
+		store.execute("signup", "key-1", REQUEST, () -> respond(HttpStatus.OK));
+		store.execute("signup", "key-2", REQUEST, () -> respond(HttpStatus.OK));
+		store.execute("signup", "key-2", REQUEST, () -> respond(HttpStatus.OK));
+
+		assertThat(runs).hasValue(3);
+	}
+
+	@Test
+	void invalidKeysAreRejected() {
+		assertThatThrownBy(() -> store.execute("signup", " ", REQUEST, () -> respond(HttpStatus.OK)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> store.execute("signup", "k".repeat(256), REQUEST, () -> respond(HttpStatus.OK)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(runs).hasValue(0);
+	}
+
+	private ResponseEntity<?> respond(HttpStatus status) {
+		return ResponseEntity.status(status).body("response " + runs.incrementAndGet());
+	}
+}
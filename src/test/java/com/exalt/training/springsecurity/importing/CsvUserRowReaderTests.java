@@ -0,0 +1,73 @@
+package com.exalt.training.springsecurity.importing;
+
+import com.exalt.training.springsecurity.model.Role;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvUserRowReaderTests {
+
+	@Test
+	void readsRowsByHeaderName() throws IOException {
+		List<UserImportRow> rows = read("""
+				\uFEFFemail,Role,firstName,lastName,password,team
+				ada@import.test,TeamLeader,Ada,Lovelace,password123,core
+
+				alan@import.test,TeamMember,Alan,Turing,password456,core
+				""");
+
+		assertThat(rows).hasSize(2);
+		assertThat(rows.get(0).line()).isEqualTo(2);
+		assertThat(rows.get(0).user().getEmail()).isEqualTo("ada@import.test");
+		assertThat(rows.get(0).user().getFirstName()).isEqualTo("Ada");
+		assertThat(rows.get(0).user().getRole()).isEqualTo(Role.TeamLeader);
+		assertThat(rows.get(1).line()).isEqualTo(4);
+		assertThat(rows.get(1).user().getPassword()).isEqualTo("password456");
+	}
+
+	@Test
+	void unquotesFields() {
+		assertThat(CsvUserRowReader.split("\"Smith, Jr.\",\"say \"\"hi\"\"\",,plain"))
+				.containsExactly("Smith, Jr.", "say \"hi\"", "", "plain");
+		assertThatThrownBy(() -> CsvUserRowReader.split("\"open,field"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void badLinesBecomeInvalidRows() throws IOException {
+		List<UserImportRow> rows = read("""
+				firstName,lastName,email,password,role
+				Ada,Lovelace,ada@import.test,password123
+				Ada,Lovelace,ada@import.test,password123,Admin
+				"Ada,Lovelace,ada@import.test,password123,TeamMember
+				Ada,Lovelace,,password123,
+				""");
+
+		assertThat(rows).extracting(UserImportRow::error)
+				.containsExactly("Expected 5 fields, found 4", "Unknown role: Admin", "Unterminated quoted field", null);
+		assertThat(rows.get(3).user().getEmail()).isNull();
+		assertThat(rows.get(3).user().getRole()).isNull();
+	}
+
+	@Test
+	void headerMustNameEveryColumn() {
+		assertThatThrownBy(() -> read("firstName,lastName,email,password\nAda,Lovelace,ada@import.test,password123\n"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static List<UserImportRow> read(String csv) throws IOException {
+		UserRowReader reader = new CsvUserRowReader(new BufferedReader(new StringReader(csv)));
+		List<UserImportRow> rows = new ArrayList<>();
+		for (UserImportRow row = reader.next(); row != null; row = reader.next()) {
+			rows.add(row);
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,53 @@
+package com.exalt.training.springsecurity.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonUserRowReaderTests {
+
+	@Test
+	void readsOneUserPerLineAndSkipsBlankLines() throws IOException {
+		List<UserImportRow> rows = read("""
+				{"firstName":"Ada","lastName":"Lovelace","email":"ada@import.test","password":"password123","role":"TeamLeader"}
+
+				{"firstName":"Alan","lastName":"Turing","email":"alan@import.test","password":"password456","role":"TeamMember"}
+				""");
+
+		assertThat(rows).extracting(UserImportRow::line).containsExactly(1, 3);
+		assertThat(rows.get(1).user().getEmail()).isEqualTo("alan@import.test");
+		assertThat(rows).extracting(UserImportRow::error).containsOnlyNulls();
+	}
+
+	@Test
+	void nullAndMalformedLinesAreInvalidRows() throws IOException {
+		List<UserImportRow> rows = read("""
+				null
+				{"firstName":
+				42
+				""");
+
+		assertThat(rows).hasSize(3);
+		assertThat(rows).extracting(UserImportRow::user).containsOnlyNulls();
+		assertThat(rows.get(0).error()).isEqualTo("A row must be a JSON object");
+		assertThat(rows.get(1).error()).startsWith("Malformed JSON");
+		assertThat(rows.get(2).error()).startsWith("Malformed JSON");
+	}
+
+	private static List<UserImportRow> read(String ndjson) throws IOException {
+		UserRowReader reader = new NdjsonUserRowReader(new BufferedReader(new StringReader(ndjson)), new ObjectMapper());
+		List<UserImportRow> rows = new ArrayList<>();
+		UserImportRow row;
+		while ((row = reader.next()) != null) {
+			rows.add(row);
+		}
+		return rows;
+	}
+}
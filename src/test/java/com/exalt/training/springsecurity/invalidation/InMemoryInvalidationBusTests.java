@@ -0,0 +1,124 @@
+package com.exalt.training.springsecurity.invalidation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two buses on one in-memory network stand for two nodes of a cluster.
+ */
+class InMemoryInvalidationBusTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private InMemoryInvalidationBus local;
+	private InMemoryInvalidationBus remote;
+	private final List<String> localEvictions = new ArrayList<>();
+	private final List<String> remoteEvictions = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		InMemoryInvalidationBus.Network network = new InMemoryInvalidationBus.Network();
+		local = new InMemoryInvalidationBus(network, registry);
+		remote = new InMemoryInvalidationBus(network, registry);
+		local.subscribe(CacheRegion.PROJECT, key -> localEvictions.add(String.valueOf(key)));
+		remote.subscribe(CacheRegion.PROJECT, key -> remoteEvictions.add(String.valueOf(key)));
+	}
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void changesReachEveryNode() {
+		local.publish(CacheRegion.PROJECT, "alpha");
+		local.publishAll(CacheRegion.PROJECT);
+
+		assertThat(localEvictions).containsExactly("alpha", "null");
+		assertThat(remoteEvictions).containsExactly("alpha", "null");
+	}
+
+	@Test
+	void otherRegionsAreNotInvalidated() {
+		local.publish(CacheRegion.USER, "bob@test.com");
+
+		assertThat(localEvictions).isEmpty();
+		assertThat(remoteEvictions).isEmpty();
+	}
+
+	@Test
+	void memberFlushLeavesProjectListenersAlone() {
+		List<String> memberEvictions = new ArrayList<>();
+		remote.subscribeRemote(CacheRegion.PROJECT_MEMBERS, key -> memberEvictions.add(String.valueOf(key)));
+
+		local.publishAll(CacheRegion.PROJECT_MEMBERS);
+
+		assertThat(memberEvictions).containsExactly("null");
+		assertThat(remoteEvictions).isEmpty();
+	}
+
+	@Test
+	void changesInsideATransactionWaitForTheCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		local.publish(CacheRegion.PROJECT, "alpha");
+		assertThat(localEvictions).isEmpty();
+		assertThat(remoteEvictions).isEmpty();
+
+		TransactionSynchronizationUtils.triggerAfterCommit();
+		assertThat(localEvictions).containsExactly("alpha");
+		assertThat(remoteEvictions).containsExactly("alpha");
+	}
+
+	@Test
+	void sequenceGapInvalidatesEveryKey() {
+		String origin = local.getNodeId();
+		remote.receive(new InvalidationMessage(origin, 1, CacheRegion.PROJECT, "alpha"));
+		remote.receive(new InvalidationMessage(origin, 3, CacheRegion.PROJECT, "gamma"));
+
+		assertThat(remoteEvictions).containsExactly("alpha", "null", "gamma");
+		assertThat(registry.get("app.cache.invalidation.flushes").tag("reason", "gap").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void heartbeatRevealsLostTrailingMessages() {
+		String origin = local.getNodeId();
+		remote.receive(new InvalidationMessage(origin, 1, CacheRegion.PROJECT, "alpha"));
+		remote.receive(new InvalidationMessage(origin, 1, null, null));
+		assertThat(remoteEvictions).containsExactly("alpha");
+
+		remote.receive(new InvalidationMessage(origin, 2, null, null));
+		assertThat(remoteEvictions).containsExactly("alpha", "null");
+	}
+
+	@Test
+	void remoteListenersOnlyHearOtherNodes() {
+		List<String> remoteOnly = new ArrayList<>();
+		local.subscribeRemote(CacheRegion.PROJECT, key -> remoteOnly.add("local:" + key));
+		remote.subscribeRemote(CacheRegion.PROJECT, key -> remoteOnly.add("remote:" + key));
+
+		local.publish(CacheRegion.PROJECT, "alpha");
+		assertThat(remoteOnly).containsExactly("remote:alpha");
+
+		remote.receive(new InvalidationMessage(local.getNodeId(), 3, CacheRegion.PROJECT, "gamma"));
+		assertThat(remoteOnly).containsExactly("remote:alpha", "remote:null", "remote:gamma");
+	}
+
+	@Test
+	void duplicatesAreIgnored() {
+		String origin = local.getNodeId();
+		remote.receive(new InvalidationMessage(origin, 1, CacheRegion.PROJECT, "alpha"));
+		remote.receive(new InvalidationMessage(origin, 1, CacheRegion.PROJECT, "alpha"));
+
+		assertThat(remoteEvictions).containsExactly("alpha");
+	}
+}
@@ -0,0 +1,89 @@
+package com.exalt.training.springsecurity.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimiterTests {
+
+	private static final long TIMEOUT_NANOS = 1_000_000L;
+
+	@Test
+	void successUnderLoadIncreasesTheLimitByOne() {
+		AimdLimiter limiter = new AimdLimiter(4, 1, 10, 0.5, TIMEOUT_NANOS, 0);
+		acquire(limiter, 2);
+
+		limiter.release(0, false);
+
+		assertThat(limiter.getLimit()).isEqualTo(5);
+		assertThat(limiter.getInFlight()).isEqualTo(1);
+	}
+
+	@Test
+	void successWithLowUtilizationKeepsTheLimit() {
+		AimdLimiter limiter = new AimdLimiter(4, 1, 10, 0.5, TIMEOUT_NANOS, 0);
+		acquire(limiter, 1);
+
+		limiter.release(0, false);
+
+		assertThat(limiter.getLimit()).isEqualTo(4);
+	}
+
+	@Test
+	void failureAndSlowRequestsDecreaseTheLimitMultiplicatively() {
+		AimdLimiter limiter = new AimdLimiter(8, 1, 10, 0.5, TIMEOUT_NANOS, 0);
+		acquire(limiter, 2);
+
+		limiter.release(0, true);
+		assertThat(limiter.getLimit()).isEqualTo(4);
+
+		limiter.release(TIMEOUT_NANOS + 1, false);
+		assertThat(limiter.getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void limitNeverDropsBelowTheFloor() {
+		AimdLimiter limiter = new AimdLimiter(4, 3, 10, 0.5, TIMEOUT_NANOS, 0);
+		acquire(limiter, 2);
+
+		limiter.release(0, true);
+		limiter.release(0, true);
+
+		assertThat(limiter.getLimit()).isEqualTo(3);
+	}
+
+	@Test
+	void limitNeverGrowsAboveTheCeiling() {
+		AimdLimiter limiter = new AimdLimiter(5, 1, 5, 0.5, TIMEOUT_NANOS, 0);
+		acquire(limiter, 5);
+
+		for (int i = 0; i < 5; i++) {
+			limiter.release(0, false);
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(5);
+	}
+
+	@Test
+	void initialLimitIsClampedToTheBounds() {
+		assertThat(new AimdLimiter(50, 1, 10, 0.5, TIMEOUT_NANOS, 0).getLimit()).isEqualTo(10);
+		assertThat(new AimdLimiter(0, 2, 10, 0.5, TIMEOUT_NANOS, 0).getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void requestsBeyondTheLimitAreRejectedUnlessPriorityHeadroomIsLeft() {
+		AimdLimiter limiter = new AimdLimiter(2, 1, 10, 0.5, TIMEOUT_NANOS, 1);
+		acquire(limiter, 2);
+
+		assertThat(limiter.tryAcquire(false)).isFalse();
+		assertThat(limiter.tryAcquire(true)).isTrue();
+		assertThat(limiter.tryAcquire(true)).isFalse();
+		assertThat(limiter.getInFlight()).isEqualTo(3);
+	}
+
+	private static void acquire(AimdLimiter limiter, int count) {
+		for (int i = 0; i < count; i++) {
+			assertThat(limiter.tryAcquire(false)).isTrue();
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.exalt.training.springsecurity.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimitGroupTests {
+
+	@Test
+	void authEndpointsShareOneGroupWhateverTheMethod() {
+		assertThat(LimitGroup.of("POST", "/exalt/training/security/auth/signin")).isEqualTo(LimitGroup.AUTH);
+		assertThat(LimitGroup.of("GET", "/exalt/training/security/auth/refresh")).isEqualTo(LimitGroup.AUTH);
+	}
+
+	@Test
+	void projectRequestsAreSplitByMethod() {
+		assertThat(LimitGroup.of("GET", "/exalt/training/projects/search")).isEqualTo(LimitGroup.PROJECT_READ);
+		assertThat(LimitGroup.of("HEAD", "/exalt/training/projects/title")).isEqualTo(LimitGroup.PROJECT_READ);
+		assertThat(LimitGroup.of("POST", "/exalt/training/projects/add")).isEqualTo(LimitGroup.PROJECT_WRITE);
+		assertThat(LimitGroup.of("PATCH", "/exalt/training/projects/update")).isEqualTo(LimitGroup.PROJECT_WRITE);
+		assertThat(LimitGroup.of("DELETE", "/exalt/training/projects/delete")).isEqualTo(LimitGroup.PROJECT_WRITE);
+	}
+
+	@Test
+	void userRequestsUseTheAdminGroupExceptImports() {
+		assertThat(LimitGroup.of("GET", "/exalt/training/users/all")).isEqualTo(LimitGroup.USER_ADMIN);
+		assertThat(LimitGroup.of("DELETE", "/exalt/training/users/delete")).isEqualTo(LimitGroup.USER_ADMIN);
+		assertThat(LimitGroup.of("POST", "/exalt/training/users/import")).isNull();
+	}
+
+	@Test
+	void otherPathsAreNotLimited() {
+		assertThat(LimitGroup.of("GET", "/actuator/health")).isNull();
+		assertThat(LimitGroup.of("GET", "/exalt/training/projects")).isNull();
+	}
+
+	@Test
+	void onlyStateChangingMethodsAreWrites() {
+		assertThat(LimitGroup.isWrite("GET")).isFalse();
+		assertThat(LimitGroup.isWrite("HEAD")).isFalse();
+		assertThat(LimitGroup.isWrite("OPTIONS")).isFalse();
+		assertThat(LimitGroup.isWrite("TRACE")).isFalse();
+		assertThat(LimitGroup.isWrite("POST")).isTrue();
+		assertThat(LimitGroup.isWrite("PUT")).isTrue();
+		assertThat(LimitGroup.isWrite("PATCH")).isTrue();
+		assertThat(LimitGroup.isWrite("DELETE")).isTrue();
+	}
+}
@@ -0,0 +1,62 @@
+package com.exalt.training.springsecurity.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Growable, single-threaded buffer of request latencies for one operation.
+ * Each client owns its recorders; they are merged once the run is over, so recording needs no synchronization.
+ */
+final class LatencyRecorder {
+	private long[] latencies = new long[1024]; // nanoseconds, successful requests only
+	private int size;
+	private long errors; // non-2xx responses other than 503 and I/O failures
+	private long rejected; // 503 responses from the load shedding filter
+
+	void record(long nanos) {
+		if (size == latencies.length) {
+			latencies = Arrays.copyOf(latencies, size * 2);
+		}
+		latencies[size++] = nanos;
+	}
+
+	void recordError() {
+		errors++;
+	}
+
+	void recordRejected() {
+		rejected++;
+	}
+
+	void mergeFrom(LatencyRecorder other) {
+		if (size + other.size > latencies.length) {
+			latencies = Arrays.copyOf(latencies, size + other.size);
+		}
+		System.arraycopy(other.latencies, 0, latencies, size, other.size);
+		size += other.size;
+		errors += other.errors;
+		rejected += other.rejected;
+	}
+
+	int count() {
+		return size;
+	}
+
+	long errors() {
+		return errors;
+	}
+
+	long rejected() {
+		return rejected;
+	}
+
+	/**
+	 * Returns the sorted latencies; call once, after all recording is done.
+	 *
+	 * @return the latencies in ascending order
+	 */
+	long[] sorted() {
+		long[] sorted = Arrays.copyOf(latencies, size);
+		Arrays.sort(sorted);
+		return sorted;
+	}
+}
@@ -0,0 +1,66 @@
+package com.exalt.training.springsecurity.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted choice of the next operation, parsed from a spec such as {@code signin=5,retrieve=70,status=10}.
+ */
+final class LoadMix {
+	private final Operation[] operations;
+	private final int[] cumulativeWeights;
+	private final int totalWeight;
+
+	private LoadMix(Map<Operation, Integer> weights) {
+		operations = weights.keySet().toArray(new Operation[0]);
+		cumulativeWeights = new int[operations.length];
+		int total = 0;
+		for (int i = 0; i < operations.length; i++) {
+			total += weights.get(operations[i]);
+			cumulativeWeights[i] = total;
+		}
+		if (total <= 0) {
+			throw new IllegalArgumentException("The load mix needs at least one positive weight");
+		}
+		totalWeight = total;
+	}
+
+	/**
+	 * Parses a mix spec.
+	 *
+	 * @param spec comma-separated {@code operation=weight} pairs
+	 * @return the mix
+	 */
+	static LoadMix parse(String spec) {
+		Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+		for (String pair : spec.split(",")) {
+			String[] parts = pair.trim().split("=");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Invalid load mix entry: " + pair);
+			}
+			int weight = Integer.parseInt(parts[1].trim());
+			if (weight < 0) {
+				throw new IllegalArgumentException("Negative weight in load mix entry: " + pair);
+			}
+			weights.put(Operation.fromKey(parts[0].trim()), weight);
+		}
+		return new LoadMix(weights);
+	}
+
+	/**
+	 * Picks the next operation.
+	 *
+	 * @param random the caller's random generator
+	 * @return the operation, chosen proportionally to its weight
+	 */
+	Operation next(RandomGenerator random) {
+		int ticket = random.nextInt(totalWeight);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (ticket < cumulativeWeights[i]) {
+				return operations[i];
+			}
+		}
+		return operations[operations.length - 1];
+	}
+}
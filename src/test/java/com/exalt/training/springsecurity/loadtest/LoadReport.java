@@ -0,0 +1,139 @@
+package com.exalt.training.springsecurity.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Throughput and latency percentiles of one load test run, per operation.
+ * Reports are stored as properties files ({@code <operation>.throughput}, {@code <operation>.p50} ... in
+ * milliseconds) so a run can be compared against a baseline recorded earlier on the same machine.
+ */
+final class LoadReport {
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+	private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+	private final String label;
+
+	record Stats(long count, long errors, long rejected, double throughput, double[] percentilesMillis, double maxMillis) {
+	}
+
+	LoadReport(String label, Map<Operation, LatencyRecorder> recorders, double measuredSeconds) {
+		this.label = label;
+		recorders.forEach((operation, recorder) -> {
+			long[] sorted = recorder.sorted();
+			double[] percentiles = new double[PERCENTILES.length];
+			for (int i = 0; i < PERCENTILES.length; i++) {
+				percentiles[i] = millis(percentile(sorted, PERCENTILES[i]));
+			}
+			double max = sorted.length == 0 ? 0 : millis(sorted[sorted.length - 1]);
+			stats.put(operation, new Stats(recorder.count(), recorder.errors(), recorder.rejected(),
+					recorder.count() / measuredSeconds, percentiles, max));
+		});
+	}
+
+	/**
+	 * Prints the report as a table.
+	 *
+	 * @param out the destination
+	 */
+	void print(PrintStream out) {
+		out.printf("%nLoad test results (%s)%n", label);
+		out.printf("%-10s %10s %8s %8s %10s %9s %9s %9s %9s %9s%n",
+				"operation", "ok", "errors", "503", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+		double totalThroughput = 0;
+		for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+			Stats s = entry.getValue();
+			totalThroughput += s.throughput();
+			out.printf(Locale.ROOT, "%-10s %10d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey().key(),
+					s.count(), s.errors(), s.rejected(), s.throughput(), s.percentilesMillis()[0],
+					s.percentilesMillis()[1], s.percentilesMillis()[2], s.percentilesMillis()[3], s.maxMillis());
+		}
+		out.printf(Locale.ROOT, "%-10s %10s %8s %8s %10.1f%n", "total", "", "", "", totalThroughput);
+	}
+
+	/**
+	 * Writes the report as a baseline file.
+	 *
+	 * @param path the file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	void write(Path path) throws IOException {
+		Properties properties = new Properties();
+		stats.forEach((operation, s) -> {
+			properties.setProperty(operation.key() + ".throughput", format(s.throughput()));
+			for (int i = 0; i < PERCENTILES.length; i++) {
+				properties.setProperty(operation.key() + ".p" + percentileName(PERCENTILES[i]), format(s.percentilesMillis()[i]));
+			}
+		});
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		try (Writer writer = Files.newBufferedWriter(path)) {
+			properties.store(writer, "Load test baseline (" + label + ")");
+		}
+	}
+
+	/**
+	 * Compares this run with a baseline. Throughput may drop and p50/p99 latency may grow by at most the tolerance.
+	 *
+	 * @param baselinePath the baseline written by an earlier run
+	 * @param tolerance    the accepted relative change, e.g. 0.15 for 15%
+	 * @return a description of every regression, empty if none
+	 * @throws IOException if the baseline cannot be read
+	 */
+	List<String> compareWith(Path baselinePath, double tolerance) throws IOException {
+		Properties baseline = new Properties();
+		try (Reader reader = Files.newBufferedReader(baselinePath)) {
+			baseline.load(reader);
+		}
+		List<String> regressions = new ArrayList<>();
+		stats.forEach((operation, s) -> {
+			String throughput = baseline.getProperty(operation.key() + ".throughput");
+			if (throughput != null && s.throughput() < Double.parseDouble(throughput) * (1 - tolerance)) {
+				regressions.add(String.format(Locale.ROOT, "%s throughput %.1f req/s < baseline %s req/s",
+						operation.key(), s.throughput(), throughput));
+			}
+			checkLatency(regressions, baseline, operation, "p50", s.percentilesMillis()[0], tolerance);
+			checkLatency(regressions, baseline, operation, "p99", s.percentilesMillis()[2], tolerance);
+		});
+		return regressions;
+	}
+
+	private static void checkLatency(List<String> regressions, Properties baseline, Operation operation, String name,
+									 double actual, double tolerance) {
+		String expected = baseline.getProperty(operation.key() + "." + name);
+		if (expected != null && actual > Double.parseDouble(expected) * (1 + tolerance)) {
+			regressions.add(String.format(Locale.ROOT, "%s %s %.2f ms > baseline %s ms", operation.key(), name, actual, expected));
+		}
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+	}
+
+	private static String percentileName(double percentile) {
+		return percentile == Math.rint(percentile) ? Integer.toString((int) percentile) : Double.toString(percentile);
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	private static String format(double value) {
+		return String.format(Locale.ROOT, "%.3f", value);
+	}
+}
@@ -0,0 +1,256 @@
+package com.exalt.training.springsecurity.loadtest;
+
+import com.exalt.training.springsecurity.SpringsecurityApplication;
+import com.exalt.training.springsecurity.model.ProjectRole;
+import com.exalt.training.springsecurity.model.Role;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * End-to-end load generator. Boots {@link SpringsecurityApplication} on a random port against an embedded
+ * PostgreSQL, seeds users and projects, then drives a weighted mix of requests from virtual-thread clients
+ * over loopback HTTP. Everything runs in one JVM on one machine and needs no network access.
+ * <p>
+ * Run {@link #main(String[])} from the test classpath. Settings are system properties:
+ * </p>
+ * <ul>
+ *     <li>{@code loadtest.users} (1000), {@code loadtest.projects} (200), {@code loadtest.members-per-project} (3)</li>
+ *     <li>{@code loadtest.clients} (64), {@code loadtest.warmup} (15s), {@code loadtest.duration} (60s)</li>
+ *     <li>{@code loadtest.mix} ({@code signin=5,refresh=5,all=10,retrieve=70,status=10})</li>
+ *     <li>{@code loadtest.profiles}: Spring profiles of the server, e.g. {@code virtual-threads} to compare thread modes</li>
+ *     <li>{@code loadtest.baseline} ({@code src/test/resources/loadtest/baseline.properties}), {@code loadtest.tolerance} (0.15)</li>
+ *     <li>{@code loadtest.write-baseline}: store this run as the new baseline instead of comparing</li>
+ * </ul>
+ * Clients run a closed loop: each waits for its response before sending the next request, so latencies
+ * under saturation understate what an open-loop arrival rate would see.
+ * The process exits with status 1 when the run regresses against the baseline.
+ */
+public final class LoadTest {
+	private static final String PASSWORD = "loadtest-password";
+	private static final String[] STATUSES = {"pending", "active", "done"};
+	private static final String AUTH = "/exalt/training/security/auth";
+	private static final String PROJECTS = "/exalt/training/projects";
+
+	private final int users;
+	private final int projects;
+	private final HttpClient httpClient;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final String baseUrl;
+
+	private LoadTest(int users, int projects, HttpClient httpClient, String baseUrl) {
+		this.users = users;
+		this.projects = projects;
+		this.httpClient = httpClient;
+		this.baseUrl = baseUrl;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int users = Integer.getInteger("loadtest.users", 1000);
+		int projects = Integer.getInteger("loadtest.projects", 200);
+		int membersPerProject = Integer.getInteger("loadtest.members-per-project", 3);
+		int clients = Integer.getInteger("loadtest.clients", 64);
+		Duration warmup = Duration.parse("PT" + System.getProperty("loadtest.warmup", "15s"));
+		Duration duration = Duration.parse("PT" + System.getProperty("loadtest.duration", "60s"));
+		LoadMix mix = LoadMix.parse(System.getProperty("loadtest.mix", "signin=5,refresh=5,all=10,retrieve=70,status=10"));
+		String profiles = System.getProperty("loadtest.profiles", "");
+		Path baseline = Path.of(System.getProperty("loadtest.baseline", "src/test/resources/loadtest/baseline.properties"));
+		double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.15"));
+
+		List<String> regressions = List.of();
+		try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+			 ConfigurableApplicationContext context = startApplication(postgres, profiles)) {
+			seed(context, users, projects, membersPerProject);
+			int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				HttpClient httpClient = HttpClient.newBuilder()
+						.version(HttpClient.Version.HTTP_1_1)
+						.executor(executor)
+						.connectTimeout(Duration.ofSeconds(5))
+						.build();
+				LoadTest loadTest = new LoadTest(users, projects, httpClient, "http://127.0.0.1:" + port);
+				String label = String.format("%d clients, %d users, %d projects, profiles [%s]", clients, users, projects, profiles);
+				LoadReport report = loadTest.run(executor, mix, clients, warmup, duration, label);
+				report.print(System.out);
+				if (Boolean.getBoolean("loadtest.write-baseline")) {
+					report.write(baseline);
+					System.out.println("Baseline written to " + baseline.toAbsolutePath());
+				} else if (Files.exists(baseline)) {
+					regressions = report.compareWith(baseline, tolerance);
+					if (regressions.isEmpty()) {
+						System.out.println("No regression against " + baseline);
+					}
+					regressions.forEach(regression -> System.out.println("REGRESSION: " + regression));
+				} else {
+					System.out.println("No baseline at " + baseline + "; run with -Dloadtest.write-baseline=true to record one");
+				}
+			}
+		}
+		System.exit(regressions.isEmpty() ? 0 : 1);
+	}
+
+	private static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres, String profiles) {
+		return new SpringApplicationBuilder(SpringsecurityApplication.class)
+				.profiles(profiles.isBlank() ? new String[0] : profiles.split(","))
+				.properties(
+						"server.port=0",
+						"spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+						"spring.datasource.username=postgres",
+						"spring.datasource.password=",
+						"spring.main.banner-mode=off",
+						"logging.level.root=WARN")
+				.run();
+	}
+
+	/**
+	 * Inserts the users and projects in batches. Every user gets the same password hash, since hashing
+	 * thousands of BCrypt passwords would dominate the setup time.
+	 */
+	private static void seed(ConfigurableApplicationContext context, int users, int projects, int membersPerProject) {
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+		List<Object[]> userRows = new ArrayList<>(users);
+		for (int u = 0; u < users; u++) {
+			userRows.add(new Object[]{"load", "user" + u, email(u), hash, Role.TeamLeader.ordinal()});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO users (id, first_name, second_name, email, password, role)"
+				+ " VALUES (nextval('users_sequence'), ?, ?, ?, ?, ?)", userRows);
+		List<Object[]> projectRows = new ArrayList<>(projects);
+		for (int p = 0; p < projects; p++) {
+			projectRows.add(new Object[]{title(p), "exalt", "load test project " + p, STATUSES[p % STATUSES.length]});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO projects (id, title, company, description, status)"
+				+ " VALUES (nextval('projects_sequence'), ?, ?, ?, ?)", projectRows);
+		List<Object[]> memberRows = new ArrayList<>(projects * membersPerProject);
+		for (int p = 0; p < projects; p++) {
+			for (int m = 0; m < Math.min(membersPerProject, users); m++) {
+				memberRows.add(new Object[]{ProjectRole.Member.ordinal(), title(p), email((p * membersPerProject + m) % users)});
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO project_members (id, project_id, user_id, role)"
+				+ " SELECT nextval('project_members_sequence'), p.id, u.id, ? FROM projects p, users u"
+				+ " WHERE p.title = ? AND lower(u.email) = lower(?) ON CONFLICT DO NOTHING", memberRows);
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	private LoadReport run(ExecutorService executor, LoadMix mix, int clients, Duration warmup, Duration duration,
+						   String label) throws Exception {
+		long start = System.nanoTime();
+		long measureFrom = start + warmup.toNanos();
+		long stopAt = measureFrom + duration.toNanos();
+		List<Future<Map<Operation, LatencyRecorder>>> results = new ArrayList<>(clients);
+		for (int c = 0; c < clients; c++) {
+			results.add(executor.submit(() -> new Client().run(mix, measureFrom, stopAt)));
+		}
+		Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+		for (Future<Map<Operation, LatencyRecorder>> result : results) {
+			result.get().forEach((operation, recorder) ->
+					merged.computeIfAbsent(operation, o -> new LatencyRecorder()).mergeFrom(recorder));
+		}
+		return new LoadReport(label, merged, duration.toNanos() / 1e9);
+	}
+
+	/**
+	 * One virtual user: signs in, then issues operations from the mix until the run is over.
+	 */
+	private final class Client {
+		private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+		private final ThreadLocalRandom random = ThreadLocalRandom.current();
+		private String token;
+		private String refreshToken;
+
+		Map<Operation, LatencyRecorder> run(LoadMix mix, long measureFrom, long stopAt) {
+			while (token == null && System.nanoTime() < stopAt) {
+				execute(Operation.SIGNIN, false);
+			}
+			while (System.nanoTime() < stopAt) {
+				execute(mix.next(random), System.nanoTime() >= measureFrom);
+			}
+			return recorders;
+		}
+
+		private void execute(Operation operation, boolean measured) {
+			LatencyRecorder recorder = recorders.computeIfAbsent(operation, o -> new LatencyRecorder());
+			long begin = System.nanoTime();
+			try {
+				HttpResponse<String> response = httpClient.send(request(operation), HttpResponse.BodyHandlers.ofString());
+				long elapsed = System.nanoTime() - begin;
+				int status = response.statusCode();
+				if (status / 100 == 2) {
+					if (operation == Operation.SIGNIN) {
+						JsonNode body = objectMapper.readTree(response.body());
+						token = body.path("token").asText();
+						refreshToken = body.path("refreshToken").asText();
+					}
+					if (measured) {
+						recorder.record(elapsed);
+					}
+				} else if (measured && status == 503) {
+					recorder.recordRejected();
+				} else if (measured) {
+					recorder.recordError();
+				}
+			} catch (IOException e) {
+				if (measured) {
+					recorder.recordError();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Load test client interrupted", e);
+			}
+		}
+
+		private HttpRequest request(Operation operation) {
+			return switch (operation) {
+				case SIGNIN -> json(AUTH + "/signin", "{\"email\":\"" + email(random.nextInt(users))
+						+ "\",\"password\":\"" + PASSWORD + "\"}");
+				case REFRESH -> json(AUTH + "/refresh", "{\"token\":\"" + refreshToken + "\"}");
+				case PROJECTS_ALL -> authorized(PROJECTS + "/all").GET().build();
+				case PROJECT_RETRIEVE -> authorized(PROJECTS + "/retrieve/" + title(random.nextInt(projects))).GET().build();
+				case STATUS_UPDATE -> authorized(PROJECTS + "/update-status/" + title(random.nextInt(projects))
+						+ "?status=" + STATUSES[random.nextInt(STATUSES.length)])
+						.method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+			};
+		}
+
+		private HttpRequest json(String path, String body) {
+			return HttpRequest.newBuilder(URI.create(baseUrl + path))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(body))
+					.build();
+		}
+
+		private HttpRequest.Builder authorized(String path) {
+			return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+		}
+	}
+
+	private static String email(int user) {
+		return "load" + user + "@loadtest.local";
+	}
+
+	private static String title(int project) {
+		return "load-project-" + project;
+	}
+}
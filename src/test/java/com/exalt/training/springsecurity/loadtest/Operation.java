@@ -0,0 +1,39 @@
+package com.exalt.training.springsecurity.loadtest;
+
+/**
+ * Enumeration of the requests the load generator can issue, keyed by the names used in {@code loadtest.mix}.
+ *
+ * <ul>
+ *     <li>SIGNIN: POST /auth/signin with the credentials of a random seeded user.</li>
+ *     <li>REFRESH: POST /auth/refresh with the client's refresh token.</li>
+ *     <li>PROJECTS_ALL: GET /projects/all.</li>
+ *     <li>PROJECT_RETRIEVE: GET /projects/retrieve/{title} for a random seeded project.</li>
+ *     <li>STATUS_UPDATE: PATCH /projects/update-status/{title} for a random seeded project.</li>
+ * </ul>
+ */
+enum Operation {
+	SIGNIN("signin"),
+	REFRESH("refresh"),
+	PROJECTS_ALL("all"),
+	PROJECT_RETRIEVE("retrieve"),
+	STATUS_UPDATE("status");
+
+	private final String key; // name used in the mix, the report and the baseline file
+
+	Operation(String key) {
+		this.key = key;
+	}
+
+	String key() {
+		return key;
+	}
+
+	static Operation fromKey(String key) {
+		for (Operation operation : values()) {
+			if (operation.key.equals(key)) {
+				return operation;
+			}
+		}
+		throw new IllegalArgumentException("Unknown load test operation: " + key);
+	}
+}
@@ -0,0 +1,228 @@
+package com.exalt.training.springsecurity.outbox;
+
+import com.exalt.training.springsecurity.model.OutboxEvent;
+import com.exalt.training.springsecurity.model.OutboxEventType;
+import com.exalt.training.springsecurity.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drains the outbox of an embedded PostgreSQL with dispatchers built on a recording sink. The scheduled
+ * dispatcher of the context is disabled so that only the tests touch the table.
+ */
+@SpringBootTest(properties = {"app.outbox.dispatcher.enabled=false", "app.concurrency.enabled=false"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class OutboxDispatcherTests {
+
+	private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(10);
+	private static final Duration MAX_BACKOFF = Duration.ofSeconds(60);
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final RecordingSink sink = new RecordingSink();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@BeforeEach
+	void emptyOutbox() {
+		outboxEventRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void deliversDueEventsInOrderBatchAfterBatchAndDeletesThem() {
+		List<Long> ids = save("a", "b", "c", "d", "e");
+
+		dispatcher(2).dispatch();
+
+		assertThat(sink.delivered).containsExactlyElementsOf(ids);
+		assertThat(outboxEventRepository.count()).isZero();
+		assertThat(registry.get("app.outbox.delivered").counter().count()).isEqualTo(5);
+	}
+
+	@Test
+	void failedEventIsRescheduledWithBackoffWithoutBlockingTheOthers() {
+		List<Long> ids = save("a", "broken", "c");
+		sink.failing.add("broken");
+		OutboxDispatcher dispatcher = dispatcher(10);
+
+		Instant before = Instant.now();
+		dispatcher.dispatch();
+
+		assertThat(sink.delivered).containsExactly(ids.get(0), ids.get(2));
+		OutboxEvent failed = outboxEventRepository.findById(ids.get(1)).orElseThrow();
+		assertThat(failed.getAttempts()).isEqualTo(1);
+		assertThat(failed.getLastError()).contains("sink rejected broken");
+		assertBackoff(failed, before, INITIAL_BACKOFF);
+		assertThat(registry.get("app.outbox.failed").counter().count()).isEqualTo(1);
+
+		dispatcher.dispatch();
+		assertThat(sink.attempts).hasSize(3);
+
+		makeDue(failed, 1);
+		before = Instant.now();
+		dispatcher.dispatch();
+		assertBackoff(outboxEventRepository.findById(ids.get(1)).orElseThrow(), before, INITIAL_BACKOFF.multipliedBy(2));
+
+		makeDue(failed, 10);
+		before = Instant.now();
+		dispatcher.dispatch();
+		OutboxEvent capped = outboxEventRepository.findById(ids.get(1)).orElseThrow();
+		assertThat(capped.getAttempts()).isEqualTo(11);
+		assertBackoff(capped, before, MAX_BACKOFF);
+	}
+
+	@Test
+	void eventRejectedBySinkIsRedeliveredOnceDue() {
+		List<Long> ids = save("flaky");
+		sink.failing.add("flaky");
+		OutboxDispatcher dispatcher = dispatcher(10);
+		dispatcher.dispatch();
+
+		sink.failing.clear();
+		makeDue(outboxEventRepository.findById(ids.get(0)).orElseThrow(), 1);
+		dispatcher.dispatch();
+
+		assertThat(sink.attempts).containsExactly(ids.get(0), ids.get(0));
+		assertThat(sink.delivered).containsExactly(ids.get(0));
+		assertThat(outboxEventRepository.count()).isZero();
+	}
+
+	@Test
+	void crashBeforeCommitRedeliversTheWholeBatch() {
+		List<Long> ids = save("a", "crash");
+		sink.crashing.add("crash");
+		OutboxDispatcher dispatcher = dispatcher(10);
+
+		assertThatThrownBy(dispatcher::dispatch).isInstanceOf(Crash.class);
+		assertThat(sink.delivered).containsExactly(ids.get(0));
+		assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+		sink.crashing.clear();
+		dispatcher.dispatch();
+
+		assertThat(sink.delivered).containsExactly(ids.get(0), ids.get(0), ids.get(1));
+		assertThat(outboxEventRepository.count()).isZero();
+	}
+
+	@Test
+	void eventsLockedByAnotherDispatcherAreSkipped() throws Exception {
+		List<Long> ids = save("a", "b", "c", "d");
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<List<Long>> otherNode = executor.submit(() -> transaction.execute(status -> {
+				List<Long> claimed = outboxEventRepository.lockDueBatch(Instant.now(), 2).stream()
+						.map(OutboxEvent::getId)
+						.toList();
+				locked.countDown();
+				await(release);
+				return claimed;
+			}));
+			assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+			dispatcher(10).dispatch();
+			release.countDown();
+
+			assertThat(otherNode.get(10, TimeUnit.SECONDS)).containsExactly(ids.get(0), ids.get(1));
+			assertThat(sink.delivered).containsExactly(ids.get(2), ids.get(3));
+			assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getId)
+					.containsExactlyInAnyOrder(ids.get(0), ids.get(1));
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	private OutboxDispatcher dispatcher(int batchSize) {
+		return new OutboxDispatcher(outboxEventRepository, sink, transactionManager, batchSize, INITIAL_BACKOFF,
+				MAX_BACKOFF, registry);
+	}
+
+	private List<Long> save(String... keys) {
+		Instant now = Instant.now().minusSeconds(1);
+		return Arrays.stream(keys)
+				.map(key -> outboxEventRepository.save(new OutboxEvent(null, "project", key,
+						OutboxEventType.PROJECT_STATUS_CHANGED, "{}", now, 0, now, null)).getId())
+				.toList();
+	}
+
+	private void makeDue(OutboxEvent event, int attempts) {
+		OutboxEvent current = outboxEventRepository.findById(event.getId()).orElseThrow();
+		current.setAttempts(attempts);
+		current.setNextAttemptAt(Instant.now().minusSeconds(1));
+		outboxEventRepository.save(current);
+	}
+
+	private static void assertBackoff(OutboxEvent event, Instant before, Duration backoff) {
+		// up to 20% jitter is subtracted from the backoff
+		assertThat(event.getNextAttemptAt())
+				.isAfterOrEqualTo(before.plus(backoff.multipliedBy(8).dividedBy(10)))
+				.isBefore(Instant.now().plus(backoff).plusSeconds(1));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Simulates a dispatcher dying in the middle of a batch; unlike a delivery failure it is not caught.
+	 */
+	private static class Crash extends Error {
+		Crash() {
+			super("dispatcher crashed");
+		}
+	}
+
+	/**
+	 * Sink recording every attempt, rejecting the events of the failing keys and crashing on the crashing keys.
+	 */
+	private static class RecordingSink implements OutboxSink {
+		private final List<Long> attempts = new CopyOnWriteArrayList<>(); // ids of every delivery attempt
+		private final List<Long> delivered = new CopyOnWriteArrayList<>(); // ids of the accepted events
+		private final Set<String> failing = ConcurrentHashMap.newKeySet(); // keys to reject
+		private final Set<String> crashing = ConcurrentHashMap.newKeySet(); // keys to crash on
+
+		@Override
+		public void deliver(OutboxEvent event) {
+			attempts.add(event.getId());
+			if (crashing.contains(event.getAggregateId())) {
+				throw new Crash();
+			}
+			if (failing.contains(event.getAggregateId())) {
+				throw new IllegalStateException("sink rejected " + event.getAggregateId());
+			}
+			delivered.add(event.getId());
+		}
+	}
+}
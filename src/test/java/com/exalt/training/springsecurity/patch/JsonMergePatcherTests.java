@@ -0,0 +1,74 @@
+package com.exalt.training.springsecurity.patch;
+
+import com.exalt.training.springsecurity.dto.ProjectDTO;
+import com.exalt.training.springsecurity.exception.InvalidPatchException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonMergePatcherTests {
+
+	private static final Set<String> FIELDS = Set.of("title", "company", "description", "status");
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final JsonMergePatcher patcher = new JsonMergePatcher(objectMapper,
+			Validation.buildDefaultValidatorFactory().getValidator());
+
+	@Test
+	void absentMembersKeepTheirValue() throws Exception {
+		ProjectDTO patched = patcher.apply(json("{\"status\":\"done\"}"), project(), FIELDS);
+
+		assertThat(patched.getStatus()).isEqualTo("done");
+		assertThat(patched.getTitle()).isEqualTo("apollo");
+		assertThat(patched.getCompany()).isEqualTo("nasa");
+		assertThat(patched.getDescription()).isEqualTo("moon");
+	}
+
+	@Test
+	void nullRemovesOptionalMembers() throws Exception {
+		assertThat(patcher.apply(json("{\"description\":null}"), project(), FIELDS).getDescription()).isNull();
+	}
+
+	@Test
+	void patchedTargetIsValidated() {
+		assertThatThrownBy(() -> patcher.apply(json("{\"company\":null}"), project(), FIELDS))
+				.isInstanceOf(InvalidPatchException.class).hasMessage("Company is required");
+		assertThatThrownBy(() -> patcher.apply(json("{\"title\":\"" + "t".repeat(101) + "\"}"), project(), FIELDS))
+				.isInstanceOf(InvalidPatchException.class);
+	}
+
+	@Test
+	void onlyListedMembersMayBePatched() {
+		assertThatThrownBy(() -> patcher.apply(json("{\"id\":7}"), project(), FIELDS))
+				.isInstanceOf(InvalidPatchException.class).hasMessage("Field cannot be patched: id");
+		assertThatThrownBy(() -> patcher.apply(json("{\"status\":\"done\"}"), project(), Set.of("title")))
+				.isInstanceOf(InvalidPatchException.class);
+	}
+
+	@Test
+	void patchMustBeAnObject() {
+		assertThatThrownBy(() -> patcher.apply(json("[{\"status\":\"done\"}]"), project(), FIELDS))
+				.isInstanceOf(InvalidPatchException.class);
+		assertThatThrownBy(() -> patcher.apply(json("{\"status\":{\"value\":\"done\"}}"), project(), FIELDS))
+				.isInstanceOf(InvalidPatchException.class);
+	}
+
+	private JsonNode json(String text) throws Exception {
+		return objectMapper.readTree(text);
+	}
+
+	private static ProjectDTO project() {
+		ProjectDTO project = new ProjectDTO();
+		project.setTitle("apollo");
+		project.setCompany("nasa");
+		project.setDescription("moon");
+		project.setStatus("pending");
+		return project;
+	}
+}
@@ -0,0 +1,110 @@
+package com.exalt.training.springsecurity.repository;
+
+import com.exalt.training.springsecurity.model.Project;
+import com.exalt.training.springsecurity.model.ProjectMember;
+import com.exalt.training.springsecurity.model.ProjectRole;
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class ProjectRepositoryTests {
+
+	private static final int PROJECTS = 10;
+	private static final int USERS = 4;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void seed() {
+		User[] users = new User[USERS];
+		for (int u = 0; u < USERS; u++) {
+			users[u] = entityManager.persist(new User(null, "first" + u, "second" + u, "user" + u + "@test.com", "secret", Role.TeamMember));
+		}
+		for (int p = 0; p < PROJECTS; p++) {
+			Project project = new Project();
+			project.setTitle("project-" + p);
+			project.setCompany("exalt");
+			project.setStatus("pending");
+			// user0 belongs to the even projects only, every other user to all of them
+			for (int u = (p % 2 == 0) ? 0 : 1; u < USERS; u++) {
+				project.getMembers().add(new ProjectMember(null, project, users[u], ProjectRole.Member));
+			}
+			entityManager.persist(project);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void findAllLoadsMembersInOneQuery() {
+		List<Project> projects = projectRepository.findAll();
+		projects.forEach(project -> project.getMembers().forEach(ProjectMember::getEmail));
+
+		assertThat(projects).hasSize(PROJECTS);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void findAllWithoutMembersLeavesMembersUnloaded() {
+		List<Project> projects = projectRepository.findAllWithoutMembers();
+
+		assertThat(projects).hasSize(PROJECTS)
+				.allSatisfy(project -> assertThat(Hibernate.isInitialized(project.getMembers())).isFalse());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void findWithMembersByTitleLoadsMembersInOneQuery() {
+		Project project = projectRepository.findWithMembersByTitle("project-1").orElseThrow();
+		project.getMembers().forEach(ProjectMember::getEmail);
+
+		assertThat(project.getMembers()).hasSize(USERS - 1);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void findByTitleLeavesMembersUnloaded() {
+		Project project = projectRepository.findByTitle("project-1").orElseThrow();
+
+		assertThat(Hibernate.isInitialized(project.getMembers())).isFalse();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void findAllByMemberEmailReturnsOnlyTheMembersProjectsInOneQuery() {
+		List<Project> projects = projectRepository.findAllByMemberEmail("user0@test.com");
+		projects.forEach(project -> project.getMembers().forEach(ProjectMember::getEmail));
+
+		assertThat(projects).hasSize(PROJECTS / 2)
+				.allSatisfy(project -> assertThat(project.getMembers()).hasSize(USERS));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+}
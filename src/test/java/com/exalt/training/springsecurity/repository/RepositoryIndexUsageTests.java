@@ -0,0 +1,105 @@
+package com.exalt.training.springsecurity.repository;
+
+import com.exalt.training.springsecurity.model.Role;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs each lookup query of the repositories against the migrated schema and asserts through {@code EXPLAIN}
+ * that PostgreSQL can answer it without a sequential scan. Sequential scans are disabled for the session so the
+ * planner picks an index whenever one applies, regardless of how little data the test tables hold.
+ * The unfiltered listing queries ({@code findAll}, {@code findAllTitles}, {@code findAllEmails}) read whole
+ * tables by design and are not checked.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.exalt.training.springsecurity.repository.RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class RepositoryIndexUsageTests {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void disableSequentialScans() {
+		jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+		RecordingStatementInspector.clear();
+	}
+
+	@Test
+	void findByEmailUsesLowerEmailIndex() {
+		userRepository.findByEmail("Maria@Gmail.com");
+		assertThat(plan("Maria@Gmail.com")).contains("users_email_lower_key");
+	}
+
+	@Test
+	void existsByRoleUsesRoleIndex() {
+		userRepository.existsByRole(Role.CEO);
+		assertThat(plan(Role.CEO.ordinal())).contains("users_role_idx");
+	}
+
+	@Test
+	void findByTitleUsesTitleIndex() {
+		projectRepository.findByTitle("apollo");
+		assertThat(plan("apollo")).contains("projects_title_key");
+	}
+
+	@Test
+	void findAllByIdUsesPrimaryKey() {
+		projectRepository.findAllById(List.of(1, 2));
+		assertThat(plan(1, 2)).contains("projects_pkey");
+	}
+
+	@Test
+	void findAllByMemberEmailUsesIndexes() {
+		projectRepository.findAllByMemberEmail("maria@gmail.com");
+		assertThat(plan("maria@gmail.com")).contains("users_email_lower_key");
+	}
+
+	@Test
+	void searchByTextUsesSearchIndex() {
+		projectRepository.searchByText("mobile banking", 10);
+		assertThat(plan("mobile banking", "mobile banking", 10)).contains("projects_search_idx");
+	}
+
+	@Test
+	void lockDueBatchUsesNextAttemptIndex() {
+		Instant now = Instant.now();
+		outboxEventRepository.lockDueBatch(now, 10);
+		assertThat(plan(Timestamp.from(now), 10)).contains("outbox_events_next_attempt_idx");
+	}
+
+	/**
+	 * Explains the single statement recorded since the last reset with the given bind values and
+	 * asserts that it contains no sequential scan.
+	 */
+	private String plan(Object... bindValues) {
+		List<String> statements = RecordingStatementInspector.statements();
+		assertThat(statements).hasSize(1);
+		String sql = statements.get(0);
+		assertThat(sql.chars().filter(c -> c == '?').count()).isEqualTo(bindValues.length);
+		String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, bindValues));
+		assertThat(plan).as(sql).doesNotContain("Seq Scan");
+		return plan;
+	}
+}
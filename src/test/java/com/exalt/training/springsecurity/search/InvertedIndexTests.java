@@ -0,0 +1,67 @@
+package com.exalt.training.springsecurity.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTests {
+
+	private final InvertedIndex index = new InvertedIndex();
+
+	@Test
+	void ranksByWeightedTermMatches() {
+		index.put(1, Map.of("payment", 1.0f));
+		index.put(2, Map.of("payment", 2.5f));
+		index.put(3, Map.of("payment", 1.0f, "gateway", 1.0f));
+
+		assertThat(index.search(List.of("payment", "gateway"), 10)).containsExactly(3, 2, 1);
+	}
+
+	@Test
+	void rareTermsWeighMoreThanCommonOnes() {
+		index.put(1, Map.of("cloud", 1.0f));
+		index.put(2, Map.of("cloud", 1.0f));
+		index.put(3, Map.of("cloud", 1.0f));
+		index.put(4, Map.of("crm", 1.0f));
+
+		assertThat(index.search(List.of("cloud", "crm"), 1)).containsExactly(4);
+	}
+
+	@Test
+	void limitKeepsTheBestDocuments() {
+		for (int id = 1; id <= 20; id++) {
+			index.put(id, Map.of("data", (float) id));
+		}
+
+		assertThat(index.search(List.of("data"), 3)).containsExactly(20, 19, 18);
+		assertThat(index.search(List.of("data"), 0)).isEmpty();
+		assertThat(index.search(List.of(), 3)).isEmpty();
+	}
+
+	@Test
+	void putReplacesThePreviousTermsOfADocument() {
+		index.put(1, Map.of("apollo", 1.0f));
+		index.put(1, Map.of("artemis", 1.0f));
+
+		assertThat(index.search(List.of("apollo"), 10)).isEmpty();
+		assertThat(index.search(List.of("artemis"), 10)).containsExactly(1);
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void removeAndClearDropDocuments() {
+		index.put(1, Map.of("apollo", 1.0f));
+		index.put(2, Map.of("apollo", 1.0f));
+
+		index.remove(1);
+		index.remove(42);
+		assertThat(index.search(List.of("apollo"), 10)).containsExactly(2);
+
+		index.clear();
+		assertThat(index.size()).isZero();
+		assertThat(index.search(List.of("apollo"), 10)).isEmpty();
+	}
+}
@@ -0,0 +1,79 @@
+package com.exalt.training.springsecurity.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTests {
+
+	private final PrefixIndex index = new PrefixIndex();
+
+	@Test
+	void suggestReturnsTheValuesOfThePrefixRangeInOrder() {
+		index.replaceAll(List.of("beta", "Alpha", "alphabet", "Alpine", "gamma"));
+
+		assertThat(index.suggest("AL", 10)).containsExactly("Alpha", "alphabet", "Alpine");
+		assertThat(index.suggest("alp", 2)).containsExactly("Alpha", "alphabet");
+		assertThat(index.suggest("", 10)).containsExactly("Alpha", "alphabet", "Alpine", "beta", "gamma");
+		assertThat(index.suggest("delta", 10)).isEmpty();
+		assertThat(index.suggest("zzz", 10)).isEmpty();
+	}
+
+	@Test
+	void valuesDifferingOnlyInCaseAreDistinct() {
+		index.replaceAll(List.of("apollo", "Apollo", "APOLLO", "Apollo"));
+
+		assertThat(index.size()).isEqualTo(3);
+		assertThat(index.suggest("apo", 10)).containsExactly("APOLLO", "Apollo", "apollo");
+	}
+
+	@Test
+	void addKeepsCaseVariantsAndIgnoresDuplicates() {
+		index.replaceAll(List.of("Apollo", "Zeus"));
+
+		index.add("apollo");
+		index.add("Apollo");
+		index.add("Artemis");
+
+		assertThat(index.suggest("a", 10)).containsExactly("Apollo", "apollo", "Artemis");
+	}
+
+	@Test
+	void removeOnlyRemovesTheExactValue() {
+		index.replaceAll(List.of("Apollo", "apollo", "Artemis"));
+
+		index.remove("APOLLO");
+		assertThat(index.size()).isEqualTo(3);
+
+		index.remove("apollo");
+		assertThat(index.suggest("a", 10)).containsExactly("Apollo", "Artemis");
+	}
+
+	@Test
+	void removeIgnoringCaseRemovesEveryCaseVariant() {
+		index.replaceAll(List.of("Bob@Test.com", "bob@test.com", "bobby@test.com"));
+
+		index.removeIgnoringCase("BOB@test.com");
+
+		assertThat(index.suggest("bob", 10)).containsExactly("bobby@test.com");
+	}
+
+	@Test
+	void replaceAllDiscardsThePreviousContent() {
+		index.replaceAll(List.of("Apollo", "Artemis"));
+
+		index.replaceAll(Arrays.asList("Hermes", null, "hera"));
+
+		assertThat(index.suggest("", 10)).containsExactly("hera", "Hermes");
+	}
+
+	@Test
+	void suggestFindsTheFirstOfManyEqualKeys() {
+		index.replaceAll(List.of("ab", "aB", "Ab", "AB", "abc"));
+
+		assertThat(index.suggest("ab", 10)).containsExactly("AB", "Ab", "aB", "ab", "abc");
+	}
+}
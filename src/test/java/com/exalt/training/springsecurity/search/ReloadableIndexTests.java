@@ -0,0 +1,52 @@
+package com.exalt.training.springsecurity.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReloadableIndexTests {
+
+	private final ReloadableIndex<PrefixIndex> holder = new ReloadableIndex<>(new PrefixIndex());
+
+	@Test
+	void reloadReplacesTheIndex() {
+		holder.update(index -> index.add("stale"));
+
+		holder.reload(() -> loaded("Apollo", "Artemis"));
+
+		assertThat(holder.get().suggest("", 10)).containsExactly("Apollo", "Artemis");
+	}
+
+	@Test
+	void updatesAppliedDuringAReloadAreReplayed() {
+		holder.reload(() -> {
+			PrefixIndex loaded = loaded("Apollo", "Artemis"); // read before the concurrent writes committed
+			holder.update(index -> index.add("Hermes"));
+			holder.update(index -> index.remove("Artemis"));
+			return loaded;
+		});
+
+		assertThat(holder.get().suggest("", 10)).containsExactly("Apollo", "Hermes");
+	}
+
+	@Test
+	void failedReloadKeepsTheCurrentIndexAndStopsRecording() {
+		holder.update(index -> index.add("Apollo"));
+
+		assertThatThrownBy(() -> holder.reload(() -> {
+			throw new IllegalStateException("database down");
+		})).isInstanceOf(IllegalStateException.class);
+		holder.update(index -> index.add("Hermes"));
+
+		assertThat(holder.get().suggest("", 10)).containsExactly("Apollo", "Hermes");
+	}
+
+	private static PrefixIndex loaded(String... values) {
+		PrefixIndex index = new PrefixIndex();
+		index.replaceAll(List.of(values));
+		return index;
+	}
+}
@@ -0,0 +1,35 @@
+package com.exalt.training.springsecurity.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenizerTests {
+
+	@Test
+	void splitsOnNonWordCharactersAndLowerCases() {
+		assertThat(Tokenizer.tokenize("Payment-Gateway v2, REST API!")).containsExactly("payment", "gateway", "v2", "rest", "api");
+	}
+
+	@Test
+	void dropsStopWordsAndSingleCharacters() {
+		assertThat(Tokenizer.tokenize("The migration of a CRM to the cloud")).containsExactly("migration", "crm", "cloud");
+	}
+
+	@Test
+	void keepsDuplicatesInOrder() {
+		assertThat(Tokenizer.tokenize("data lake, data mesh")).containsExactly("data", "lake", "data", "mesh");
+	}
+
+	@Test
+	void keepsNonAsciiLetters() {
+		assertThat(Tokenizer.tokenize("Syst\u00e8me \u00c9quipe")).containsExactly("syst\u00e8me", "\u00e9quipe");
+	}
+
+	@Test
+	void nullAndBlankTextHaveNoTerms() {
+		assertThat(Tokenizer.tokenize(null)).isEmpty();
+		assertThat(Tokenizer.tokenize("")).isEmpty();
+		assertThat(Tokenizer.tokenize(" -- ")).isEmpty();
+	}
+}
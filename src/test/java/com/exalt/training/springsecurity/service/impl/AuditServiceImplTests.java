@@ -0,0 +1,80 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.audit.AuditAction;
+import com.exalt.training.springsecurity.audit.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditServiceImplTests {
+
+	private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final AuditServiceImpl auditService = new AuditServiceImpl(jdbcTemplate, 64, 10, Duration.ofSeconds(10),
+			OverflowPolicy.DROP, registry);
+
+	@Test
+	void missingActorIsStoredAsUnknown() {
+		auditService.recordAs(AuditAction.SIGNIN_FAILED, null, null, "bad credentials");
+		auditService.recordAs(AuditAction.SIGNIN_FAILED, " ", null, "bad credentials");
+		writeBufferedEvents();
+
+		assertThat(jdbcTemplate.actors).containsExactly("unknown", "unknown");
+		assertThat(count("written")).isEqualTo(2);
+	}
+
+	@Test
+	void rejectedBatchIsWrittenRowByRow() {
+		auditService.recordAs(AuditAction.SIGNIN_SUCCEEDED, "first@audit.test", null, null);
+		auditService.recordAs(AuditAction.SIGNIN_SUCCEEDED, "second@audit.test", "bad", null);
+		auditService.recordAs(AuditAction.SIGNIN_SUCCEEDED, "third@audit.test", null, null);
+		writeBufferedEvents();
+
+		assertThat(jdbcTemplate.statements).hasValue(4); // the rejected batch, then one insert per row
+		assertThat(jdbcTemplate.actors).containsExactly("first@audit.test", "third@audit.test");
+		assertThat(count("written")).isEqualTo(2);
+		assertThat(count("write_failure")).isEqualTo(1);
+	}
+
+	/**
+	 * Starts the writer on the events recorded so far, so that they form one batch, and waits for it to finish.
+	 */
+	private void writeBufferedEvents() {
+		auditService.start();
+		auditService.stop();
+	}
+
+	private double count(String outcome) {
+		return registry.get("app.audit.events").tag("outcome", outcome).counter().count();
+	}
+
+	/**
+	 * Stores the actors of the inserted rows and rejects every statement containing the target "bad", like a
+	 * constraint of {@code audit_events} would.
+	 */
+	private static final class RecordingJdbcTemplate extends JdbcTemplate {
+		private final List<String> actors = new ArrayList<>();
+		private final AtomicInteger statements = new AtomicInteger();
+
+		@Override
+		public int update(String sql, Object... args) {
+			statements.incrementAndGet();
+			if (Arrays.asList(args).contains("bad")) {
+				throw new DataIntegrityViolationException("rejected row");
+			}
+			for (int i = 2; i < args.length; i += 5) {
+				actors.add((String) args[i]);
+			}
+			return args.length / 5;
+		}
+	}
+}
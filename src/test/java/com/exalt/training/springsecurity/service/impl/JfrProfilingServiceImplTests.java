@@ -0,0 +1,157 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.dto.ProfilingStatus;
+import com.exalt.training.springsecurity.dto.ProfilingStatus.State;
+import com.exalt.training.springsecurity.exception.ProfilingOverloadedException;
+import com.exalt.training.springsecurity.exception.ProfilingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs short real recordings with the JDK Flight Recorder; the settings normally injected from
+ * {@code app.profiling.*} are set directly.
+ */
+class JfrProfilingServiceImplTests {
+
+	private static final Duration RECORDING = Duration.ofSeconds(1);
+	private static final long TIMEOUT_MILLIS = 30_000;
+
+	private JfrProfilingServiceImpl profilingService;
+
+	@BeforeEach
+	void createService() {
+		profilingService = new JfrProfilingServiceImpl();
+		ReflectionTestUtils.setField(profilingService, "allowedProfiles", List.of("default", "profile"));
+		ReflectionTestUtils.setField(profilingService, "maxDuration", Duration.ofSeconds(60));
+		ReflectionTestUtils.setField(profilingService, "maxSize", DataSize.ofMegabytes(50));
+		ReflectionTestUtils.setField(profilingService, "cooldown", Duration.ZERO);
+		ReflectionTestUtils.setField(profilingService, "maxCpuLoad", 1.0);
+	}
+
+	@AfterEach
+	void shutdown() throws InterruptedException {
+		profilingService.shutdown();
+	}
+
+	@Test
+	void startReturnsBeforeTheRecordingEndsAndTheSummaryCanBePolled() throws Exception {
+		long start = System.nanoTime();
+		ProfilingStatus started = profilingService.start("default", RECORDING);
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(RECORDING);
+		assertThat(started.state()).isEqualTo(State.RUNNING);
+		assertThatThrownBy(() -> profilingService.getRecording(started.recordingId()))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		ProfilingStatus finished = awaitEnd(started.recordingId());
+		assertThat(finished.state()).isEqualTo(State.FINISHED);
+		assertThat(finished.summary().recordingId()).isEqualTo(started.recordingId());
+		assertThat(finished.summary().sizeBytes()).isPositive();
+		assertThat(Files.size(profilingService.getRecording(started.recordingId()))).isEqualTo(finished.summary().sizeBytes());
+	}
+
+	@Test
+	void onlyOneRecordingRunsAtATime() throws Exception {
+		ProfilingStatus started = profilingService.start("default", RECORDING);
+
+		assertThatThrownBy(() -> profilingService.start("default", RECORDING))
+				.isInstanceOf(ProfilingUnavailableException.class)
+				.isNotInstanceOf(ProfilingOverloadedException.class);
+		awaitEnd(started.recordingId());
+	}
+
+	@Test
+	void cooldownRefusesAnImmediateSecondRecording() throws Exception {
+		ReflectionTestUtils.setField(profilingService, "cooldown", Duration.ofMinutes(1));
+		awaitEnd(profilingService.start("default", RECORDING).recordingId());
+
+		assertThatThrownBy(() -> profilingService.start("default", RECORDING))
+				.isInstanceOf(ProfilingUnavailableException.class)
+				.isNotInstanceOf(ProfilingOverloadedException.class);
+	}
+
+	@Test
+	void highCpuLoadRefusesTheRecordingAndFreesTheSlot() {
+		ReflectionTestUtils.setField(profilingService, "maxCpuLoad", -2.0); // below any reported load
+
+		assertThatThrownBy(() -> profilingService.start("default", RECORDING))
+				.isInstanceOf(ProfilingOverloadedException.class);
+
+		ReflectionTestUtils.setField(profilingService, "maxCpuLoad", 1.0);
+		assertThat(profilingService.start("default", RECORDING).state()).isEqualTo(State.RUNNING);
+	}
+
+	@Test
+	void invalidProfileOrDurationIsRejected() {
+		assertThatThrownBy(() -> profilingService.start("custom", RECORDING))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> profilingService.start("default", Duration.ZERO))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> profilingService.start("default", Duration.ofMinutes(2)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void newRecordingReplacesTheFileOfThePreviousOne() throws Exception {
+		String first = profilingService.start("default", RECORDING).recordingId();
+		awaitEnd(first);
+		Path firstFile = profilingService.getRecording(first);
+
+		String second = profilingService.start("default", RECORDING).recordingId();
+
+		assertThat(firstFile).doesNotExist();
+		assertThatThrownBy(() -> profilingService.getStatus(first)).isInstanceOf(IllegalArgumentException.class);
+		awaitEnd(second);
+	}
+
+	@Test
+	void shutdownStopsTheRunningRecordingWithoutLeavingAFile() throws Exception {
+		String id = profilingService.start("default", Duration.ofSeconds(30)).recordingId();
+
+		profilingService.shutdown();
+
+		assertThat(profilingService.getStatus(id).state()).isEqualTo(State.FAILED);
+		assertThat(temporaryFiles(id)).isEmpty();
+	}
+
+	@Test
+	void shutdownDeletesTheKeptRecording() throws Exception {
+		String id = profilingService.start("default", RECORDING).recordingId();
+		awaitEnd(id);
+		Path file = profilingService.getRecording(id);
+
+		profilingService.shutdown();
+
+		assertThat(file).doesNotExist();
+	}
+
+	private ProfilingStatus awaitEnd(String recordingId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		ProfilingStatus status = profilingService.getStatus(recordingId);
+		while (status.state() == State.RUNNING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+			status = profilingService.getStatus(recordingId);
+		}
+		assertThat(status.state()).isNotEqualTo(State.RUNNING);
+		return status;
+	}
+
+	private static List<Path> temporaryFiles(String recordingId) throws IOException {
+		try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+			return files.filter(file -> file.getFileName().toString().startsWith("profiling-" + recordingId)).toList();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.dto.ProjectDTO;
+import com.exalt.training.springsecurity.exception.ProjectAccessDeniedException;
+import com.exalt.training.springsecurity.model.ProjectMember;
+import com.exalt.training.springsecurity.model.ProjectRole;
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
+import com.exalt.training.springsecurity.repository.ProjectRepository;
+import com.exalt.training.springsecurity.repository.UserRepository;
+import com.exalt.training.springsecurity.service.ProjectService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks who may change the members of a project, against an embedded PostgreSQL.
+ */
+@SpringBootTest(properties = "app.concurrency.enabled=false")
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class ProjectServiceImplTests {
+
+	private static final String DOMAIN = "@members.test";
+	private static final String TITLE = "members-apollo";
+
+	@Autowired
+	private ProjectService projectService;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User ceo;
+	private User projectLeader;
+	private User otherLeader;
+	private User member;
+
+	@BeforeEach
+	void seed() {
+		ceo = user("ceo", Role.CEO);
+		projectLeader = user("lead", Role.TeamLeader);
+		otherLeader = user("other", Role.TeamLeader);
+		member = user("member", Role.TeamMember);
+		ProjectDTO project = new ProjectDTO();
+		project.setTitle(TITLE);
+		project.setCompany("exalt");
+		project.setStatus("pending");
+		projectService.createProject(project);
+		projectService.addMember(TITLE, projectLeader.getEmail(), ProjectRole.Leader, ceo);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		projectRepository.findByTitle(TITLE).ifPresent(project -> projectService.deleteProjectByTitle(TITLE));
+		userRepository.deleteAll(userRepository.findAll().stream()
+				.filter(user -> user.getEmail().endsWith(DOMAIN))
+				.toList());
+	}
+
+	@Test
+	void leaderOfTheProjectCanChangeItsMembers() {
+		projectService.addMember(TITLE, member.getEmail(), ProjectRole.Member, projectLeader);
+		assertThat(memberEmails()).containsExactlyInAnyOrder(projectLeader.getEmail(), member.getEmail());
+
+		projectService.removeMember(TITLE, member.getEmail(), projectLeader);
+		assertThat(memberEmails()).containsExactly(projectLeader.getEmail());
+	}
+
+	@Test
+	void teamLeaderOutsideTheProjectCannotChangeItsMembers() {
+		assertThatThrownBy(() -> projectService.addMember(TITLE, otherLeader.getEmail(), ProjectRole.Owner, otherLeader))
+				.isInstanceOf(ProjectAccessDeniedException.class);
+		assertThatThrownBy(() -> projectService.removeMember(TITLE, projectLeader.getEmail(), otherLeader))
+				.isInstanceOf(ProjectAccessDeniedException.class);
+
+		assertThat(memberEmails()).containsExactly(projectLeader.getEmail());
+	}
+
+	@Test
+	void plainMemberCannotChangeTheMembersEvenAsTeamLeader() {
+		projectService.addMember(TITLE, otherLeader.getEmail(), ProjectRole.Member, ceo);
+
+		assertThatThrownBy(() -> projectService.addMember(TITLE, member.getEmail(), ProjectRole.Member, otherLeader))
+				.isInstanceOf(ProjectAccessDeniedException.class);
+		assertThat(memberEmails()).containsExactlyInAnyOrder(projectLeader.getEmail(), otherLeader.getEmail());
+	}
+
+	@Test
+	void ceoCanChangeTheMembersOfAnyProject() {
+		projectService.addMember(TITLE, member.getEmail(), ProjectRole.Member, ceo);
+		projectService.removeMember(TITLE, projectLeader.getEmail(), ceo);
+
+		assertThat(memberEmails()).containsExactly(member.getEmail());
+	}
+
+	@Test
+	void memberIsRemovedWhateverTheCaseOfTheEmail() {
+		projectService.addMember(TITLE, member.getEmail(), ProjectRole.Member, ceo);
+
+		projectService.removeMember(TITLE, member.getEmail().toUpperCase(Locale.ROOT), projectLeader);
+
+		assertThat(memberEmails()).containsExactly(projectLeader.getEmail());
+	}
+
+	private List<String> memberEmails() {
+		return projectRepository.findWithMembersByTitle(TITLE).orElseThrow().getMembers().stream()
+				.map(ProjectMember::getEmail)
+				.toList();
+	}
+
+	private User user(String name, Role role) {
+		return userRepository.save(new User(null, name, "members", name + DOMAIN, "secret", role));
+	}
+}
@@ -0,0 +1,251 @@
+package com.exalt.training.springsecurity.service.impl;
+
+import com.exalt.training.springsecurity.audit.AuditAction;
+import com.exalt.training.springsecurity.dto.AuditEntry;
+import com.exalt.training.springsecurity.dto.UserImportResult;
+import com.exalt.training.springsecurity.dto.UserImportResult.Status;
+import com.exalt.training.springsecurity.dto.UserImportSummary;
+import com.exalt.training.springsecurity.importing.UserImportFormat;
+import com.exalt.training.springsecurity.invalidation.InvalidationBus;
+import com.exalt.training.springsecurity.model.Role;
+import com.exalt.training.springsecurity.model.User;
+import com.exalt.training.springsecurity.repository.UserRepository;
+import com.exalt.training.springsecurity.service.AuditService;
+import com.exalt.training.springsecurity.service.SuggestionService;
+import com.exalt.training.springsecurity.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs bulk imports against an embedded PostgreSQL. The write-path variations, a driver that loses the per-row
+ * counts and a failing batch, use service instances built on a modified {@link JdbcTemplate}.
+ */
+@SpringBootTest(properties = {"app.concurrency.enabled=false", "app.users.import.chunk-size=10"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class UserImportServiceImplTests {
+
+	private static final String DOMAIN = "@import.test";
+	private static final String HEADER = "firstName,lastName,email,password,role\n";
+
+	@Autowired
+	private UserImportService userImportService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private SuggestionService suggestionService;
+
+	@Autowired
+	private InvalidationBus invalidationBus;
+
+	private final RecordingAuditService auditService = new RecordingAuditService();
+
+	@AfterEach
+	void cleanUp() {
+		userRepository.deleteAll(userRepository.findAll().stream()
+				.filter(user -> user.getEmail().endsWith(DOMAIN))
+				.toList());
+	}
+
+	@Test
+	void importedIdsNeverCollideWithHibernateIds() throws IOException {
+		User before = userRepository.insert(user("before"));
+
+		List<UserImportResult> results = importCsv(userImportService, "ada", "alan", "grace");
+		User after = userRepository.insert(user("after"));
+
+		assertThat(results).extracting(UserImportResult::status).containsOnly(Status.CREATED);
+		Set<Integer> ids = new HashSet<>();
+		ids.add(before.getId());
+		ids.add(after.getId());
+		results.forEach(result -> ids.add(result.id()));
+		assertThat(ids).hasSize(5);
+		assertThat(userRepository.findByEmail("grace" + DOMAIN)).get().extracting(User::getId)
+				.isEqualTo(results.get(2).id());
+	}
+
+	@Test
+	void nullAndInvalidRowsAreReportedWithoutFailingTheChunk() throws IOException {
+		List<UserImportResult> results = new ArrayList<>();
+		UserImportSummary summary = userImportService.importUsers(stream("""
+				null
+				{"firstName":"Ada","lastName":"Lovelace","email":"ada@import.test","password":"password123","role":"TeamMember"}
+				{"firstName":"Alan","lastName":"Turing","email":"not-an-email","password":"password123","role":"TeamMember"}
+				"""), UserImportFormat.NDJSON, results::addAll);
+
+		assertThat(results).extracting(UserImportResult::status).containsExactly(Status.INVALID, Status.CREATED, Status.INVALID);
+		assertThat(summary.created()).isEqualTo(1);
+		assertThat(summary.invalid()).isEqualTo(2);
+	}
+
+	@Test
+	void concurrentImportsOfTheSameEmailsCreateEachUserOnce() throws Exception {
+		String[] names = new String[25];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = "same" + i;
+		}
+		CountDownLatch start = new CountDownLatch(1);
+		Callable<List<UserImportResult>> importer = () -> {
+			start.await();
+			return importCsv(userImportService, names);
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<List<UserImportResult>> first = executor.submit(importer);
+			Future<List<UserImportResult>> second = executor.submit(importer);
+			start.countDown();
+			List<UserImportResult> results = new ArrayList<>(first.get());
+			results.addAll(second.get());
+
+			assertThat(results).filteredOn(result -> result.status() == Status.CREATED).hasSize(names.length);
+			assertThat(results).filteredOn(result -> result.status() == Status.DUPLICATE).hasSize(names.length);
+			assertThat(userRepository.findAll()).filteredOn(user -> user.getEmail().startsWith("same")).hasSize(names.length);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void rowsAreLookedUpWhenTheDriverReportsNoCounts() throws IOException {
+		JdbcTemplate noCounts = new JdbcTemplate(dataSource) {
+			@Override
+			public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+				// the second email gets taken between the existence check and the batch
+				userRepository.insert(user("taken"));
+				int[] counts = super.batchUpdate(sql, batchArgs);
+				Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+				return counts;
+			}
+		};
+
+		List<UserImportResult> results = importCsv(service(noCounts), "fresh", "taken");
+
+		assertThat(results).extracting(UserImportResult::status).containsExactly(Status.CREATED, Status.DUPLICATE);
+		assertThat(results.get(0).id()).isNotNull();
+		assertThat(userRepository.findByEmail("fresh" + DOMAIN)).isPresent();
+	}
+
+	@Test
+	void failedChunkIsReportedAndAudited() throws IOException {
+		JdbcTemplate failing = new JdbcTemplate(dataSource) {
+			@Override
+			public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+				throw new QueryTimeoutException("statement timeout");
+			}
+		};
+
+		List<UserImportResult> results = importCsv(service(failing), "ada", "alan");
+
+		assertThat(results).extracting(UserImportResult::status).containsExactly(Status.FAILED, Status.FAILED);
+		assertThat(userRepository.findByEmail("ada" + DOMAIN)).isEmpty();
+		assertThat(auditService.details).containsExactly("created=0 duplicates=0 invalid=0 failed=2");
+	}
+
+	@Test
+	void interruptedImportIsStillAudited() {
+		InputStream brokenInput = new SequenceInputStream(stream(HEADER + row("ada")), new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("connection reset");
+			}
+		});
+
+		assertThatThrownBy(() -> service(new JdbcTemplate(dataSource)).importUsers(brokenInput, UserImportFormat.CSV, results -> {
+		})).isInstanceOf(IOException.class);
+		assertThat(auditService.details).containsExactly("created=0 duplicates=0 invalid=0 failed=0 aborted");
+	}
+
+	private UserImportService service(JdbcTemplate jdbcTemplate) {
+		return new UserImportServiceImpl(jdbcTemplate, transactionManager, validator, objectMapper,
+				suggestionService, invalidationBus, auditService, 2, 10, 100, new SimpleMeterRegistry());
+	}
+
+	private static List<UserImportResult> importCsv(UserImportService service, String... names) throws IOException {
+		StringBuilder csv = new StringBuilder(HEADER);
+		for (String name : names) {
+			csv.append(row(name));
+		}
+		List<UserImportResult> results = Collections.synchronizedList(new ArrayList<>());
+		service.importUsers(stream(csv.toString()), UserImportFormat.CSV, results::addAll);
+		return results;
+	}
+
+	private static String row(String name) {
+		return name + ",Imported," + name + DOMAIN + ",password123,TeamMember\n";
+	}
+
+	private static User user(String name) {
+		return new User(null, name, "Imported", name + DOMAIN, "secret", Role.TeamMember);
+	}
+
+	private static InputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Keeps the details of the recorded imports instead of writing them.
+	 */
+	private static final class RecordingAuditService implements AuditService {
+		private final List<String> details = new ArrayList<>();
+
+		@Override
+		public void record(AuditAction action, String target, String details) {
+			this.details.add(details);
+		}
+
+		@Override
+		public void recordAs(AuditAction action, String actor, String target, String details) {
+			this.details.add(details);
+		}
+
+		@Override
+		public List<AuditEntry> find(Instant from, Instant to, AuditAction action, String actor, int limit) {
+			return List.of();
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.exalt.training.springsecurity.timing;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the filter over mock responses to check which bodies are held back until the header is complete.
+ */
+class ServerTimingFilterTests {
+
+	private final ServerTimingFilter filter = new ServerTimingFilter(TimeUnit.SECONDS.toNanos(10));
+	private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/exalt/training/projects/all");
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	@Test
+	void bufferedBodyIsSentAfterTheHeader() throws Exception {
+		run(res -> {
+			res.setContentType("application/json");
+			res.getOutputStream().write("[1,2,3]".getBytes(StandardCharsets.UTF_8));
+			res.flushBuffer();
+			assertThat(response.getContentAsByteArray()).isEmpty();
+		});
+
+		assertThat(response.getContentAsString()).isEqualTo("[1,2,3]");
+		assertThat(response.getHeader("Server-Timing")).contains("total;dur=");
+	}
+
+	@Test
+	void writerBodyIsBufferedToo() throws Exception {
+		run(res -> {
+			res.setContentType("text/plain;charset=UTF-8");
+			res.getWriter().write("héllo");
+		});
+
+		assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("héllo");
+		assertThat(response.getHeader("Server-Timing")).contains("total;dur=");
+	}
+
+	@Test
+	void ndjsonIsStreamedAsItIsWritten() throws Exception {
+		run(res -> {
+			res.setContentType("application/x-ndjson");
+			ServletOutputStream out = res.getOutputStream();
+			out.write("{\"line\":1}\n".getBytes(StandardCharsets.UTF_8));
+			out.flush();
+			assertThat(response.getContentAsString()).isEqualTo("{\"line\":1}\n");
+			assertThat(response.getHeader("Server-Timing")).contains("total;dur=");
+			out.write("{\"line\":2}\n".getBytes(StandardCharsets.UTF_8));
+		});
+
+		assertThat(response.getContentAsString()).isEqualTo("{\"line\":1}\n{\"line\":2}\n");
+	}
+
+	@Test
+	void downloadsBypassTheBuffer() throws Exception {
+		byte[] file = new byte[64 * 1024];
+		run(res -> {
+			res.setContentType("application/octet-stream");
+			res.setContentLengthLong(file.length);
+			res.getOutputStream().write(file, 0, 1024);
+			assertThat(response.getContentAsByteArray()).hasSize(1024);
+			res.getOutputStream().write(file, 1024, file.length - 1024);
+		});
+
+		assertThat(response.getContentAsByteArray()).hasSize(file.length);
+		assertThat(response.getContentLengthLong()).isEqualTo(file.length);
+		assertThat(response.getHeader("Server-Timing")).isNotNull();
+	}
+
+	@Test
+	void errorsKeepTheHeader() throws Exception {
+		run(res -> res.sendError(404));
+
+		assertThat(response.getStatus()).isEqualTo(404);
+		assertThat(response.getHeader("Server-Timing")).contains("total;dur=");
+	}
+
+	private void run(Body body) throws Exception {
+		filter.doFilter(request, response, (req, res) -> body.write((HttpServletResponse) res));
+	}
+
+	/**
+	 * Writes the response in place of the controller.
+	 */
+	@FunctionalInterface
+	private interface Body {
+		void write(HttpServletResponse response) throws IOException;
+	}
+}
@@ -0,0 +1,50 @@
+package com.exalt.training.springsecurity.transaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AfterCommitTests {
+
+	private final List<String> actions = new ArrayList<>();
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void runsAtOnceOutsideATransaction() {
+		AfterCommit.run(() -> actions.add("indexed"));
+
+		assertThat(actions).containsExactly("indexed");
+	}
+
+	@Test
+	void waitsForTheCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		AfterCommit.run(() -> actions.add("indexed"));
+		assertThat(actions).isEmpty();
+
+		TransactionSynchronizationUtils.triggerAfterCommit();
+		assertThat(actions).containsExactly("indexed");
+	}
+
+	@Test
+	void isDroppedOnRollback() {
+		TransactionSynchronizationManager.initSynchronization();
+		AfterCommit.run(() -> actions.add("indexed"));
+
+		TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+		assertThat(actions).isEmpty();
+	}
+}